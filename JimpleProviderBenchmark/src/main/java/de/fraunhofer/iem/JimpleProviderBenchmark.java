@@ -0,0 +1,78 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import soot.Scene;
+import soot.SootClass;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the hot paths of the JimpleProvider on an initialized Soot: printing the Jimple code, generating the
+ * metrics and querying the invoke expressions. All the bodies are retrieved during the setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JimpleProviderBenchmark {
+    private final SootUtils sootUtils = new SootUtils();
+
+    private JimpleProviderBuilder jimpleProviderBuilder;
+    private JimpleProvider jimpleProvider;
+    private List<SootClass> sootClasses;
+    private File outFile;
+
+    @Setup(Level.Trial)
+    public void setUp(SyntheticClassPathState state) throws IOException {
+        jimpleProviderBuilder = new JimpleProviderBuilder();
+        jimpleProvider = jimpleProviderBuilder.appClassPath(state.classPath).build(true);
+
+        sootClasses = new ArrayList<>();
+        for (val appClass : state.appClasses) {
+            val sootClass = Scene.v().getSootClass(appClass);
+            sootUtils.retrieveActiveBodies(sootClass);
+            sootClasses.add(sootClass);
+        }
+
+        outFile = File.createTempFile("jimple-provider-benchmark", ".jimple");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jimpleProviderBuilder.close();
+
+        if (!outFile.delete()) {
+            outFile.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    public void flushSootClassToFile() throws IOException {
+        for (val sootClass : sootClasses) {
+            sootUtils.flushSootClassToFile(outFile, sootClass);
+        }
+    }
+
+    @Benchmark
+    public void writeMetric(Blackhole blackhole) throws IOException {
+        for (val sootClass : sootClasses) {
+            val writer = new StringWriter();
+            JimpleMetricsGenerator.writeMetric(sootClass, writer);
+            blackhole.consume(writer);
+        }
+    }
+
+    @Benchmark
+    public int getAllInvokedMethodUsages() {
+        return jimpleProvider.getAllInvokedMethodUsages(SyntheticClassPath.ROOT_PACKAGE).size();
+    }
+}
@@ -0,0 +1,30 @@
+package de.fraunhofer.iem;
+
+import org.openjdk.jmh.annotations.*;
+import soot.Scene;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the initialization of the full Soot against the minimal Soot
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SootInitializationBenchmark {
+    private static final SootUtils sootUtils = new SootUtils();
+
+    @Benchmark
+    public int initializeSoot(SyntheticClassPathState state) {
+        sootUtils.initializeSoot(state.classPath, state.appClasses);
+        return Scene.v().getApplicationClasses().size();
+    }
+
+    @Benchmark
+    public int initializeMinimalSoot(SyntheticClassPathState state) {
+        sootUtils.initializeMinimalSoot(state.classPath, state.appClasses);
+        return Scene.v().getApplicationClasses().size();
+    }
+}
@@ -0,0 +1,137 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates a directory of synthetic classes to benchmark the JimpleProvider. Every class has a constructor, a static
+ * method calling the same method of the previous class and an instance method using the JDK, all with line numbers
+ * and local variable names.
+ */
+public class SyntheticClassPath {
+    private static final int CLASSES_PER_PACKAGE = 100;
+    protected static final String ROOT_PACKAGE = "bench";
+
+    /**
+     * Generates the given number of classes into the given directory
+     *
+     * @param classPath Directory to generate the classes into
+     * @param classCount Number of classes
+     * @throws IOException If the class files could not be written
+     */
+    public static void generate(File classPath, int classCount) throws IOException {
+        for (int i = 0; i < classCount; i++) {
+            val classFile = new File(classPath, getInternalName(i) + ".class");
+
+            if (!classFile.getParentFile().exists() && !classFile.getParentFile().mkdirs()) {
+                throw new IOException("Could not create " + classFile.getParentFile().getAbsolutePath());
+            }
+
+            Files.write(classFile.toPath(), generateClass(i));
+        }
+    }
+
+    private static String getInternalName(int index) {
+        return ROOT_PACKAGE + "/p" + (index / CLASSES_PER_PACKAGE) + "/C" + index;
+    }
+
+    private static byte[] generateClass(int index) {
+        val className = getInternalName(index);
+        val classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+        classWriter.visit(V1_8, ACC_PUBLIC | ACC_SUPER, className, null, "java/lang/Object", null);
+        classWriter.visitSource("C" + index + ".java", null);
+
+        // public C<index>()
+        val init = classWriter.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        init.visitCode();
+        visitLine(init, 1);
+        init.visitVarInsn(ALOAD, 0);
+        init.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        init.visitInsn(RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+
+        // public static int compute(int x) { int y = x * 31 + index; return previous.compute(y) + y; }
+        val compute = classWriter.visitMethod(ACC_PUBLIC | ACC_STATIC, "compute", "(I)I", null, null);
+        val computeStart = new Label();
+        val computeEnd = new Label();
+        compute.visitCode();
+        compute.visitLabel(computeStart);
+        visitLine(compute, 3);
+        compute.visitVarInsn(ILOAD, 0);
+        compute.visitIntInsn(BIPUSH, 31);
+        compute.visitInsn(IMUL);
+        compute.visitLdcInsn(index);
+        compute.visitInsn(IADD);
+        compute.visitVarInsn(ISTORE, 1);
+        visitLine(compute, 4);
+
+        if (index > 0) {
+            compute.visitVarInsn(ILOAD, 1);
+            compute.visitMethodInsn(INVOKESTATIC, getInternalName(index - 1), "compute", "(I)I", false);
+        } else {
+            compute.visitInsn(ICONST_0);
+        }
+
+        compute.visitVarInsn(ILOAD, 1);
+        compute.visitInsn(IADD);
+        compute.visitInsn(IRETURN);
+        compute.visitLabel(computeEnd);
+        compute.visitLocalVariable("x", "I", null, computeStart, computeEnd, 0);
+        compute.visitLocalVariable("y", "I", null, computeStart, computeEnd, 1);
+        compute.visitMaxs(0, 0);
+        compute.visitEnd();
+
+        // public String describe(String name) { String description = new StringBuilder().append(name)
+        //         .append(compute(name.length())).toString(); System.out.println(description); return description; }
+        val describe = classWriter.visitMethod(ACC_PUBLIC, "describe", "(Ljava/lang/String;)Ljava/lang/String;", null, null);
+        val describeStart = new Label();
+        val describeEnd = new Label();
+        describe.visitCode();
+        describe.visitLabel(describeStart);
+        visitLine(describe, 6);
+        describe.visitTypeInsn(NEW, "java/lang/StringBuilder");
+        describe.visitInsn(DUP);
+        describe.visitMethodInsn(INVOKESPECIAL, "java/lang/StringBuilder", "<init>", "()V", false);
+        describe.visitVarInsn(ALOAD, 1);
+        describe.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
+        describe.visitVarInsn(ALOAD, 1);
+        describe.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "length", "()I", false);
+        describe.visitMethodInsn(INVOKESTATIC, className, "compute", "(I)I", false);
+        describe.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(I)Ljava/lang/StringBuilder;", false);
+        describe.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false);
+        describe.visitVarInsn(ASTORE, 2);
+        visitLine(describe, 7);
+        describe.visitFieldInsn(GETSTATIC, "java/lang/System", "out", "Ljava/io/PrintStream;");
+        describe.visitVarInsn(ALOAD, 2);
+        describe.visitMethodInsn(INVOKEVIRTUAL, "java/io/PrintStream", "println", "(Ljava/lang/String;)V", false);
+        visitLine(describe, 8);
+        describe.visitVarInsn(ALOAD, 2);
+        describe.visitInsn(ARETURN);
+        describe.visitLabel(describeEnd);
+        describe.visitLocalVariable("this", "L" + className + ";", null, describeStart, describeEnd, 0);
+        describe.visitLocalVariable("name", "Ljava/lang/String;", null, describeStart, describeEnd, 1);
+        describe.visitLocalVariable("description", "Ljava/lang/String;", null, describeStart, describeEnd, 2);
+        describe.visitMaxs(0, 0);
+        describe.visitEnd();
+
+        classWriter.visitEnd();
+
+        return classWriter.toByteArray();
+    }
+
+    private static void visitLine(MethodVisitor methodVisitor, int line) {
+        val label = new Label();
+        methodVisitor.visitLabel(label);
+        methodVisitor.visitLineNumber(line, label);
+    }
+}
@@ -0,0 +1,36 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Benchmark state holding a generated synthetic class directory. The number of classes is set by the JMH parameter
+ * classCount, e.g. -p classCount=100,1000,10000,50000
+ */
+@State(Scope.Benchmark)
+public class SyntheticClassPathState {
+    @Param({"100"})
+    public int classCount;
+
+    public String classPath;
+    public List<String> appClasses;
+
+    @Setup(Level.Trial)
+    public void generateClassPath() throws IOException {
+        val classPathDir = Files.createTempDirectory("jimple-provider-benchmark").toFile();
+        SyntheticClassPath.generate(classPathDir, classCount);
+
+        classPath = classPathDir.getAbsolutePath();
+        appClasses = new FilesUtils().getClassesAsList(classPath);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteClassPath() throws IOException {
+        new FilesUtils().deleteDirectory(new File(classPath));
+    }
+}
@@ -0,0 +1,262 @@
+package de.fraunhofer.iem;
+
+import lombok.Data;
+import lombok.val;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watch mode of the JimpleProvider tool. It keeps the Soot scene of the initial generation and watches the directories
+ * of the app classpath for changed class files. A burst of changes, e.g. by a compile, is collected until no change
+ * arrives for the debounce time, and then only the changed classes are reloaded and generated again.
+ * <p>
+ * Note: The jars of the app classpath are not watched.
+ */
+public class ClassPathWatcher implements Closeable {
+    private static final String CLASS_FILE_EXTENSION = ".class";
+    // Deleted directories of the classpath are checked for their recreation in this interval
+    private static final long ROOT_CHECK_MILLIS = 1000;
+
+    private final JimpleProviderBuilder jimpleProviderBuilder;
+    private final JimpleProvider jimpleProvider;
+    private final String outDirectory;
+    private final long debounceMillis;
+    private final List<Path> roots = new ArrayList<>();
+    private final Set<Path> unwatchedRoots = new LinkedHashSet<>();
+    private final Map<WatchKey, WatchedDirectory> watchedDirectories = new HashMap<>();
+    // Classes found in every directory of the classpath, which are deleted with the directory
+    private final Map<Path, Set<String>> rootClasses = new HashMap<>();
+    private final WatchService watchService;
+
+    @Data
+    private static class WatchedDirectory {
+        final Path directory;
+        final String packagePrefix;
+        final Path root;
+
+        boolean isRoot() {
+            return directory.equals(root);
+        }
+    }
+
+    /**
+     * Constructor for ClassPathWatcher. It registers all the directories of the app classpath.
+     *
+     * @param jimpleProviderBuilder Builder of the JimpleProvider, which decides about the selection of new classes
+     * @param jimpleProvider        JimpleProvider of the initial generation
+     * @param directories           Directories of the app classpath
+     * @param outDirectory          Output directory
+     * @param debounceMillis        Time without any change in milliseconds, after which the changed classes are generated
+     * @throws IOException If a directory could not be registered
+     */
+    public ClassPathWatcher(JimpleProviderBuilder jimpleProviderBuilder, JimpleProvider jimpleProvider,
+                            List<File> directories, String outDirectory, long debounceMillis) throws IOException {
+        this.jimpleProviderBuilder = jimpleProviderBuilder;
+        this.jimpleProvider = jimpleProvider;
+        this.outDirectory = outDirectory;
+        this.debounceMillis = debounceMillis;
+        this.watchService = FileSystems.getDefault().newWatchService();
+
+        for (val directory : directories) {
+            val root = directory.toPath().toAbsolutePath();
+            roots.add(root);
+            register(root, "", root, new HashSet<>());
+        }
+    }
+
+    /**
+     * Watches the directories and generates the changed classes until the thread is interrupted or the watcher is
+     * closed
+     *
+     * @throws IOException If a directory could not be registered
+     */
+    public void watch() throws IOException {
+        System.out.println("Watching        \t:   " + roots);
+
+        try {
+            while (true) {
+                val changedClasses = new TreeSet<String>();
+                WatchKey watchKey = watchService.poll(ROOT_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+
+                registerRecreatedRoots(changedClasses);
+
+                if (watchKey == null && changedClasses.isEmpty()) {
+                    continue;
+                }
+
+                // The changes are collected until the burst is over
+                while (watchKey != null) {
+                    collectChangedClasses(watchKey, changedClasses);
+                    watchKey = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+                }
+
+                regenerate(changedClasses);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+        }
+    }
+
+    /**
+     * Generates the given changed classes again, if they are selected
+     *
+     * @param changedClasses Changed classes
+     */
+    protected void regenerate(Set<String> changedClasses) {
+        val selectedClasses = new ArrayList<String>();
+
+        for (val changedClass : changedClasses) {
+            if (jimpleProviderBuilder.isSelected(changedClass)) {
+                selectedClasses.add(changedClass);
+            }
+        }
+
+        if (selectedClasses.isEmpty()) {
+            return;
+        }
+
+        val start = System.nanoTime();
+
+        try {
+            val reloadedClasses = jimpleProvider.regenerate(selectedClasses, outDirectory);
+
+            System.out.println("Regenerated     \t:   " + reloadedClasses.size() + " classes, deleted " +
+                    (selectedClasses.size() - reloadedClasses.size()) + " classes in " +
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        } catch (IOException | RuntimeException ex) {
+            // A class file may be incomplete, it is generated again with its next change
+            System.err.println("Could not regenerate the changed classes: " + ex.getMessage());
+        }
+    }
+
+    private void collectChangedClasses(WatchKey watchKey, Set<String> changedClasses) throws IOException {
+        val watchedDirectory = watchedDirectories.get(watchKey);
+
+        if (watchedDirectory == null) {
+            return;
+        }
+
+        for (val event : watchKey.pollEvents()) {
+            // Lost events are recovered by scanning the whole directory
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                addClassesIn(watchedDirectory, changedClasses);
+                register(watchedDirectory.directory, watchedDirectory.packagePrefix, watchedDirectory.root, changedClasses);
+                continue;
+            }
+
+            val fileName = event.context().toString();
+            val path = watchedDirectory.directory.resolve(fileName);
+
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                // The class files may be created before the directory is registered
+                register(path, watchedDirectory.packagePrefix + fileName + ".", watchedDirectory.root, changedClasses);
+            } else if (fileName.endsWith(CLASS_FILE_EXTENSION)) {
+                addClass(watchedDirectory.root, watchedDirectory.packagePrefix + fileName, changedClasses);
+            }
+        }
+
+        // The key is invalid when its directory is deleted, thus all its classes are deleted as well
+        if (!watchKey.reset()) {
+            watchedDirectories.remove(watchKey);
+            addClassesIn(watchedDirectory, changedClasses);
+
+            if (watchedDirectory.isRoot()) {
+                unwatchedRoots.add(watchedDirectory.directory);
+            }
+        }
+    }
+
+    private void registerRecreatedRoots(Set<String> changedClasses) throws IOException {
+        for (val root : new ArrayList<>(unwatchedRoots)) {
+            if (Files.isDirectory(root)) {
+                unwatchedRoots.remove(root);
+                register(root, "", root, changedClasses);
+            }
+        }
+    }
+
+    /**
+     * Registers the given directory and its sub-directories and adds the classes found in them to the changed classes
+     *
+     * @param directory      Directory
+     * @param packagePrefix  Package of the directory followed by '.', or empty for a directory of the classpath
+     * @param root           Directory of the classpath containing the directory
+     * @param changedClasses Changed classes
+     * @throws IOException If a directory could not be registered
+     */
+    private void register(Path directory, String packagePrefix, Path root, Set<String> changedClasses) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            private final Deque<String> packagePrefixes = new ArrayDeque<>();
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                val dirPackagePrefix = packagePrefixes.isEmpty()
+                        ? packagePrefix
+                        : packagePrefixes.peek() + dir.getFileName() + ".";
+                packagePrefixes.push(dirPackagePrefix);
+
+                val watchKey = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                watchedDirectories.put(watchKey, new WatchedDirectory(dir, dirPackagePrefix, root));
+
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                val fileName = file.getFileName().toString();
+
+                if (attrs.isRegularFile() && fileName.endsWith(CLASS_FILE_EXTENSION)) {
+                    addClass(root, packagePrefixes.peek() + fileName, changedClasses);
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+                packagePrefixes.pop();
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void addClass(Path root, String classFileName, Set<String> changedClasses) {
+        val className = classFileName.substring(0, classFileName.length() - CLASS_FILE_EXTENSION.length());
+
+        rootClasses.computeIfAbsent(root, key -> new HashSet<>()).add(className);
+        changedClasses.add(className);
+    }
+
+    /**
+     * Adds the classes found in the given directory to the changed classes. The classes of the same package in the
+     * other directories and in the jars of the classpath are not affected.
+     *
+     * @param watchedDirectory Watched directory
+     * @param changedClasses   Changed classes
+     */
+    private void addClassesIn(WatchedDirectory watchedDirectory, Set<String> changedClasses) {
+        for (val className : rootClasses.getOrDefault(watchedDirectory.root, Collections.emptySet())) {
+            if (className.startsWith(watchedDirectory.packagePrefix)) {
+                changedClasses.add(className);
+            }
+        }
+    }
+
+    /**
+     * Stops watching the directories
+     *
+     * @throws IOException If the watch service could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
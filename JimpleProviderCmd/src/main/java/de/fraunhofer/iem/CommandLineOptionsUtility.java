@@ -4,6 +4,7 @@ import lombok.val;
 import org.apache.commons.cli.*;
 
 import java.io.File;
+import java.io.IOException;
 
 /**
  * Utility class for the Command Line argument parser
@@ -24,6 +25,42 @@ public class CommandLineOptionsUtility {
     protected static final String BOOMERANG_PRE_TRANSFORMER_LONG = "boomerang-pre-transformer";
     protected static final String REPLACE_OLD_JIMPLE_SHORT = "rej";
     protected static final String REPLACE_OLD_JIMPLE_LONG = "replace-existing-jimple";
+    protected static final String PARALLEL_WORKERS_SHORT = "pw";
+    protected static final String PARALLEL_WORKERS_LONG = "parallel-workers";
+    protected static final String INCREMENTAL_SHORT = "inc";
+    protected static final String INCREMENTAL_LONG = "incremental";
+    protected static final String INCLUDE_PACKAGES_SHORT = "ip";
+    protected static final String INCLUDE_PACKAGES_LONG = "include-packages";
+    protected static final String EXCLUDE_PACKAGES_SHORT = "ep";
+    protected static final String EXCLUDE_PACKAGES_LONG = "exclude-packages";
+    protected static final String SYNC_BATCH_SIZE_SHORT = "sbs";
+    protected static final String SYNC_BATCH_SIZE_LONG = "sync-batch-size";
+    protected static final String MINIMAL_SOOT_SHORT = "ms";
+    protected static final String MINIMAL_SOOT_LONG = "minimal-soot";
+    protected static final String SHARDS_SHORT = "sh";
+    protected static final String SHARDS_LONG = "shards";
+    protected static final String DAEMON_SHORT = "d";
+    protected static final String DAEMON_LONG = "daemon";
+    protected static final String DAEMON_PORT_SHORT = "dp";
+    protected static final String DAEMON_PORT_LONG = "daemon-port";
+    protected static final String DAEMON_MEMORY_BUDGET_SHORT = "dmb";
+    protected static final String DAEMON_MEMORY_BUDGET_LONG = "daemon-memory-budget";
+    protected static final String INVOKE_SITES_SHORT = "is";
+    protected static final String INVOKE_SITES_LONG = "invoke-sites";
+    protected static final String CALL_GRAPH_SHORT = "cg";
+    protected static final String CALL_GRAPH_LONG = "call-graph";
+    protected static final String GENERATION_BATCH_SIZE_SHORT = "gbs";
+    protected static final String GENERATION_BATCH_SIZE_LONG = "generation-batch-size";
+    protected static final String RUN_REPORT_SHORT = "rr";
+    protected static final String RUN_REPORT_LONG = "run-report";
+    protected static final String WATCH_SHORT = "w";
+    protected static final String WATCH_LONG = "watch";
+    protected static final String WATCH_DEBOUNCE_SHORT = "wd";
+    protected static final String WATCH_DEBOUNCE_LONG = "watch-debounce";
+    protected static final String WARM_START_SHORT = "ws";
+    protected static final String WARM_START_LONG = "warm-start";
+    protected static final String WARM_START_DATA_SHORT = "wsd";
+    protected static final String WARM_START_DATA_LONG = "warm-start-data";
 
     private static final FilesUtils filesUtils = new FilesUtils();
 
@@ -42,22 +79,26 @@ public class CommandLineOptionsUtility {
                 CLASS_PATH_SHORT,
                 CLASS_PATH_LONG,
                 true,
-                "Classpath containing the Java bytecode");
-        classPathOption.setRequired(true);
+                "Classpath containing the Java bytecode. It is a list of directories, jars and @<file> " +
+                        "classpath files containing one entry per line, separated by the path separator. Required " +
+                        "unless the daemon mode is set");
+        classPathOption.setRequired(false);
 
         val outDir = new Option(
                 OUTPUT_ROOT_DIR_SHORT,
                 OUTPUT_ROOT_DIR_LONG,
                 true,
-                "Jimple output root directory");
-        outDir.setRequired(true);
+                "Jimple output root directory, or a .zip or .tar archive containing all the files and an " +
+                        "index. Required unless the daemon mode is set");
+        outDir.setRequired(false);
 
         val classList = new Option(
                 CLASS_LIST_SHORT,
                 CLASS_LIST_LONG,
                 true,
-                "List of classes to generate the Jimple code. If this option is not set, then it generates for " +
-                        "all the classes available in the given classpath");
+                "List of classes to generate the Jimple code, separated by ':'. An entry @<file> reads the " +
+                        "classes from the file, one class per line. If this option is not set, then it generates " +
+                        "for all the classes available in the given classpath");
         classList.setRequired(false);
 
         val bPT = new Option(
@@ -74,11 +115,180 @@ public class CommandLineOptionsUtility {
                 "Replace the existing Jimple code if present.");
         classList.setRequired(false);
 
+        val pW = new Option(
+                PARALLEL_WORKERS_SHORT,
+                PARALLEL_WORKERS_LONG,
+                true,
+                "Number of workers generating the Jimple code in parallel. If this option is not set, then it " +
+                        "generates the classes one after another");
+        pW.setRequired(false);
+
+        val inc = new Option(
+                INCREMENTAL_SHORT,
+                INCREMENTAL_LONG,
+                false,
+                "Generate the Jimple code only for the classes whose bytecode changed since the last run and " +
+                        "delete the Jimple code of the removed classes");
+        inc.setRequired(false);
+
+        val includePackages = new Option(
+                INCLUDE_PACKAGES_SHORT,
+                INCLUDE_PACKAGES_LONG,
+                true,
+                "List of packages, separated by ':'. Only the classes in these packages and their sub-packages " +
+                        "are loaded and generated");
+        includePackages.setRequired(false);
+
+        val excludePackages = new Option(
+                EXCLUDE_PACKAGES_SHORT,
+                EXCLUDE_PACKAGES_LONG,
+                true,
+                "List of packages, separated by ':'. The classes in these packages and their sub-packages are " +
+                        "neither loaded nor generated");
+        excludePackages.setRequired(false);
+
+        val syncBatchSize = new Option(
+                SYNC_BATCH_SIZE_SHORT,
+                SYNC_BATCH_SIZE_LONG,
+                true,
+                "Sync the generated files to the disk in batches of the given number of files. If this option is " +
+                        "not set, then the files are not synced");
+        syncBatchSize.setRequired(false);
+
+        val minimalSoot = new Option(
+                MINIMAL_SOOT_SHORT,
+                MINIMAL_SOOT_LONG,
+                false,
+                "Initialize the Soot without the whole program mode and the call graph. It cannot be combined " +
+                        "with the Boomerang pre-transformer");
+        minimalSoot.setRequired(false);
+
+        val shards = new Option(
+                SHARDS_SHORT,
+                SHARDS_LONG,
+                true,
+                "Number of JVM processes generating the Jimple code. The classes are partitioned by package and " +
+                        "every process loads only the classes of its partition. It cannot be combined with the " +
+                        "incremental generation");
+        shards.setRequired(false);
+
+        val daemon = new Option(
+                DAEMON_SHORT,
+                DAEMON_LONG,
+                false,
+                "Run as daemon that keeps the Soot scenes warm per classpath and serves JSON requests, one per " +
+                        "line, from the standard input or from the daemon port");
+        daemon.setRequired(false);
+
+        val daemonPort = new Option(
+                DAEMON_PORT_SHORT,
+                DAEMON_PORT_LONG,
+                true,
+                "Port on the loopback address the daemon listens on. If this option is not set, then the daemon " +
+                        "reads the requests from the standard input");
+        daemonPort.setRequired(false);
+
+        val daemonMemoryBudget = new Option(
+                DAEMON_MEMORY_BUDGET_SHORT,
+                DAEMON_MEMORY_BUDGET_LONG,
+                true,
+                "Memory budget of the warmed scenes in MB. The least recently used scenes are evicted when it is " +
+                        "exceeded. If this option is not set, then it is half of the maximum heap");
+        daemonMemoryBudget.setRequired(false);
+
+        val invokeSites = new Option(
+                INVOKE_SITES_SHORT,
+                INVOKE_SITES_LONG,
+                true,
+                "Export all the invoke sites of the app classes into the given file as columnar table after the " +
+                        "generation. A file ending with .gz is compressed. It cannot be combined with the shards");
+        invokeSites.setRequired(false);
+
+        val callGraph = new Option(
+                CALL_GRAPH_SHORT,
+                CALL_GRAPH_LONG,
+                true,
+                "Export the call graph of the app classes into the given file as edge list in the format of the " +
+                        "invoke sites after the generation. A file ending with .gz is compressed. It cannot be " +
+                        "combined with the shards");
+        callGraph.setRequired(false);
+
+        val generationBatchSize = new Option(
+                GENERATION_BATCH_SIZE_SHORT,
+                GENERATION_BATCH_SIZE_LONG,
+                true,
+                "Generate the classes in batches of the given number of classes and release the method bodies of " +
+                        "a batch once it is written, so that the memory stays bounded. The peak heap of every " +
+                        "batch is reported. It cannot be combined with the Boomerang pre-transformer");
+        generationBatchSize.setRequired(false);
+
+        val runReport = new Option(
+                RUN_REPORT_SHORT,
+                RUN_REPORT_LONG,
+                true,
+                "Write the run report into the given JSON file after the generation. It contains the time of every " +
+                        "phase, the counters such as the bytes written and the bodies retrieved, the classes per " +
+                        "second and the slowest classes. It cannot be combined with the shards");
+        runReport.setRequired(false);
+
+        val watch = new Option(
+                WATCH_SHORT,
+                WATCH_LONG,
+                false,
+                "Keep running after the generation and watch the directories of the classpath for changed class " +
+                        "files. Only the changed classes are reloaded into the Soot and generated again. It cannot " +
+                        "be combined with the Boomerang pre-transformer, the shards and an output archive");
+        watch.setRequired(false);
+
+        val watchDebounce = new Option(
+                WATCH_DEBOUNCE_SHORT,
+                WATCH_DEBOUNCE_LONG,
+                true,
+                "Time in milliseconds without any change, after which the changed classes are generated in the " +
+                        "watch mode. If this option is not set, then it is 200 milliseconds");
+        watchDebounce.setRequired(false);
+
+        val warmStart = new Option(
+                WARM_START_SHORT,
+                WARM_START_LONG,
+                true,
+                "Output directory of a previous incremental generation with the same options. The classes that did " +
+                        "not change since are read from their Jimple code and line tables instead of their bytecode, " +
+                        "and their files are copied. It can be the output directory itself, unless it is replaced. " +
+                        "It cannot be combined with the shards");
+        warmStart.setRequired(false);
+
+        val warmStartData = new Option(
+                WARM_START_DATA_SHORT,
+                WARM_START_DATA_LONG,
+                false,
+                "Write the line table of every generated class next to its Jimple code, so that the output " +
+                        "directory can be used for a warm start. It requires the incremental generation");
+        warmStartData.setRequired(false);
+
         cmdOptions.addOption(classPathOption);
         cmdOptions.addOption(classList);
         cmdOptions.addOption(outDir);
         cmdOptions.addOption(bPT);
         cmdOptions.addOption(rEJ);
+        cmdOptions.addOption(pW);
+        cmdOptions.addOption(inc);
+        cmdOptions.addOption(includePackages);
+        cmdOptions.addOption(excludePackages);
+        cmdOptions.addOption(syncBatchSize);
+        cmdOptions.addOption(minimalSoot);
+        cmdOptions.addOption(shards);
+        cmdOptions.addOption(daemon);
+        cmdOptions.addOption(daemonPort);
+        cmdOptions.addOption(daemonMemoryBudget);
+        cmdOptions.addOption(invokeSites);
+        cmdOptions.addOption(callGraph);
+        cmdOptions.addOption(generationBatchSize);
+        cmdOptions.addOption(runReport);
+        cmdOptions.addOption(watch);
+        cmdOptions.addOption(watchDebounce);
+        cmdOptions.addOption(warmStart);
+        cmdOptions.addOption(warmStartData);
 
         return cmdOptions;
     }
@@ -106,6 +316,18 @@ public class CommandLineOptionsUtility {
             System.exit(-1);
         }
 
+        // The daemon gets the classpath and the output directory with every request
+        if (commandLine.hasOption(DAEMON_SHORT)) {
+            checkDaemonOptions(commandLine);
+            return commandLine;
+        }
+
+        if (!commandLine.hasOption(CLASS_PATH_SHORT) || !commandLine.hasOption(OUTPUT_ROOT_DIR_SHORT)) {
+            System.err.println("Missing required options: " + CLASS_PATH_SHORT + ", " + OUTPUT_ROOT_DIR_SHORT);
+            helpFormatter.printHelp("JimpleProvider", cmdOptions);
+            System.exit(-1);
+        }
+
         // Check for validness of the classPath
         checkClassPath(commandLine.getOptionValue(CLASS_PATH_SHORT)
         );
@@ -114,6 +336,79 @@ public class CommandLineOptionsUtility {
         checkOutDir(commandLine.getOptionValue(OUTPUT_ROOT_DIR_SHORT)
         );
 
+        // Check for validness of the number of parallel workers
+        if (commandLine.hasOption(PARALLEL_WORKERS_SHORT)) {
+            checkParallelWorkers(commandLine.getOptionValue(PARALLEL_WORKERS_SHORT));
+        }
+
+        // Check for validness of the sync batch size
+        if (commandLine.hasOption(SYNC_BATCH_SIZE_SHORT)) {
+            checkSyncBatchSize(commandLine.getOptionValue(SYNC_BATCH_SIZE_SHORT));
+        }
+
+        // Check for validness of the generation batch size
+        if (commandLine.hasOption(GENERATION_BATCH_SIZE_SHORT)) {
+            checkGenerationBatchSize(commandLine.getOptionValue(GENERATION_BATCH_SIZE_SHORT),
+                    commandLine.hasOption(BOOMERANG_PRE_TRANSFORMER_SHORT));
+        }
+
+        // The Boomerang pre-transformer needs the call graph
+        if (commandLine.hasOption(MINIMAL_SOOT_SHORT) && commandLine.hasOption(BOOMERANG_PRE_TRANSFORMER_SHORT)) {
+            System.err.println("Minimal Soot cannot be combined with the Boomerang pre-transformer!!!");
+            System.exit(-1);
+        }
+
+        // Check for validness of the number of shards
+        if (commandLine.hasOption(SHARDS_SHORT)) {
+            checkShards(commandLine.getOptionValue(SHARDS_SHORT), commandLine.hasOption(INCREMENTAL_SHORT));
+        }
+
+        // The invoke sites, the call graph and the run report are exported from the scene of a single process
+        if (commandLine.hasOption(SHARDS_SHORT) && Integer.parseInt(commandLine.getOptionValue(SHARDS_SHORT)) > 1) {
+            if (commandLine.hasOption(INVOKE_SITES_SHORT)) {
+                System.err.println("Invoke sites export cannot be combined with the shards!!!");
+                System.exit(-1);
+            }
+
+            if (commandLine.hasOption(CALL_GRAPH_SHORT)) {
+                System.err.println("Call graph export cannot be combined with the shards!!!");
+                System.exit(-1);
+            }
+
+            if (commandLine.hasOption(RUN_REPORT_SHORT)) {
+                System.err.println("Run report cannot be combined with the shards!!!");
+                System.exit(-1);
+            }
+        }
+
+        // An archive is written as a whole by a single process
+        if (OutputSink.isArchive(commandLine.getOptionValue(OUTPUT_ROOT_DIR_SHORT))) {
+            if (commandLine.hasOption(INCREMENTAL_SHORT)) {
+                System.err.println("Output archive cannot be combined with the incremental generation!!!");
+                System.exit(-1);
+            }
+
+            if (commandLine.hasOption(SHARDS_SHORT) && Integer.parseInt(commandLine.getOptionValue(SHARDS_SHORT)) > 1) {
+                System.err.println("Output archive cannot be combined with the shards!!!");
+                System.exit(-1);
+            }
+        }
+
+        // Check for validness of the watch options
+        if (commandLine.hasOption(WATCH_SHORT) || commandLine.hasOption(WATCH_DEBOUNCE_SHORT)) {
+            checkWatchOptions(commandLine);
+        }
+
+        // Check for validness of the warm start directory
+        if (commandLine.hasOption(WARM_START_SHORT)) {
+            checkWarmStart(commandLine);
+        }
+
+        // The line tables are written by the incremental generation
+        if (commandLine.hasOption(WARM_START_DATA_SHORT) && !commandLine.hasOption(INCREMENTAL_SHORT)) {
+            System.err.println("Warm start data requires the incremental generation!!!");
+            System.exit(-1);
+        }
 
         return commandLine;
     }
@@ -124,23 +419,25 @@ public class CommandLineOptionsUtility {
      * @param classPath Classpath
      */
     private void checkClassPath(String classPath) {
-        if (!filesUtils.isValidPath(classPath)) {
-            System.err.println("Given classpath is not valid!!!");
-            System.exit(-1);
+        for (val entry : classPath.split(File.pathSeparator)) {
+            if (!filesUtils.isValidPath(entry.startsWith("@") ? entry.substring(1) : entry)) {
+                System.err.println("Given classpath is not valid!!!");
+                System.exit(-1);
+            }
         }
 
-        val file = new File(classPath);
-
-        if (file.exists() && !file.isDirectory()) {
-            System.err.println("Given classpath is not a directory!!!");
+        try {
+            ClassPathIndex.of(classPath).close();
+        } catch (IOException | RuntimeException ex) {
+            System.err.println(ex.getMessage());
             System.exit(-1);
         }
     }
 
     /**
-     * Check for the validness of the given output root directory.
+     * Check for the validness of the given output root directory or archive.
      *
-     * @param outDir Output root directory
+     * @param outDir Output root directory or archive
      */
     private void checkOutDir(String outDir) {
         if (!filesUtils.isValidPath(outDir)) {
@@ -150,12 +447,216 @@ public class CommandLineOptionsUtility {
 
         val file = new File(outDir);
 
+        if (OutputSink.isArchive(outDir)) {
+            if (file.isDirectory()) {
+                System.err.println("Given output archive is a directory!!!");
+                System.exit(-1);
+            }
+
+            return;
+        }
+
         if (file.exists() && !file.isDirectory()) {
             System.err.println("Given output root directory is not a directory!!!");
             System.exit(-1);
         }
     }
 
+    /**
+     * Check for the validness of the given number of parallel workers.
+     *
+     * @param parallelWorkers Number of parallel workers
+     */
+    private void checkParallelWorkers(String parallelWorkers) {
+        try {
+            if (Integer.parseInt(parallelWorkers) >= 1) {
+                return;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+
+        System.err.println("Given number of parallel workers is not a positive number!!!");
+        System.exit(-1);
+    }
+
+    /**
+     * Check for the validness of the given sync batch size.
+     *
+     * @param syncBatchSize Sync batch size
+     */
+    private void checkSyncBatchSize(String syncBatchSize) {
+        try {
+            if (Integer.parseInt(syncBatchSize) >= 1) {
+                return;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+
+        System.err.println("Given sync batch size is not a positive number!!!");
+        System.exit(-1);
+    }
+
+    /**
+     * Check for the validness of the given generation batch size.
+     *
+     * @param generationBatchSize Generation batch size
+     * @param isBoomerang         Boomerang pre-transformer or not
+     */
+    private void checkGenerationBatchSize(String generationBatchSize, boolean isBoomerang) {
+        try {
+            if (Integer.parseInt(generationBatchSize) < 1) {
+                throw new NumberFormatException();
+            }
+        } catch (NumberFormatException ex) {
+            System.err.println("Given generation batch size is not a positive number!!!");
+            System.exit(-1);
+        }
+
+        // The bodies transformed by the pre-transformer cannot be retrieved again
+        if (isBoomerang) {
+            System.err.println("Generation batch size cannot be combined with the Boomerang pre-transformer!!!");
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Check for the validness of the given number of shards.
+     *
+     * @param shards        Number of shards
+     * @param isIncremental Incremental generation or not
+     */
+    private void checkShards(String shards, boolean isIncremental) {
+        try {
+            if (Integer.parseInt(shards) < 1) {
+                throw new NumberFormatException();
+            }
+        } catch (NumberFormatException ex) {
+            System.err.println("Given number of shards is not a positive number!!!");
+            System.exit(-1);
+        }
+
+        // The shards would overwrite the manifest of each other
+        if (isIncremental && Integer.parseInt(shards) > 1) {
+            System.err.println("Shards cannot be combined with the incremental generation!!!");
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Check for the validness of the watch options.
+     *
+     * @param commandLine Parsed command line
+     */
+    private void checkWatchOptions(CommandLine commandLine) {
+        if (!commandLine.hasOption(WATCH_SHORT)) {
+            System.err.println("Watch debounce requires the watch mode!!!");
+            System.exit(-1);
+        }
+
+        try {
+            if (commandLine.hasOption(WATCH_DEBOUNCE_SHORT) &&
+                    Long.parseLong(commandLine.getOptionValue(WATCH_DEBOUNCE_SHORT)) < 1) {
+                throw new NumberFormatException();
+            }
+        } catch (NumberFormatException ex) {
+            System.err.println("Given watch debounce is not a positive number!!!");
+            System.exit(-1);
+        }
+
+        // The bodies transformed by the pre-transformer depend on the whole program
+        if (commandLine.hasOption(BOOMERANG_PRE_TRANSFORMER_SHORT)) {
+            System.err.println("Watch mode cannot be combined with the Boomerang pre-transformer!!!");
+            System.exit(-1);
+        }
+
+        if (commandLine.hasOption(SHARDS_SHORT) && Integer.parseInt(commandLine.getOptionValue(SHARDS_SHORT)) > 1) {
+            System.err.println("Watch mode cannot be combined with the shards!!!");
+            System.exit(-1);
+        }
+
+        if (OutputSink.isArchive(commandLine.getOptionValue(OUTPUT_ROOT_DIR_SHORT))) {
+            System.err.println("Watch mode cannot be combined with an output archive!!!");
+            System.exit(-1);
+        }
+
+        try (val classPathIndex = ClassPathIndex.of(commandLine.getOptionValue(CLASS_PATH_SHORT))) {
+            if (classPathIndex.getDirectories().isEmpty()) {
+                System.err.println("Watch mode requires a directory in the classpath!!!");
+                System.exit(-1);
+            }
+        } catch (IOException | RuntimeException ex) {
+            System.err.println(ex.getMessage());
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Check for the validness of the warm start directory.
+     *
+     * @param commandLine Parsed command line
+     */
+    private void checkWarmStart(CommandLine commandLine) {
+        val warmStartDir = commandLine.getOptionValue(WARM_START_SHORT);
+
+        if (!filesUtils.isValidPath(warmStartDir) || OutputSink.isArchive(warmStartDir)) {
+            System.err.println("Given warm start directory is not valid!!!");
+            System.exit(-1);
+        }
+
+        if (!new File(warmStartDir).isDirectory()) {
+            System.err.println("Given warm start directory does not exist!!!");
+            System.exit(-1);
+        }
+
+        // Every shard process builds its own scene
+        if (commandLine.hasOption(SHARDS_SHORT) && Integer.parseInt(commandLine.getOptionValue(SHARDS_SHORT)) > 1) {
+            System.err.println("Warm start cannot be combined with the shards!!!");
+            System.exit(-1);
+        }
+
+        // The Jimple files of the unchanged classes are copied from the warm start directory
+        val outDir = new File(commandLine.getOptionValue(OUTPUT_ROOT_DIR_SHORT)).getAbsoluteFile().toPath().normalize();
+        if (commandLine.hasOption(REPLACE_OLD_JIMPLE_SHORT)
+                && new File(warmStartDir).getAbsoluteFile().toPath().normalize().equals(outDir)) {
+            System.err.println("Warm start directory cannot be replaced!!!");
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Check for the validness of the daemon options.
+     *
+     * @param commandLine Parsed command line
+     */
+    private void checkDaemonOptions(CommandLine commandLine) {
+        if (commandLine.hasOption(PARALLEL_WORKERS_SHORT)) {
+            checkParallelWorkers(commandLine.getOptionValue(PARALLEL_WORKERS_SHORT));
+        }
+
+        try {
+            if (commandLine.hasOption(DAEMON_PORT_SHORT)) {
+                val port = Integer.parseInt(commandLine.getOptionValue(DAEMON_PORT_SHORT));
+
+                if (port < 0 || port > 65535) {
+                    throw new NumberFormatException();
+                }
+            }
+        } catch (NumberFormatException ex) {
+            System.err.println("Given daemon port is not a valid port!!!");
+            System.exit(-1);
+        }
+
+        try {
+            if (commandLine.hasOption(DAEMON_MEMORY_BUDGET_SHORT) &&
+                    Long.parseLong(commandLine.getOptionValue(DAEMON_MEMORY_BUDGET_SHORT)) < 1) {
+                throw new NumberFormatException();
+            }
+        } catch (NumberFormatException ex) {
+            System.err.println("Given daemon memory budget is not a positive number!!!");
+            System.exit(-1);
+        }
+    }
+
     /**
      * Prints the stacktrace and exit the program
      *
@@ -0,0 +1,240 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Daemon mode of the JimpleProvider tool. It keeps warmed Soot scenes per classpath and serves the requests one after
+ * another, either from the standard input or from a socket bound to the loopback address.
+ * <p>
+ * Every request and response is a JSON object on a single line. A request contains the "command" and an optional "id"
+ * that is echoed in the response. The commands are:
+ * <ul>
+ *     <li>generate: classPath, outDir, optional classes, preTransformer (NONE or BOOMERANG), replace, incremental</li>
+ *     <li>invokedMethods: classPath, className, method, optional preTransformer</li>
+ *     <li>methodsAtLines: classPath, locations as list of fileName and lineNumber, optional preTransformer</li>
+ *     <li>reachingMethods: classPath, method signature, optional appOnly, preTransformer</li>
+ *     <li>evict: classPath, or all the scenes if it is not given</li>
+ *     <li>status: the warmed scenes</li>
+ *     <li>shutdown: stops the daemon</li>
+ * </ul>
+ * A response contains the "status" ok and the "result", or the status error and the "message".
+ */
+public class Daemon {
+    private final WarmScenes warmScenes;
+    private boolean running = true;
+
+    /**
+     * Constructor for Daemon
+     *
+     * @param memoryBudget Memory budget of the warmed scenes in bytes
+     * @param workers      Number of workers used to generate the Jimple code
+     * @throws IOException If the directories of the classpaths could not be watched
+     */
+    public Daemon(long memoryBudget, int workers) throws IOException {
+        this(new WarmScenes(memoryBudget, workers));
+    }
+
+    /**
+     * Constructor for Daemon serving the given scenes
+     *
+     * @param warmScenes Warmed scenes
+     */
+    protected Daemon(WarmScenes warmScenes) {
+        this.warmScenes = warmScenes;
+    }
+
+    /**
+     * Serves the requests from the standard input until the shutdown command or the end of the input. The responses
+     * are written to the standard output, therefore the log messages are redirected to the standard error.
+     *
+     * @throws IOException If the standard input could not be read
+     */
+    public void serveStandardInput() throws IOException {
+        val responseStream = System.out;
+        System.setOut(System.err);
+
+        val reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        val writer = new PrintWriter(new OutputStreamWriter(responseStream, StandardCharsets.UTF_8));
+
+        try {
+            serve(reader, writer);
+        } finally {
+            warmScenes.close();
+        }
+    }
+
+    /**
+     * Serves the requests from the clients connecting to the given port of the loopback address until the shutdown
+     * command. The clients are served one after another.
+     *
+     * @param port Port
+     * @throws IOException If the socket could not be opened
+     */
+    public void serveSocket(int port) throws IOException {
+        try (val serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.out.println("Daemon listening on " + serverSocket.getLocalSocketAddress());
+
+            while (running) {
+                try (Socket socket = serverSocket.accept()) {
+                    val reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                    val writer = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+
+                    serve(reader, writer);
+                } catch (IOException ex) {
+                    System.err.println("Client connection failed: " + ex.getMessage());
+                }
+            }
+        } finally {
+            warmScenes.close();
+        }
+    }
+
+    private void serve(BufferedReader reader, PrintWriter writer) throws IOException {
+        String line;
+
+        while (running && (line = reader.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+
+            writer.println(handle(line));
+            writer.flush();
+        }
+    }
+
+    /**
+     * Handles the given request and returns the response. The failures of the request are reported in the response.
+     *
+     * @param line Request as JSON object
+     * @return Response as JSON object
+     */
+    protected String handle(String line) {
+        val response = new JSONObject();
+
+        try {
+            val request = new JSONObject(line);
+
+            if (request.has("id")) {
+                response.put("id", request.get("id"));
+            }
+
+            response.put("result", execute(request));
+            response.put("status", "ok");
+        } catch (IOException | RuntimeException ex) {
+            response.put("status", "error");
+            response.put("message", ex.getMessage() == null ? ex.toString() : ex.getMessage());
+        }
+
+        return response.toString();
+    }
+
+    private Object execute(JSONObject request) throws IOException {
+        val command = request.getString("command");
+
+        switch (command) {
+            case "generate":
+                return generate(request);
+            case "invokedMethods":
+                return getInvokedMethods(request);
+            case "methodsAtLines":
+                return getMethodsAtLines(request);
+            case "reachingMethods":
+                return getReachingMethods(request);
+            case "evict":
+                if (request.has("classPath")) {
+                    return warmScenes.evictClassPath(request.getString("classPath"));
+                }
+
+                warmScenes.evictAll();
+                return JSONObject.NULL;
+            case "status":
+                return warmScenes.toJSON();
+            case "shutdown":
+                running = false;
+                return JSONObject.NULL;
+            default:
+                throw new JSONException("Unknown command " + command);
+        }
+    }
+
+    private Object generate(JSONObject request) throws IOException {
+        val jimpleProvider = getJimpleProvider(request);
+        val outDir = request.getString("outDir");
+        val isReplaceOldJimple = request.optBoolean("replace");
+        // The scene is shared by the requests, therefore the option is not stored in it
+        val isIncremental = request.optBoolean("incremental");
+
+        if (request.has("classes")) {
+            val appClasses = new ArrayList<String>();
+
+            for (val appClass : request.getJSONArray("classes")) {
+                appClasses.add(appClass.toString());
+            }
+
+            jimpleProvider.generate(appClasses, outDir, isReplaceOldJimple, isIncremental);
+        } else {
+            jimpleProvider.generate(outDir, isReplaceOldJimple, isIncremental);
+        }
+
+        return JSONObject.NULL;
+    }
+
+    private Object getInvokedMethods(JSONObject request) throws IOException {
+        val jimpleProvider = getJimpleProvider(request);
+        val invokedMethods = new JSONArray();
+
+        for (val invokeExpression : jimpleProvider.getAllInvokedMethodSignature(
+                request.getString("className"), request.getString("method"))) {
+            invokedMethods.put(new JSONObject()
+                    .put("invokedMethodSignature", invokeExpression.getInvokedMethodSignature())
+                    .put("invokedInMethod", invokeExpression.getInvokedInMethod())
+                    .put("lineNumber", invokeExpression.getLineNumber()));
+        }
+
+        return invokedMethods;
+    }
+
+    private Object getMethodsAtLines(JSONObject request) throws IOException {
+        val jimpleProvider = getJimpleProvider(request);
+        val sourceLineNumbers = new ArrayList<SourceLineNumber>();
+
+        for (val location : request.getJSONArray("locations")) {
+            val sourceLineNumber = (JSONObject) location;
+            sourceLineNumbers.add(new SourceLineNumber(
+                    sourceLineNumber.getString("fileName"), sourceLineNumber.getInt("lineNumber")));
+        }
+
+        val methodSignatures = new JSONArray();
+
+        for (val methodSignature : jimpleProvider.findMethodsContainingLineNumbers(sourceLineNumbers)) {
+            methodSignatures.put(methodSignature == null ? JSONObject.NULL : methodSignature);
+        }
+
+        return methodSignatures;
+    }
+
+    private Object getReachingMethods(JSONObject request) throws IOException {
+        val callGraph = getJimpleProvider(request).getCallGraph();
+        val method = request.getString("method");
+
+        return new JSONArray(request.optBoolean("appOnly")
+                ? callGraph.getAppMethodsReaching(method)
+                : callGraph.getMethodsReaching(method));
+    }
+
+    private JimpleProvider getJimpleProvider(JSONObject request) throws IOException {
+        val preTransformer = PreTransformer.valueOf(request.optString("preTransformer", PreTransformer.NONE.name()));
+
+        return warmScenes.get(request.getString("classPath"), preTransformer);
+    }
+}
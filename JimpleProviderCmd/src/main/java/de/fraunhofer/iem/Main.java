@@ -1,10 +1,15 @@
 package de.fraunhofer.iem;
 
 import lombok.val;
+import org.apache.commons.cli.CommandLine;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.*;
 
 /**
  * Main class of the JimpleProvider tool
@@ -12,16 +17,22 @@ import java.util.Arrays;
  * @author Ranjith Krishnamurthy
  */
 public class Main {
+    private static final int MAX_PRINTED_CLASSES = 20;
+    private static final long DEFAULT_WATCH_DEBOUNCE_MILLIS = 200;
+
     /**
      * Main method
      *
      * @param args Command line arguments
      */
     public static void main(String[] args) {
-        val filesUtils = new FilesUtils();
-
         val commandLine = new CommandLineOptionsUtility().parseCommandArguments(args);
 
+        if (commandLine.hasOption(CommandLineOptionsUtility.DAEMON_SHORT)) {
+            runDaemon(commandLine);
+            return;
+        }
+
         // Store for the app class path
         val appClassPath = commandLine.getOptionValue(CommandLineOptionsUtility.CLASS_PATH_SHORT);
 
@@ -37,30 +48,82 @@ public class Main {
         boolean isReplaceOldJimple;
         isReplaceOldJimple = commandLine.hasOption(CommandLineOptionsUtility.REPLACE_OLD_JIMPLE_SHORT);
 
+        // Store INCREMENTAL
+        boolean isIncremental;
+        isIncremental = commandLine.hasOption(CommandLineOptionsUtility.INCREMENTAL_SHORT);
+
+        // Store MINIMAL_SOOT
+        boolean isMinimalSoot;
+        isMinimalSoot = commandLine.hasOption(CommandLineOptionsUtility.MINIMAL_SOOT_SHORT);
+
+        // Store the sync batch size
+        int syncBatchSize = 0;
+        if (commandLine.hasOption(CommandLineOptionsUtility.SYNC_BATCH_SIZE_SHORT)) {
+            syncBatchSize = Integer.parseInt(commandLine.getOptionValue(CommandLineOptionsUtility.SYNC_BATCH_SIZE_SHORT));
+        }
+
+        // Store the number of parallel workers
+        int parallelWorkers = 1;
+        if (commandLine.hasOption(CommandLineOptionsUtility.PARALLEL_WORKERS_SHORT)) {
+            parallelWorkers = Integer.parseInt(commandLine.getOptionValue(CommandLineOptionsUtility.PARALLEL_WORKERS_SHORT));
+        }
+
+        // Store the generation batch size
+        int generationBatchSize = 0;
+        if (commandLine.hasOption(CommandLineOptionsUtility.GENERATION_BATCH_SIZE_SHORT)) {
+            generationBatchSize = Integer.parseInt(commandLine.getOptionValue(CommandLineOptionsUtility.GENERATION_BATCH_SIZE_SHORT));
+        }
+
         // Check for the app class list
         val appClasses = new ArrayList<String>();
 
         if (commandLine.hasOption(CommandLineOptionsUtility.CLASS_LIST_SHORT)) {
-            val appClassesAsString = commandLine.getOptionValue(CommandLineOptionsUtility.CLASS_LIST_SHORT);
-
-            appClasses.addAll(Arrays.asList(appClassesAsString.split(":")));
+            appClasses.addAll(readClassList(commandLine.getOptionValue(CommandLineOptionsUtility.CLASS_LIST_SHORT)));
 
             // Check if the given classes are valid or not
-            appClasses.forEach(s -> {
-                try {
-                    if (!filesUtils.getClassesAsList(appClassPath).contains(s)) {
-                        System.err.println(s + " is not present in the given class path!");
-                        System.exit(-1);
-                    }
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-            });
+            checkClassList(appClassPath, appClasses);
         }
 
+        // Store the included and excluded packages
+        val includedPackages = getPackages(commandLine, CommandLineOptionsUtility.INCLUDE_PACKAGES_SHORT);
+        val excludedPackages = getPackages(commandLine, CommandLineOptionsUtility.EXCLUDE_PACKAGES_SHORT);
+
         // Store the output directory
         val outDir = commandLine.getOptionValue(CommandLineOptionsUtility.OUTPUT_ROOT_DIR_SHORT);
 
+        // Store the warm start directory
+        val warmStartDir = commandLine.getOptionValue(CommandLineOptionsUtility.WARM_START_SHORT);
+        val isWarmStartData = commandLine.hasOption(CommandLineOptionsUtility.WARM_START_DATA_SHORT);
+
+        // Store the number of shards
+        int shards = 1;
+        if (commandLine.hasOption(CommandLineOptionsUtility.SHARDS_SHORT)) {
+            shards = Integer.parseInt(commandLine.getOptionValue(CommandLineOptionsUtility.SHARDS_SHORT));
+        }
+
+        if (shards > 1) {
+            try {
+                val selectedClasses = new JimpleProviderBuilder()
+                        .appClassPath(appClassPath)
+                        .classes(appClasses)
+                        .includePackages(includedPackages)
+                        .excludePackages(excludedPackages)
+                        .getSelectedClasses();
+
+                val shardedGeneration = new ShardedGeneration(
+                        appClassPath, preTransformer, isMinimalSoot, parallelWorkers, syncBatchSize, generationBatchSize);
+
+                if (!shardedGeneration.generate(selectedClasses, outDir, isReplaceOldJimple, shards)) {
+                    System.exit(-1);
+                }
+            } catch (IOException | RuntimeException exception) {
+                System.err.println("There was an exception!\n " + exception.getMessage());
+                System.exit(-1);
+            }
+
+            return;
+        }
+
 
         val jimpleProviderBuilder = new JimpleProviderBuilder();
 
@@ -68,25 +131,212 @@ public class Main {
         val jimpleProvider = jimpleProviderBuilder
                 .appClassPath(appClassPath)
                 .preTransformer(preTransformer)
-                .build();
+                .workers(parallelWorkers)
+                .incremental(isIncremental)
+                .syncBatchSize(syncBatchSize)
+                .batchSize(generationBatchSize)
+                .classes(appClasses)
+                .includePackages(includedPackages)
+                .excludePackages(excludedPackages)
+                .warmStart(warmStartDir)
+                .warmStartData(isWarmStartData)
+                .build(isMinimalSoot);
 
         System.out.println("***********************************");
         System.out.println("App Classpath   \t:   " + appClassPath);
         System.out.println("Output directory\t:   " + outDir);
         System.out.println("Pre-Transformer \t:   " + preTransformer);
-        System.out.println("Class list      \t:   " + appClasses);
+        System.out.println("Class list      \t:   " +
+                (appClasses.size() > MAX_PRINTED_CLASSES ? appClasses.size() + " classes" : appClasses));
+        System.out.println("Packages        \t:   " + includedPackages + ", excluded " + excludedPackages);
+        System.out.println("Minimal Soot    \t:   " + isMinimalSoot);
+        System.out.println("Workers         \t:   " + parallelWorkers);
+        System.out.println("Incremental     \t:   " + isIncremental);
+        System.out.println("Batch size      \t:   " + (generationBatchSize > 0 ? generationBatchSize : "all classes"));
+        System.out.println("Watch           \t:   " + commandLine.hasOption(CommandLineOptionsUtility.WATCH_SHORT));
+        System.out.println("Warm start      \t:   " + (warmStartDir != null ? warmStartDir : "none"));
+        System.out.println("Warm start data \t:   " + isWarmStartData);
         System.out.println("***********************************");
 
 
-            if (!appClasses.isEmpty()) {
-                jimpleProvider.generate(appClasses, outDir, isReplaceOldJimple);
-            } else {
-                jimpleProvider.generate(outDir, isReplaceOldJimple);
+            // The JimpleProvider is restricted to the selected classes
+            jimpleProvider.generate(outDir, isReplaceOldJimple);
+
+            if (commandLine.hasOption(CommandLineOptionsUtility.INVOKE_SITES_SHORT)) {
+                val invokeSitesFile = commandLine.getOptionValue(CommandLineOptionsUtility.INVOKE_SITES_SHORT);
+                val invokeSiteTable = jimpleProvider.getAllInvokeSites("");
+                invokeSiteTable.write(new File(invokeSitesFile), invokeSitesFile.endsWith(".gz"));
+
+                System.out.println("Invoke sites    \t:   " + invokeSiteTable.size() + " sites, " +
+                        invokeSiteTable.getSignatureCount() + " signatures written to " + invokeSitesFile);
+            }
+
+            if (commandLine.hasOption(CommandLineOptionsUtility.CALL_GRAPH_SHORT)) {
+                val callGraphFile = commandLine.getOptionValue(CommandLineOptionsUtility.CALL_GRAPH_SHORT);
+                val callGraph = jimpleProvider.getCallGraph();
+                callGraph.toInvokeSiteTable().write(new File(callGraphFile), callGraphFile.endsWith(".gz"));
+
+                System.out.println("Call graph      \t:   " + callGraph.getEdgeCount() + " edges, " +
+                        callGraph.getComponentCount() + " components written to " + callGraphFile);
+            }
+
+            val runStatistics = jimpleProvider.getRunStatistics();
+            System.out.println("Generated       \t:   " + runStatistics.getCounter(RunStatistics.CLASSES_GENERATED) +
+                    " classes, " + String.format(Locale.ROOT, "%.1f", runStatistics.getClassesPerSecond()) +
+                    " classes/s, " + runStatistics.getCounter(RunStatistics.BYTES_WRITTEN) + " bytes written");
+
+            if (warmStartDir != null) {
+                System.out.println("Copied          \t:   " + runStatistics.getCounter(RunStatistics.CLASSES_COPIED) +
+                        " classes from the warm start");
+            }
+
+            if (commandLine.hasOption(CommandLineOptionsUtility.RUN_REPORT_SHORT)) {
+                val runReportFile = commandLine.getOptionValue(CommandLineOptionsUtility.RUN_REPORT_SHORT);
+                new OutputWriter(0).write(new File(runReportFile), writer -> {
+                    runStatistics.writeJson(writer);
+                    writer.println();
+                });
+
+                System.out.println("Run report      \t:   written to " + runReportFile);
+            }
+
+            if (commandLine.hasOption(CommandLineOptionsUtility.WATCH_SHORT)) {
+                long watchDebounce = DEFAULT_WATCH_DEBOUNCE_MILLIS;
+                if (commandLine.hasOption(CommandLineOptionsUtility.WATCH_DEBOUNCE_SHORT)) {
+                    watchDebounce = Long.parseLong(commandLine.getOptionValue(CommandLineOptionsUtility.WATCH_DEBOUNCE_SHORT));
+                }
+
+                List<File> directories;
+                try (val classPathIndex = ClassPathIndex.of(appClassPath)) {
+                    directories = classPathIndex.getDirectories();
+                }
+
+                // The scene stays resident, only the changed classes are reloaded
+                try (val classPathWatcher = new ClassPathWatcher(
+                        jimpleProviderBuilder, jimpleProvider, directories, outDir, watchDebounce)) {
+                    classPathWatcher.watch();
+                }
             }
         } catch (IOException ioException) {
             System.err.println("There was an exception!\n " + ioException.getMessage());
+            System.exit(-1);
         } finally {
             jimpleProviderBuilder.close();
         }
     }
+
+    /**
+     * Returns the packages of the given option, separated by ':'
+     *
+     * @param commandLine Parsed command line
+     * @param option      Option
+     * @return List of package names
+     */
+    private static List<String> getPackages(CommandLine commandLine, String option) {
+        val packages = new ArrayList<String>();
+
+        if (commandLine.hasOption(option)) {
+            for (val packageName : commandLine.getOptionValue(option).split(":")) {
+                if (!packageName.trim().isEmpty()) {
+                    packages.add(packageName.trim());
+                }
+            }
+        }
+
+        return packages;
+    }
+
+    /**
+     * Reads the given class list. The classes are separated by ':' and an entry {@code @<file>} is replaced by the
+     * classes in the file, one class per line. Duplicate classes are removed.
+     *
+     * @param classList Class list
+     * @return List of classes name
+     */
+    private static List<String> readClassList(String classList) {
+        val appClasses = new LinkedHashSet<String>();
+
+        for (val entry : classList.split(":")) {
+            if (!entry.startsWith("@")) {
+                if (!entry.trim().isEmpty()) {
+                    appClasses.add(entry.trim());
+                }
+
+                continue;
+            }
+
+            try {
+                for (val line : Files.readAllLines(Paths.get(entry.substring(1)), StandardCharsets.UTF_8)) {
+                    if (!line.trim().isEmpty()) {
+                        appClasses.add(line.trim());
+                    }
+                }
+            } catch (IOException | InvalidPathException ex) {
+                System.err.println("Could not read the class list file " + entry.substring(1) + ": " + ex.getMessage());
+                System.exit(-1);
+            }
+        }
+
+        return new ArrayList<>(appClasses);
+    }
+
+    /**
+     * Checks that all the given classes are present in the given class path. The class path is indexed once and all
+     * the missing classes are reported together.
+     *
+     * @param appClassPath App class path
+     * @param appClasses   List of classes name
+     */
+    private static void checkClassList(String appClassPath, List<String> appClasses) {
+        val missingClasses = new ArrayList<String>();
+
+        try (val classPathIndex = ClassPathIndex.of(appClassPath)) {
+            val availableClasses = new HashSet<String>(classPathIndex.getClasses());
+
+            for (val appClass : appClasses) {
+                if (!availableClasses.contains(appClass)) {
+                    missingClasses.add(appClass);
+                }
+            }
+        } catch (IOException ex) {
+            System.err.println("Could not read the given class path: " + ex.getMessage());
+            System.exit(-1);
+        }
+
+        if (!missingClasses.isEmpty()) {
+            System.err.println(missingClasses.size() + " of the given classes are not present in the given class path!");
+            missingClasses.forEach(missingClass -> System.err.println("\t" + missingClass));
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Runs the daemon until it is shut down
+     *
+     * @param commandLine Parsed command line
+     */
+    private static void runDaemon(CommandLine commandLine) {
+        int parallelWorkers = 1;
+        if (commandLine.hasOption(CommandLineOptionsUtility.PARALLEL_WORKERS_SHORT)) {
+            parallelWorkers = Integer.parseInt(commandLine.getOptionValue(CommandLineOptionsUtility.PARALLEL_WORKERS_SHORT));
+        }
+
+        long memoryBudget = Runtime.getRuntime().maxMemory() / 2;
+        if (commandLine.hasOption(CommandLineOptionsUtility.DAEMON_MEMORY_BUDGET_SHORT)) {
+            memoryBudget = Long.parseLong(commandLine.getOptionValue(CommandLineOptionsUtility.DAEMON_MEMORY_BUDGET_SHORT)) * 1024 * 1024;
+        }
+
+        try {
+            val daemon = new Daemon(memoryBudget, parallelWorkers);
+
+            if (commandLine.hasOption(CommandLineOptionsUtility.DAEMON_PORT_SHORT)) {
+                daemon.serveSocket(Integer.parseInt(commandLine.getOptionValue(CommandLineOptionsUtility.DAEMON_PORT_SHORT)));
+            } else {
+                daemon.serveStandardInput();
+            }
+        } catch (IOException ioException) {
+            System.err.println("There was an exception!\n " + ioException.getMessage());
+            System.exit(-1);
+        }
+    }
 }
@@ -0,0 +1,231 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Generates the Jimple code in multiple JVM processes. The classes are partitioned by package into shards and every
+ * shard is generated by a child process that loads only the classes of its shard into the Soot. All the children
+ * write into the same output directory, as the shards do not share any class.
+ */
+public class ShardedGeneration {
+    private final String appClassPath;
+    private final PreTransformer preTransformer;
+    private final boolean isMinimalSoot;
+    private final int workers;
+    private final int syncBatchSize;
+    private final int generationBatchSize;
+
+    /**
+     * Constructor for ShardedGeneration
+     *
+     * @param appClassPath   App classpath
+     * @param preTransformer PreTransformer
+     * @param isMinimalSoot  Minimal Soot or not
+     * @param workers        Number of workers of every child process
+     * @param syncBatchSize  Sync batch size of every child process, 0 to not sync the files
+     * @param generationBatchSize Generation batch size of every child process, 0 to keep all the bodies
+     */
+    public ShardedGeneration(String appClassPath, PreTransformer preTransformer, boolean isMinimalSoot, int workers,
+                             int syncBatchSize, int generationBatchSize) {
+        this.appClassPath = appClassPath;
+        this.preTransformer = preTransformer;
+        this.isMinimalSoot = isMinimalSoot;
+        this.workers = workers;
+        this.syncBatchSize = syncBatchSize;
+        this.generationBatchSize = generationBatchSize;
+    }
+
+    /**
+     * Partitions the given classes by package into the given number of shards. The packages are assigned from the
+     * largest to the smallest to the shard with the fewest classes, so that the shards have a similar size.
+     *
+     * @param appClasses List of classes name
+     * @param shards     Number of shards
+     * @return Non-empty shards
+     */
+    protected static List<List<String>> partitionByPackage(List<String> appClasses, int shards) {
+        val classesByPackage = new TreeMap<String, List<String>>();
+
+        for (val appClass : appClasses) {
+            val separator = appClass.lastIndexOf('.');
+            val packageName = separator == -1 ? "" : appClass.substring(0, separator);
+
+            classesByPackage.computeIfAbsent(packageName, key -> new ArrayList<>()).add(appClass);
+        }
+
+        val packages = new ArrayList<List<String>>(classesByPackage.values());
+        // The sort is stable, therefore the packages of the same size stay in the name order
+        packages.sort((first, second) -> Integer.compare(second.size(), first.size()));
+
+        val partitions = new ArrayList<List<String>>();
+
+        for (int i = 0; i < Math.min(shards, packages.size()); i++) {
+            partitions.add(new ArrayList<>());
+        }
+
+        for (val packageClasses : packages) {
+            val smallestPartition = Collections.min(partitions, Comparator.comparingInt(List::size));
+            smallestPartition.addAll(packageClasses);
+        }
+
+        return partitions;
+    }
+
+    /**
+     * Generates the Jimple code of the given classes into the given output directory using the given number of child
+     * processes, and prints a combined report of the shards
+     *
+     * @param appClasses         List of classes name
+     * @param outDirectory       Output directory
+     * @param isReplaceOldJimple Replace the existing Jimple code or not
+     * @param shards             Number of shards
+     * @return True if all the shards succeeded
+     * @throws IOException If a child process could not be started
+     */
+    public boolean generate(List<String> appClasses, String outDirectory, boolean isReplaceOldJimple, int shards) throws IOException {
+        // The children must not delete the output of each other
+        if (isReplaceOldJimple) {
+            new FilesUtils().deleteDirectory(new File(outDirectory));
+        }
+
+        val partitions = partitionByPackage(appClasses, shards);
+        val shardDir = Files.createTempDirectory("jimple-provider-shards").toFile();
+        val processes = new ArrayList<Process>();
+        val forwarders = new ArrayList<Thread>();
+        val startTime = System.currentTimeMillis();
+        val finishTimes = new long[partitions.size()];
+
+        try {
+            for (int shard = 0; shard < partitions.size(); shard++) {
+                val classListFile = new File(shardDir, "shard-" + shard + ".txt");
+                Files.write(classListFile.toPath(), partitions.get(shard), StandardCharsets.UTF_8);
+
+                val process = new ProcessBuilder(getChildCommand(classListFile, outDirectory))
+                        .redirectErrorStream(true)
+                        .start();
+                processes.add(process);
+                forwarders.add(forwardOutput(process, shard, finishTimes));
+            }
+
+            val exitCodes = new ArrayList<Integer>();
+            val durations = new ArrayList<Long>();
+
+            for (int shard = 0; shard < processes.size(); shard++) {
+                exitCodes.add(processes.get(shard).waitFor());
+                forwarders.get(shard).join();
+                durations.add(finishTimes[shard] - startTime);
+            }
+
+            return printReport(partitions, exitCodes, durations);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the shards", ex);
+        } finally {
+            processes.forEach(Process::destroy);
+            new FilesUtils().deleteDirectory(shardDir);
+        }
+    }
+
+    /**
+     * Returns the command of the child process generating the classes in the given class list file. The child uses
+     * the same Java, classpath and memory settings as this process.
+     *
+     * @param classListFile Class list file
+     * @param outDirectory  Output directory
+     * @return Command
+     */
+    private List<String> getChildCommand(File classListFile, String outDirectory) {
+        val command = new ArrayList<String>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+
+        for (val jvmArgument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (jvmArgument.startsWith("-X") || jvmArgument.startsWith("-D")) {
+                command.add(jvmArgument);
+            }
+        }
+
+        command.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"), Main.class.getName()));
+        command.addAll(Arrays.asList(
+                "-" + CommandLineOptionsUtility.CLASS_PATH_SHORT, appClassPath,
+                "-" + CommandLineOptionsUtility.OUTPUT_ROOT_DIR_SHORT, outDirectory,
+                "-" + CommandLineOptionsUtility.CLASS_LIST_SHORT, "@" + classListFile.getAbsolutePath(),
+                "-" + CommandLineOptionsUtility.PARALLEL_WORKERS_SHORT, String.valueOf(workers)));
+
+        if (preTransformer == PreTransformer.BOOMERANG) {
+            command.add("-" + CommandLineOptionsUtility.BOOMERANG_PRE_TRANSFORMER_SHORT);
+        }
+
+        if (isMinimalSoot) {
+            command.add("-" + CommandLineOptionsUtility.MINIMAL_SOOT_SHORT);
+        }
+
+        if (syncBatchSize > 0) {
+            command.addAll(Arrays.asList("-" + CommandLineOptionsUtility.SYNC_BATCH_SIZE_SHORT, String.valueOf(syncBatchSize)));
+        }
+
+        if (generationBatchSize > 0) {
+            command.addAll(Arrays.asList("-" + CommandLineOptionsUtility.GENERATION_BATCH_SIZE_SHORT,
+                    String.valueOf(generationBatchSize)));
+        }
+
+        return command;
+    }
+
+    /**
+     * Forwards the output of the given child process to the standard output, prefixed with its shard. The end of the
+     * output is the finish time of the shard.
+     *
+     * @param process     Child process
+     * @param shard       Shard
+     * @param finishTimes Finish times of the shards
+     * @return Forwarding thread
+     */
+    private Thread forwardOutput(Process process, int shard, long[] finishTimes) {
+        val forwarder = new Thread(() -> {
+            try (val reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+                    System.out.println("[shard " + shard + "] " + line);
+                }
+            } catch (IOException ex) {
+                System.err.println("[shard " + shard + "] Could not read the output: " + ex.getMessage());
+            }
+
+            finishTimes[shard] = System.currentTimeMillis();
+        });
+
+        forwarder.setDaemon(true);
+        forwarder.start();
+
+        return forwarder;
+    }
+
+    private boolean printReport(List<List<String>> partitions, List<Integer> exitCodes, List<Long> durations) {
+        boolean succeeded = true;
+
+        System.out.println("***********************************");
+
+        for (int shard = 0; shard < partitions.size(); shard++) {
+            System.out.println("Shard " + shard + "         \t:   " + partitions.get(shard).size() + " classes, " +
+                    (exitCodes.get(shard) == 0 ? "succeeded" : "failed with exit code " + exitCodes.get(shard)) +
+                    " after " + durations.get(shard) + " ms");
+
+            succeeded &= exitCodes.get(shard) == 0;
+        }
+
+        System.out.println("Total classes   \t:   " + partitions.stream().mapToInt(List::size).sum());
+        System.out.println("***********************************");
+
+        return succeeded;
+    }
+}
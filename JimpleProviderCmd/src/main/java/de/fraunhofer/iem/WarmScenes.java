@@ -0,0 +1,351 @@
+package de.fraunhofer.iem;
+
+import lombok.Data;
+import lombok.val;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import soot.G;
+import soot.Scene;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * Warmed Soot scenes of the daemon, one per classpath and pre-transformer. Every scene has its own Soot global objects and
+ * the daemon switches between them by changing the global objects returned by {@link G#v()}.
+ * <p>
+ * The memory of a scene is roughly estimated from the number of its methods and the statements of its retrieved
+ * bodies. The estimate of a scene is updated when another scene is activated, as the queries retrieve more bodies. If
+ * the estimated memory of all the scenes exceeds the memory budget, then the least recently used scenes are evicted.
+ * <p>
+ * A scene is rebuilt when its classpath changes. The directories of the classpath are watched for changes, and the
+ * modification times of the jars are compared on every request, so that no request walks the whole classpath.
+ * <p>
+ * Note: Soot is not thread-safe, therefore the scenes must be used by one request at a time.
+ */
+public class WarmScenes implements G.GlobalObjectGetter, Closeable {
+    // Rough default estimates of the retained heap per method and per statement of a body
+    private static final long METHOD_BYTES = 3 * 1024;
+    private static final long UNIT_BYTES = 400;
+
+    private final long memoryBudget;
+    private final int workers;
+    private final ToLongFunction<JimpleProvider> memoryEstimator;
+    private final LinkedHashMap<String, WarmScene> scenes = new LinkedHashMap<>(16, 0.75f, true);
+    private final WatchService watchService;
+    private final Map<WatchKey, Set<String>> watchedScenes = new HashMap<>();
+    private volatile G activeGlobalObjects = new G();
+    private WarmScene activeScene;
+
+    @Data
+    private static class WarmScene {
+        final String key;
+        final String classPath;
+        final PreTransformer preTransformer;
+        final JimpleProviderBuilder jimpleProviderBuilder;
+        JimpleProvider jimpleProvider;
+        G globalObjects;
+        long archiveModificationStamp;
+        boolean changed;
+        long estimatedMemory;
+        long lastUsed;
+    }
+
+    /**
+     * Constructor for WarmScenes. It installs the scenes as the global objects of the Soot.
+     *
+     * @param memoryBudget Memory budget of all the scenes in bytes
+     * @param workers      Number of workers used to generate the Jimple code
+     * @throws IOException If the directories could not be watched
+     */
+    public WarmScenes(long memoryBudget, int workers) throws IOException {
+        this(memoryBudget, workers, WarmScenes::estimateMemory);
+    }
+
+    /**
+     * Constructor for WarmScenes with the given estimate of the memory of a scene. It installs the scenes as the global
+     * objects of the Soot.
+     *
+     * @param memoryBudget    Memory budget of all the scenes in bytes
+     * @param workers         Number of workers used to generate the Jimple code
+     * @param memoryEstimator Estimated memory in bytes of the active scene of the given JimpleProvider
+     * @throws IOException If the directories could not be watched
+     */
+    protected WarmScenes(long memoryBudget, int workers, ToLongFunction<JimpleProvider> memoryEstimator) throws IOException {
+        this.memoryBudget = memoryBudget;
+        this.workers = workers;
+        this.memoryEstimator = memoryEstimator;
+        this.watchService = FileSystems.getDefault().newWatchService();
+
+        G.setGlobalObjectGetter(this);
+    }
+
+    @Override
+    public G getG() {
+        return activeGlobalObjects;
+    }
+
+    @Override
+    public void reset() {
+        activeGlobalObjects = new G();
+    }
+
+    /**
+     * Returns the JimpleProvider of the given classpath and options and activates its scene. The scene is built if
+     * it is not warmed yet, or if a class in the classpath has changed since it was built.
+     *
+     * @param classPath      App classpath
+     * @param preTransformer PreTransformer
+     * @return JimpleProvider
+     * @throws IOException If there is some problem with accessing the class files
+     */
+    public synchronized JimpleProvider get(String classPath, PreTransformer preTransformer) throws IOException {
+        val key = preTransformer + ":" + classPath;
+
+        // The queries on the active scene may have retrieved more bodies
+        if (activeScene != null && scenes.containsKey(activeScene.key)) {
+            activeScene.estimatedMemory = memoryEstimator.applyAsLong(activeScene.jimpleProvider);
+        }
+
+        pollChanges();
+
+        long archiveModificationStamp;
+
+        // Only the classpath files are read, the directories are not walked
+        try (val classPathIndex = ClassPathIndex.of(classPath)) {
+            archiveModificationStamp = classPathIndex.getArchiveModificationStamp();
+        }
+
+        WarmScene scene = scenes.get(key);
+
+        if (scene != null && (scene.changed || scene.archiveModificationStamp != archiveModificationStamp)) {
+            System.out.println("Classpath changed, rebuilding the scene of " + classPath);
+            evict(key);
+            scene = null;
+        }
+
+        if (scene == null) {
+            scene = build(key, classPath, preTransformer);
+            scene.archiveModificationStamp = archiveModificationStamp;
+            scenes.put(key, scene);
+
+            evictOverBudget(key);
+        }
+
+        activeGlobalObjects = scene.globalObjects;
+        activeScene = scene;
+        scene.lastUsed = System.currentTimeMillis();
+
+        return scene.jimpleProvider;
+    }
+
+    private WarmScene build(String key, String classPath, PreTransformer preTransformer) throws IOException {
+        System.out.println("Warming the scene of " + classPath);
+
+        val scene = new WarmScene(key, classPath, preTransformer, new JimpleProviderBuilder());
+
+        try {
+            // The directories are watched before they are read, so that no change gets lost
+            try (val classPathIndex = ClassPathIndex.of(classPath)) {
+                for (val directory : classPathIndex.getDirectories()) {
+                    watch(directory, key);
+                }
+            }
+
+            scene.jimpleProvider = scene.jimpleProviderBuilder
+                    .appClassPath(classPath)
+                    .preTransformer(preTransformer)
+                    .workers(workers)
+                    .build();
+        } catch (IOException | RuntimeException ex) {
+            unwatch(key);
+            scene.jimpleProviderBuilder.close();
+            throw ex;
+        }
+
+        // Initializing the Soot resets the global objects
+        scene.globalObjects = activeGlobalObjects;
+        scene.estimatedMemory = memoryEstimator.applyAsLong(scene.jimpleProvider);
+
+        return scene;
+    }
+
+    /**
+     * Registers the given directory and its sub-directories for the changes of the given scene. A directory shared by
+     * several scenes is registered once.
+     *
+     * @param directory Directory of the classpath
+     * @param key       Key of the scene
+     * @throws IOException If a directory could not be registered
+     */
+    private void watch(File directory, String key) throws IOException {
+        Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                val watchKey = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                watchedScenes.computeIfAbsent(watchKey, k -> new HashSet<>()).add(key);
+
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void unwatch(String key) {
+        val iterator = watchedScenes.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            val entry = iterator.next();
+            entry.getValue().remove(key);
+
+            if (entry.getValue().isEmpty()) {
+                entry.getKey().cancel();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Marks the scenes whose directories changed since the last poll without waiting for further changes. Every change
+     * in a watched directory counts, also the creation of a sub-directory, which is watched once the scene is rebuilt.
+     */
+    private void pollChanges() {
+        WatchKey watchKey;
+
+        while ((watchKey = watchService.poll()) != null) {
+            watchKey.pollEvents();
+
+            for (val key : watchedScenes.getOrDefault(watchKey, Collections.emptySet())) {
+                val scene = scenes.get(key);
+
+                if (scene != null) {
+                    scene.changed = true;
+                }
+            }
+
+            // The key is invalid when its directory is deleted, the scene watches its directories again when rebuilt
+            if (!watchKey.reset()) {
+                watchedScenes.remove(watchKey);
+            }
+        }
+    }
+
+    private void evictOverBudget(String keptKey) {
+        long estimatedMemory = scenes.values().stream().mapToLong(WarmScene::getEstimatedMemory).sum();
+
+        // The scenes are in the access order, therefore the least recently used scene comes first
+        for (val scene : new ArrayList<>(scenes.values())) {
+            if (estimatedMemory <= memoryBudget) {
+                break;
+            }
+
+            if (!scene.key.equals(keptKey)) {
+                estimatedMemory -= scene.estimatedMemory;
+                evict(scene.key);
+            }
+        }
+    }
+
+    private void evict(String key) {
+        val scene = scenes.remove(key);
+
+        if (scene == null) {
+            return;
+        }
+
+        System.out.println("Evicting the scene of " + scene.classPath);
+        unwatch(key);
+
+        if (activeGlobalObjects == scene.globalObjects) {
+            activeGlobalObjects = new G();
+            activeScene = null;
+        }
+
+        scene.jimpleProviderBuilder.close();
+    }
+
+    /**
+     * Evicts the scenes of the given classpath
+     *
+     * @param classPath App classpath
+     * @return Number of evicted scenes
+     */
+    public synchronized int evictClassPath(String classPath) {
+        val keys = new ArrayList<String>();
+
+        for (val scene : scenes.values()) {
+            if (scene.classPath.equals(classPath)) {
+                keys.add(scene.key);
+            }
+        }
+
+        keys.forEach(this::evict);
+
+        return keys.size();
+    }
+
+    /**
+     * Evicts all the scenes
+     */
+    public synchronized void evictAll() {
+        new ArrayList<>(scenes.keySet()).forEach(this::evict);
+    }
+
+    /**
+     * Returns the warmed scenes in the least recently used order
+     *
+     * @return JSON array of the classpath, pre-transformer, estimated memory in bytes and time of the last use of the scenes
+     */
+    public synchronized JSONArray toJSON() {
+        val description = new JSONArray();
+
+        for (val scene : scenes.values()) {
+            description.put(new JSONObject()
+                    .put("classPath", scene.classPath)
+                    .put("preTransformer", scene.preTransformer.name())
+                    .put("estimatedMemory", scene.estimatedMemory)
+                    .put("lastUsed", scene.lastUsed));
+        }
+
+        return description;
+    }
+
+    /**
+     * Evicts all the scenes and stops watching their directories
+     *
+     * @throws IOException If the watch service could not be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        evictAll();
+        watchService.close();
+    }
+
+    /**
+     * Estimates the retained memory of the active scene from the number of its methods and the number of statements
+     * of its retrieved bodies, without forcing a garbage collection
+     *
+     * @param jimpleProvider JimpleProvider of the active scene
+     * @return Estimated memory in bytes
+     */
+    private static long estimateMemory(JimpleProvider jimpleProvider) {
+        long estimatedMemory = 0;
+
+        for (val sootClass : new ArrayList<>(Scene.v().getClasses())) {
+            for (val sootMethod : sootClass.getMethods()) {
+                estimatedMemory += METHOD_BYTES;
+
+                if (sootMethod.hasActiveBody()) {
+                    estimatedMemory += UNIT_BYTES * sootMethod.getActiveBody().getUnits().size();
+                }
+            }
+        }
+
+        return estimatedMemory;
+    }
+}
@@ -0,0 +1,138 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+public class TestClassPathWatcher {
+    private static final long TIMEOUT_MILLIS = 30000;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File classesDir;
+    private File otherClassesDir;
+    private File outDir;
+    private JimpleProviderBuilder jimpleProviderBuilder;
+    private ClassPathWatcher classPathWatcher;
+    private Thread watchThread;
+    private final List<Set<String>> regeneratedClasses = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() throws IOException {
+        URL url = TestClassPathWatcher.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+
+        classesDir = temporaryFolder.newFolder("classes");
+        FileUtils.copyDirectory(new File(url.getPath()), classesDir);
+
+        // A second directory of the classpath with its own package
+        otherClassesDir = temporaryFolder.newFolder("other");
+        compile(otherClassesDir, "Greeter", "package other;", "public class Greeter {}");
+
+        outDir = temporaryFolder.newFolder("out");
+        jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        val jimpleProvider = jimpleProviderBuilder
+                .appClassPath(classesDir.getPath() + File.pathSeparator + otherClassesDir.getPath())
+                .build();
+        jimpleProvider.generate(outDir.getPath(), true);
+
+        classPathWatcher = new ClassPathWatcher(jimpleProviderBuilder, jimpleProvider,
+                Arrays.asList(classesDir, otherClassesDir), outDir.getPath(), 200) {
+            @Override
+            protected void regenerate(Set<String> changedClasses) {
+                regeneratedClasses.add(new TreeSet<>(changedClasses));
+                super.regenerate(changedClasses);
+            }
+        };
+
+        watchThread = new Thread(() -> {
+            try {
+                classPathWatcher.watch();
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+        watchThread.start();
+    }
+
+    @After
+    public void tearDown() throws IOException, InterruptedException {
+        classPathWatcher.close();
+        watchThread.join(TIMEOUT_MILLIS);
+        jimpleProviderBuilder.close();
+    }
+
+    private void compile(File directory, String className, String... lines) throws IOException {
+        val sourceFile = new File(temporaryFolder.newFolder(), className + ".java");
+        Files.write(sourceFile.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+
+        assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null,
+                "-source", "8", "-target", "8", "-nowarn", "-d", directory.getPath(), sourceFile.getPath()));
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        val deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timed out waiting for the watcher", System.currentTimeMillis() < deadline);
+            Thread.sleep(100);
+        }
+    }
+
+    @Test
+    public void testChangedClasses() throws IOException, InterruptedException {
+        val jimpleFile = new File(outDir, "de/fraunhofer/iem/HelloPrinterWithName.jimple");
+        assertTrue(jimpleFile.delete());
+
+        // A touched class is generated again
+        val classFile = new File(classesDir, "de/fraunhofer/iem/HelloPrinterWithName.class");
+        Files.write(classFile.toPath(), Files.readAllBytes(classFile.toPath()));
+        waitFor(jimpleFile::exists);
+
+        // A new class is generated
+        compile(classesDir, "Added", "package de.fraunhofer.iem;", "public class Added {}");
+        val addedJimpleFile = new File(outDir, "de/fraunhofer/iem/Added.jimple");
+        waitFor(addedJimpleFile::exists);
+
+        // The output of a deleted class is deleted
+        assertTrue(new File(classesDir, "de/fraunhofer/iem/Added.class").delete());
+        waitFor(() -> !addedJimpleFile.exists());
+
+        assertTrue(new File(outDir, "de/fraunhofer/iem/App.jimple").exists());
+    }
+
+    @Test
+    public void testDeletedDirectory() throws IOException, InterruptedException {
+        val greeterJimpleFile = new File(outDir, "other/Greeter.jimple");
+        assertTrue(greeterJimpleFile.exists());
+
+        FileUtils.deleteDirectory(otherClassesDir);
+        waitFor(() -> !greeterJimpleFile.exists());
+
+        // Only the classes of the deleted directory are changed
+        assertFalse(regeneratedClasses.isEmpty());
+
+        for (val changedClasses : regeneratedClasses) {
+            assertEquals(Collections.singleton("other.Greeter"), changedClasses);
+        }
+
+        assertTrue(new File(outDir, "de/fraunhofer/iem/App.jimple").exists());
+    }
+}
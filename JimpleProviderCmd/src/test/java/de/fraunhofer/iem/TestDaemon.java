@@ -0,0 +1,119 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.apache.commons.io.FileUtils;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class TestDaemon {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private String classPath;
+    private WarmScenes warmScenes;
+    private Daemon daemon;
+
+    @Before
+    public void setUp() throws IOException {
+        URL url = TestDaemon.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+
+        val classesDir = temporaryFolder.newFolder("classes");
+        FileUtils.copyDirectory(new File(url.getPath()), classesDir);
+        classPath = classesDir.getPath();
+
+        warmScenes = new WarmScenes(Long.MAX_VALUE, 1);
+        daemon = new Daemon(warmScenes);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        warmScenes.close();
+    }
+
+    private JSONObject handle(JSONObject request) {
+        return new JSONObject(daemon.handle(request.toString()));
+    }
+
+    private JSONObject request(String command) {
+        return new JSONObject().put("command", command).put("classPath", classPath);
+    }
+
+    @Test
+    public void testErrors() {
+        val unknown = handle(new JSONObject().put("id", 7).put("command", "unknown"));
+        assertEquals("error", unknown.getString("status"));
+        assertEquals(7, unknown.getInt("id"));
+        assertTrue(unknown.getString("message").contains("unknown"));
+
+        assertEquals("error", new JSONObject(daemon.handle("{\"command\":")).getString("status"));
+        assertEquals("error", handle(new JSONObject().put("command", "invokedMethods")).getString("status"));
+    }
+
+    @Test
+    public void testGenerate() throws IOException {
+        val incrementalOutDir = temporaryFolder.newFolder("incremental");
+        val response = handle(request("generate").put("outDir", incrementalOutDir.getPath())
+                .put("replace", true).put("incremental", true));
+        assertEquals("ok", response.getString("status"));
+        assertTrue(new File(incrementalOutDir, "de/fraunhofer/iem/App.jimple").exists());
+        assertTrue(new File(incrementalOutDir, ".jimple-provider-manifest").exists());
+
+        // The incremental option of a request does not stick to the warm scene
+        val outDir = temporaryFolder.newFolder("out");
+        assertEquals("ok", handle(request("generate").put("outDir", outDir.getPath()).put("replace", true)
+                .put("classes", Arrays.asList("de.fraunhofer.iem.App"))).getString("status"));
+        assertTrue(new File(outDir, "de/fraunhofer/iem/App.jimple").exists());
+        assertFalse(new File(outDir, "de/fraunhofer/iem/HelloPrinter.jimple").exists());
+        assertFalse(new File(outDir, ".jimple-provider-manifest").exists());
+    }
+
+    @Test
+    public void testQueries() {
+        val invokedMethods = handle(request("invokedMethods").put("className", "de.fraunhofer.iem.App")
+                .put("method", "void main(java.lang.String[])")).getJSONArray("result");
+        val lineNumbers = new ArrayList<Integer>();
+
+        for (int i = 0; i < invokedMethods.length(); i++) {
+            lineNumbers.add(invokedMethods.getJSONObject(i).getInt("lineNumber"));
+        }
+
+        assertEquals(Arrays.asList(13, 16, 19), lineNumbers);
+
+        val methodsAtLines = handle(request("methodsAtLines").put("locations", Arrays.asList(
+                new JSONObject().put("fileName", "src/main/java/de/fraunhofer/iem/App.java").put("lineNumber", 16),
+                new JSONObject().put("fileName", "src/main/java/de/fraunhofer/iem/App.java").put("lineNumber", 100)))).getJSONArray("result");
+        assertEquals("<de.fraunhofer.iem.App: void main(java.lang.String[])>", methodsAtLines.getString(0));
+        assertTrue(methodsAtLines.isNull(1));
+
+        val reachingMethods = handle(request("reachingMethods").put("appOnly", true)
+                .put("method", "<java.io.PrintStream: void println(java.lang.String)>")).getJSONArray("result");
+        assertTrue(reachingMethods.toList().contains("<de.fraunhofer.iem.App: void main(java.lang.String[])>"));
+    }
+
+    @Test
+    public void testStatusAndEvict() {
+        assertEquals(0, handle(new JSONObject().put("command", "status")).getJSONArray("result").length());
+
+        handle(request("invokedMethods").put("className", "de.fraunhofer.iem.App").put("method", "main"));
+        val status = handle(new JSONObject().put("command", "status")).getJSONArray("result");
+        assertEquals(1, status.length());
+        assertEquals(classPath, status.getJSONObject(0).getString("classPath"));
+
+        assertEquals(1, handle(request("evict")).getInt("result"));
+        assertEquals(0, handle(new JSONObject().put("command", "status")).getJSONArray("result").length());
+        assertEquals("ok", handle(new JSONObject().put("command", "shutdown")).getString("status"));
+    }
+}
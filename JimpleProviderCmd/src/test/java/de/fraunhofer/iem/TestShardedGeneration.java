@@ -0,0 +1,132 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class TestShardedGeneration {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testPartitionByPackage() {
+        val partitions = ShardedGeneration.partitionByPackage(Arrays.asList(
+                "a.A1", "a.A2", "a.A3",
+                "b.B1", "b.B2",
+                "c.C1", "c.C2",
+                "d.D1",
+                "Main"), 2);
+
+        // The largest package goes first and every next package to the shard with the fewest classes
+        assertEquals(Arrays.asList(
+                Arrays.asList("a.A1", "a.A2", "a.A3", "Main", "d.D1"),
+                Arrays.asList("b.B1", "b.B2", "c.C1", "c.C2")
+        ), partitions);
+    }
+
+    @Test
+    public void testPackagesAreNotSplit() {
+        val appClasses = Arrays.asList("a.A1", "a.A2", "a.A3", "a.A4", "b.B1");
+        val partitions = ShardedGeneration.partitionByPackage(appClasses, 4);
+
+        // There are fewer packages than shards
+        assertEquals(2, partitions.size());
+        assertEquals(Arrays.asList("a.A1", "a.A2", "a.A3", "a.A4"), partitions.get(0));
+        assertEquals(Collections.singletonList("b.B1"), partitions.get(1));
+
+        assertEquals(Collections.singletonList(appClasses), ShardedGeneration.partitionByPackage(appClasses, 1));
+        assertTrue(ShardedGeneration.partitionByPackage(Collections.emptyList(), 2).isEmpty());
+    }
+
+    private Map<String, byte[]> readFiles(File directory) throws IOException {
+        val files = new TreeMap<String, byte[]>();
+
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            for (val path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                files.put(directory.toPath().relativize(path).toString(), Files.readAllBytes(path));
+            }
+        }
+
+        return files;
+    }
+
+    private File copyClassesWithSecondPackage() throws IOException {
+        URL url = TestShardedGeneration.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+
+        val classesDir = temporaryFolder.newFolder("classes");
+        FileUtils.copyDirectory(new File(url.getPath()), classesDir);
+
+        // A second package, so that every shard has a package
+        val sourceFile = new File(temporaryFolder.newFolder("sources"), "Greeter.java");
+        Files.write(sourceFile.toPath(), Arrays.asList(
+                "package other;",
+                "public class Greeter {",
+                "    public String greet(String name) { return \"Hello \" + name.trim(); }",
+                "}"), StandardCharsets.UTF_8);
+        assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null,
+                "-source", "8", "-target", "8", "-nowarn", "-d", classesDir.getPath(), sourceFile.getPath()));
+
+        return classesDir;
+    }
+
+    @Test
+    public void testSameOutputAsSingleProcess() throws IOException {
+        val classesDir = copyClassesWithSecondPackage();
+        val appClasses = Arrays.asList("de.fraunhofer.iem.App", "de.fraunhofer.iem.HelloPrinter",
+                "de.fraunhofer.iem.HelloPrinterWithMessage", "de.fraunhofer.iem.HelloPrinterWithName", "other.Greeter");
+        val shardedOutDir = temporaryFolder.newFolder("sharded");
+        val singleOutDir = temporaryFolder.newFolder("single");
+
+        assertTrue(new ShardedGeneration(classesDir.getPath(), PreTransformer.NONE, false, 1, 0, 0)
+                .generate(appClasses, shardedOutDir.getPath(), true, 2));
+
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            jimpleProviderBuilder.appClassPath(classesDir.getPath()).build().generate(singleOutDir.getPath(), true);
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+
+        val shardedFiles = readFiles(shardedOutDir);
+        val singleFiles = readFiles(singleOutDir);
+
+        assertEquals(10, singleFiles.size());
+        assertEquals(singleFiles.keySet(), shardedFiles.keySet());
+
+        for (val path : singleFiles.keySet()) {
+            assertArrayEquals(path, singleFiles.get(path), shardedFiles.get(path));
+        }
+    }
+
+    @Test
+    public void testFailedShard() throws IOException {
+        val classesDir = copyClassesWithSecondPackage();
+        val appClasses = Arrays.asList("de.fraunhofer.iem.App", "de.fraunhofer.iem.HelloPrinter",
+                "de.fraunhofer.iem.HelloPrinterWithMessage", "de.fraunhofer.iem.HelloPrinterWithName", "other.Greeter");
+        val outDir = temporaryFolder.newFolder("out");
+
+        // The shard of the second package cannot create its package directory
+        assertTrue(new File(outDir, "other").createNewFile());
+
+        assertFalse(new ShardedGeneration(classesDir.getPath(), PreTransformer.NONE, false, 1, 0, 0)
+                .generate(appClasses, outDir.getPath(), false, 2));
+        assertTrue(new File(outDir, "de/fraunhofer/iem/App.jimple").exists());
+    }
+}
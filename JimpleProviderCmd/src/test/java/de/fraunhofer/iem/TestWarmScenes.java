@@ -0,0 +1,188 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.apache.commons.io.FileUtils;
+import org.json.JSONArray;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import soot.G;
+import soot.Scene;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.*;
+
+public class TestWarmScenes {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File dummyClasses;
+    private WarmScenes warmScenes;
+
+    @Before
+    public void setUp() {
+        URL url = TestWarmScenes.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        dummyClasses = new File(url.getPath());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (warmScenes != null) {
+            warmScenes.close();
+        }
+    }
+
+    private String copyClassPath(String name) throws IOException {
+        val classesDir = temporaryFolder.newFolder(name);
+        FileUtils.copyDirectory(dummyClasses, classesDir);
+
+        return classesDir.getPath();
+    }
+
+    private static List<String> getClassPaths(JSONArray status) {
+        val classPaths = new ArrayList<String>();
+
+        for (int i = 0; i < status.length(); i++) {
+            classPaths.add(status.getJSONObject(i).getString("classPath"));
+        }
+
+        return classPaths;
+    }
+
+    @Test
+    public void testSceneSwitch() throws IOException {
+        warmScenes = new WarmScenes(Long.MAX_VALUE, 1);
+
+        val first = copyClassPath("first");
+        val second = copyClassPath("second");
+        // Only the scene of the second classpath contains this class
+        val sourceFile = new File(temporaryFolder.newFolder("sources"), "Second.java");
+        Files.write(sourceFile.toPath(), Arrays.asList("package other;", "public class Second {}"),
+                StandardCharsets.UTF_8);
+        assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null,
+                "-source", "8", "-target", "8", "-nowarn", "-d", second, sourceFile.getPath()));
+
+        val firstProvider = warmScenes.get(first, PreTransformer.NONE);
+        val firstGlobalObjects = G.v();
+        assertTrue(Scene.v().containsClass("de.fraunhofer.iem.App"));
+        assertFalse(Scene.v().containsClass("other.Second"));
+
+        val secondProvider = warmScenes.get(second, PreTransformer.NONE);
+        assertNotSame(firstProvider, secondProvider);
+        assertNotSame(firstGlobalObjects, G.v());
+        assertTrue(Scene.v().containsClass("other.Second"));
+
+        // The first scene is activated again without rebuilding it
+        assertSame(firstProvider, warmScenes.get(first, PreTransformer.NONE));
+        assertSame(firstGlobalObjects, G.v());
+        assertFalse(Scene.v().containsClass("other.Second"));
+        assertEquals(3, firstProvider.getAllInvokedMethodSignature("de.fraunhofer.iem.App", "void main(java.lang.String[])").size());
+
+        assertSame(secondProvider, warmScenes.get(second, PreTransformer.NONE));
+        assertTrue(Scene.v().containsClass("other.Second"));
+        assertEquals(Arrays.asList(first, second), getClassPaths(warmScenes.toJSON()));
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        // Every scene is estimated to 100 bytes, therefore two scenes fit into the budget
+        warmScenes = new WarmScenes(250, 1, jimpleProvider -> 100);
+
+        val first = copyClassPath("first");
+        val second = copyClassPath("second");
+        val third = copyClassPath("third");
+
+        warmScenes.get(first, PreTransformer.NONE);
+        val secondProvider = warmScenes.get(second, PreTransformer.NONE);
+        warmScenes.get(first, PreTransformer.NONE);
+
+        // The second scene is the least recently used one
+        warmScenes.get(third, PreTransformer.NONE);
+        assertEquals(Arrays.asList(first, third), getClassPaths(warmScenes.toJSON()));
+        assertTrue(Scene.v().containsClass("de.fraunhofer.iem.App"));
+
+        // The evicted scene is built again and evicts the first scene
+        assertNotSame(secondProvider, warmScenes.get(second, PreTransformer.NONE));
+        assertEquals(Arrays.asList(third, second), getClassPaths(warmScenes.toJSON()));
+
+        assertEquals(1, warmScenes.evictClassPath(third));
+        assertEquals(Arrays.asList(second), getClassPaths(warmScenes.toJSON()));
+    }
+
+    @Test
+    public void testMemoryEstimate() throws IOException {
+        warmScenes = new WarmScenes(Long.MAX_VALUE, 1);
+
+        val classPath = copyClassPath("classes");
+        val jimpleProvider = warmScenes.get(classPath, PreTransformer.NONE);
+        val estimatedMemory = warmScenes.toJSON().getJSONObject(0).getLong("estimatedMemory");
+        assertTrue(estimatedMemory > 0);
+
+        // The retrieved bodies are added when another scene is activated
+        jimpleProvider.getAllInvokedMethodSignature("de.fraunhofer.iem.App", "void main(java.lang.String[])");
+        warmScenes.get(copyClassPath("other"), PreTransformer.NONE);
+        assertTrue(warmScenes.toJSON().getJSONObject(0).getLong("estimatedMemory") > estimatedMemory);
+    }
+
+    @Test
+    public void testChangedDirectory() throws IOException, InterruptedException {
+        warmScenes = new WarmScenes(Long.MAX_VALUE, 1);
+
+        val classPath = copyClassPath("classes");
+        val jimpleProvider = warmScenes.get(classPath, PreTransformer.NONE);
+
+        // The unchanged classpath is not walked again
+        assertSame(jimpleProvider, warmScenes.get(classPath, PreTransformer.NONE));
+
+        val classFile = new File(classPath, "de/fraunhofer/iem/HelloPrinterWithName.class");
+        Files.write(classFile.toPath(), Files.readAllBytes(classFile.toPath()));
+        // The file system reports the change asynchronously
+        Thread.sleep(500);
+
+        val rebuiltProvider = warmScenes.get(classPath, PreTransformer.NONE);
+        assertNotSame(jimpleProvider, rebuiltProvider);
+        assertSame(rebuiltProvider, warmScenes.get(classPath, PreTransformer.NONE));
+
+        // A new package is a change as well
+        FileUtils.copyFile(classFile, new File(classPath, "de/fraunhofer/iem/sub/HelloPrinterWithName.class"));
+        Thread.sleep(500);
+
+        assertNotSame(rebuiltProvider, warmScenes.get(classPath, PreTransformer.NONE));
+    }
+
+    @Test
+    public void testChangedJar() throws IOException {
+        warmScenes = new WarmScenes(Long.MAX_VALUE, 1);
+
+        val jar = new File(temporaryFolder.getRoot(), "classes.jar");
+
+        try (val jarOutputStream = new JarOutputStream(new FileOutputStream(jar))) {
+            for (val className : Arrays.asList("App", "HelloPrinter", "HelloPrinterWithMessage", "HelloPrinterWithName")) {
+                jarOutputStream.putNextEntry(new JarEntry("de/fraunhofer/iem/" + className + ".class"));
+                jarOutputStream.write(Files.readAllBytes(new File(dummyClasses, "de/fraunhofer/iem/" + className + ".class").toPath()));
+                jarOutputStream.closeEntry();
+            }
+        }
+
+        val jimpleProvider = warmScenes.get(jar.getPath(), PreTransformer.NONE);
+        assertSame(jimpleProvider, warmScenes.get(jar.getPath(), PreTransformer.NONE));
+
+        assertTrue(jar.setLastModified(jar.lastModified() - 10000));
+        assertNotSame(jimpleProvider, warmScenes.get(jar.getPath(), PreTransformer.NONE));
+    }
+}
@@ -0,0 +1,214 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Output sink writing all the files into a single zip or tar archive. The format is chosen by the extension of the
+ * archive. On closing, the entry {@value #INDEX_ENTRY_NAME} is added with one line per file containing its path and
+ * its size separated by a tab, and the archive is atomically moved into place.
+ * <p>
+ * The content of a file is rendered before the archive is locked, so that multiple workers can write concurrently.
+ * The rendered files are appended to a spool file next to the archive and copied into the archive in the order of
+ * their paths on closing, so that the archive does not depend on the order in which the workers finish. Only the
+ * offsets of the files are kept in memory.
+ */
+public class ArchiveOutputSink implements OutputSink {
+    public static final String INDEX_ENTRY_NAME = ".jimple-provider-index";
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int TAR_BLOCK_SIZE = 512;
+
+    private final File archive;
+    private final File tempFile;
+    private final File spoolFile;
+    private final RandomAccessFile spool;
+    private final boolean isTar;
+    private final OutputStream outputStream;
+    private final ZipOutputStream zipOutputStream;
+    // Offset and length of every file in the spool file
+    private final Map<String, long[]> entries = new TreeMap<>();
+    private final long modificationTime;
+
+    /**
+     * Constructor for ArchiveOutputSink
+     *
+     * @param archive Zip or tar archive
+     * @throws IOException If the archive could not be created
+     */
+    public ArchiveOutputSink(File archive) throws IOException {
+        this(archive, System.currentTimeMillis());
+    }
+
+    /**
+     * Constructor for ArchiveOutputSink with the given modification time of the entries
+     *
+     * @param archive          Zip or tar archive
+     * @param modificationTime Modification time of the entries in milliseconds
+     * @throws IOException If the archive could not be created
+     */
+    protected ArchiveOutputSink(File archive, long modificationTime) throws IOException {
+        this.archive = archive.getAbsoluteFile();
+        this.isTar = archive.getName().toLowerCase(Locale.ROOT).endsWith(".tar");
+        this.modificationTime = modificationTime;
+
+        val directory = this.archive.getParentFile();
+
+        if (!directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Could not create directory " + directory.getAbsolutePath());
+        }
+
+        this.tempFile = File.createTempFile("." + archive.getName(), ".tmp", directory);
+        this.spoolFile = File.createTempFile("." + archive.getName(), ".spool", directory);
+        this.spool = new RandomAccessFile(spoolFile, "rw");
+        this.outputStream = new BufferedOutputStream(new FileOutputStream(tempFile), BUFFER_SIZE);
+        this.zipOutputStream = isTar ? null : new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public long write(String path, OutputWriter.Content content) throws IOException {
+        val bytes = new ByteArrayOutputStream();
+
+        try (val writer = new PrintWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8))) {
+            content.writeTo(writer);
+        }
+
+        addEntry(path, bytes.toByteArray());
+
+        return bytes.size();
+    }
+
+    private synchronized void addEntry(String path, byte[] content) throws IOException {
+        if (entries.containsKey(path)) {
+            throw new IOException("File " + path + " is already present in the archive " + archive.getAbsolutePath());
+        }
+
+        entries.put(path, new long[]{spool.length(), content.length});
+        spool.seek(spool.length());
+        spool.write(content);
+    }
+
+    private void writeEntry(String path, byte[] content) throws IOException {
+        if (isTar) {
+            writeTarEntry(path, content);
+        } else {
+            val zipEntry = new ZipEntry(path);
+            zipEntry.setTime(modificationTime);
+
+            zipOutputStream.putNextEntry(zipEntry);
+            zipOutputStream.write(content);
+            zipOutputStream.closeEntry();
+        }
+    }
+
+    private void writeTarEntry(String path, byte[] content) throws IOException {
+        val pathBytes = path.getBytes(StandardCharsets.UTF_8);
+
+        // Paths longer than the header field are stored in a PAX extended header
+        if (pathBytes.length > 100) {
+            val record = " path=" + path + "\n";
+            int length = record.getBytes(StandardCharsets.UTF_8).length;
+            length += String.valueOf(length + String.valueOf(length).length()).length();
+
+            val extendedHeader = (length + record).getBytes(StandardCharsets.UTF_8);
+            writeTarHeader("PaxHeader", extendedHeader.length, (byte) 'x');
+            writeTarContent(extendedHeader);
+        }
+
+        writeTarHeader(path, content.length, (byte) '0');
+        writeTarContent(content);
+    }
+
+    private void writeTarHeader(String path, long size, byte type) throws IOException {
+        val header = new byte[TAR_BLOCK_SIZE];
+        val pathBytes = path.getBytes(StandardCharsets.UTF_8);
+
+        System.arraycopy(pathBytes, 0, header, 0, Math.min(pathBytes.length, 100));
+        putOctal(header, 100, 8, 0644);
+        putOctal(header, 108, 8, 0);
+        putOctal(header, 116, 8, 0);
+        putOctal(header, 124, 12, size);
+        putOctal(header, 136, 12, modificationTime / 1000);
+        header[156] = type;
+        System.arraycopy("ustar\u000000".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+
+        // The checksum is computed with the checksum field filled with spaces
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+
+        long checksum = 0;
+        for (val b : header) {
+            checksum += b & 0xff;
+        }
+
+        putOctal(header, 148, 7, checksum);
+        outputStream.write(header);
+    }
+
+    private void writeTarContent(byte[] content) throws IOException {
+        outputStream.write(content);
+
+        val padding = (TAR_BLOCK_SIZE - content.length % TAR_BLOCK_SIZE) % TAR_BLOCK_SIZE;
+        outputStream.write(new byte[padding]);
+    }
+
+    private static void putOctal(byte[] header, int offset, int length, long value) {
+        val octal = Long.toOctalString(value);
+
+        // The field is zero-padded and terminated by NUL
+        for (int i = 0; i < length - 1; i++) {
+            val digit = i - (length - 1 - octal.length());
+            header[offset + i] = (byte) (digit < 0 ? '0' : octal.charAt(digit));
+        }
+
+        header[offset + length - 1] = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            val indexContent = new StringBuilder();
+
+            for (val entry : entries.entrySet()) {
+                val content = new byte[(int) entry.getValue()[1]];
+                spool.seek(entry.getValue()[0]);
+                spool.readFully(content);
+
+                writeEntry(entry.getKey(), content);
+                indexContent.append(entry.getKey()).append('\t').append(content.length).append('\n');
+            }
+
+            entries.clear();
+            writeEntry(INDEX_ENTRY_NAME, indexContent.toString().getBytes(StandardCharsets.UTF_8));
+
+            if (isTar) {
+                // The end of a tar archive is marked by two empty blocks
+                outputStream.write(new byte[2 * TAR_BLOCK_SIZE]);
+                outputStream.close();
+            } else {
+                zipOutputStream.close();
+            }
+
+            try {
+                Files.move(tempFile.toPath(), archive.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile.toPath(), archive.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            outputStream.close();
+            spool.close();
+            Files.deleteIfExists(tempFile.toPath());
+            Files.deleteIfExists(spoolFile.toPath());
+        }
+    }
+}
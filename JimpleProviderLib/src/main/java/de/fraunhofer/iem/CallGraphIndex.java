@@ -0,0 +1,463 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import soot.SootMethod;
+import soot.jimple.toolkits.callgraph.CallGraph;
+
+import java.util.*;
+
+/**
+ * Index of a call graph for fast transitive reachability queries. The methods are identified by their ids in a
+ * {@link SignatureTable} and the edges are stored in compressed sparse rows, once per direction.
+ * <p>
+ * The strongly connected components of the call graph are precomputed. A component only calls components with a
+ * smaller id, therefore a reachability query walks the condensed graph and skips every component that cannot lead to
+ * the target. A method always reaches itself.
+ */
+public class CallGraphIndex {
+    private final SignatureTable signatureTable;
+    private final int methodCount;
+    private final BitSet appMethods;
+    private final int[] calleeOffsets;
+    private final int[] callees;
+    private final int[] calleeLines;
+    private final int[] callerOffsets;
+    private final int[] callers;
+    private final int[] components;
+    private final int componentCount;
+    private final int[] memberOffsets;
+    private final int[] members;
+    private final int[] successorOffsets;
+    private final int[] successors;
+    private final int[] predecessorOffsets;
+    private final int[] predecessors;
+
+    private CallGraphIndex(SignatureTable signatureTable, int methodCount, BitSet appMethods,
+                           int[] sources, int[] targets, int[] lines, int edgeCount) {
+        this.signatureTable = signatureTable;
+        this.methodCount = methodCount;
+        this.appMethods = appMethods;
+
+        this.calleeOffsets = new int[methodCount + 1];
+        this.callees = new int[edgeCount];
+        this.calleeLines = new int[edgeCount];
+        this.callerOffsets = new int[methodCount + 1];
+        this.callers = new int[edgeCount];
+
+        val calleePositions = toRows(sources, edgeCount, calleeOffsets);
+        val callerPositions = toRows(targets, edgeCount, callerOffsets);
+
+        for (int edge = 0; edge < edgeCount; edge++) {
+            val calleePosition = calleePositions[sources[edge]]++;
+            callees[calleePosition] = targets[edge];
+            calleeLines[calleePosition] = lines[edge];
+            callers[callerPositions[targets[edge]]++] = sources[edge];
+        }
+
+        this.components = new int[methodCount];
+        this.componentCount = computeComponents();
+
+        this.memberOffsets = new int[componentCount + 1];
+        this.members = new int[methodCount];
+
+        val memberPositions = toRows(components, methodCount, memberOffsets);
+
+        for (int method = 0; method < methodCount; method++) {
+            members[memberPositions[components[method]]++] = method;
+        }
+
+        // The edges inside a component are not part of the condensed graph
+        val componentSources = new int[edgeCount];
+        val componentTargets = new int[edgeCount];
+        int componentEdgeCount = 0;
+
+        for (int edge = 0; edge < edgeCount; edge++) {
+            if (components[sources[edge]] != components[targets[edge]]) {
+                componentSources[componentEdgeCount] = components[sources[edge]];
+                componentTargets[componentEdgeCount] = components[targets[edge]];
+                componentEdgeCount++;
+            }
+        }
+
+        this.successorOffsets = new int[componentCount + 1];
+        this.successors = new int[componentEdgeCount];
+        this.predecessorOffsets = new int[componentCount + 1];
+        this.predecessors = new int[componentEdgeCount];
+
+        val successorPositions = toRows(componentSources, componentEdgeCount, successorOffsets);
+        val predecessorPositions = toRows(componentTargets, componentEdgeCount, predecessorOffsets);
+
+        for (int edge = 0; edge < componentEdgeCount; edge++) {
+            successors[successorPositions[componentSources[edge]]++] = componentTargets[edge];
+            predecessors[predecessorPositions[componentTargets[edge]]++] = componentSources[edge];
+        }
+    }
+
+    /**
+     * Builder of the call graph index
+     */
+    public static class Builder {
+        private final SignatureTable signatureTable;
+        private final Set<String> appClasses;
+        private final BitSet appMethods = new BitSet();
+        private int[] sources = new int[1024];
+        private int[] targets = new int[1024];
+        private int[] lines = new int[1024];
+        private int edgeCount;
+
+        /**
+         * Constructor for Builder
+         *
+         * @param signatureTable Signature table, in which the methods are interned
+         * @param appClasses     App classes, whose methods are the app methods
+         */
+        public Builder(SignatureTable signatureTable, Collection<String> appClasses) {
+            this.signatureTable = signatureTable;
+            this.appClasses = new HashSet<>(appClasses);
+        }
+
+        /**
+         * Adds the edge from the given source method to the given target method
+         *
+         * @param source     Source method
+         * @param target     Target method
+         * @param lineNumber Line number of the calling statement or -1 for implicit edges
+         * @return Builder
+         */
+        public Builder addEdge(SootMethod source, SootMethod target, int lineNumber) {
+            if (edgeCount == sources.length) {
+                sources = Arrays.copyOf(sources, 2 * edgeCount);
+                targets = Arrays.copyOf(targets, 2 * edgeCount);
+                lines = Arrays.copyOf(lines, 2 * edgeCount);
+            }
+
+            sources[edgeCount] = signatureTable.intern(source.getSignature());
+            targets[edgeCount] = signatureTable.intern(target.getSignature());
+            lines[edgeCount] = lineNumber;
+
+            if (appClasses.contains(source.getDeclaringClass().getName())) {
+                appMethods.set(sources[edgeCount]);
+            }
+
+            if (appClasses.contains(target.getDeclaringClass().getName())) {
+                appMethods.set(targets[edgeCount]);
+            }
+
+            edgeCount++;
+
+            return this;
+        }
+
+        /**
+         * Builds the call graph index
+         *
+         * @return Call graph index
+         */
+        public CallGraphIndex build() {
+            return new CallGraphIndex(signatureTable, signatureTable.size(), appMethods, sources, targets, lines, edgeCount);
+        }
+    }
+
+    /**
+     * Builds the index of the given Soot call graph. The methods are interned in the given signature table.
+     *
+     * @param callGraph      Soot call graph
+     * @param signatureTable Signature table
+     * @param appClasses     App classes, whose methods are the app methods
+     * @return Call graph index
+     */
+    public static CallGraphIndex of(CallGraph callGraph, SignatureTable signatureTable, Collection<String> appClasses) {
+        val builder = new Builder(signatureTable, appClasses);
+
+        for (val edge : callGraph) {
+            if (edge.src() == null || edge.tgt() == null) {
+                continue;
+            }
+
+            // Implicit edges, e.g. to static initializers, have no statement
+            builder.addEdge(edge.src(), edge.tgt(),
+                    edge.srcStmt() == null ? -1 : edge.srcStmt().getJavaSourceStartLineNumber());
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Computes the offsets of the rows of the given keys and returns the start position of every row
+     *
+     * @param keys    Row of every entry
+     * @param size    Number of entries
+     * @param offsets Offsets of the rows, filled by this method
+     * @return Start position of every row
+     */
+    private static int[] toRows(int[] keys, int size, int[] offsets) {
+        for (int i = 0; i < size; i++) {
+            offsets[keys[i] + 1]++;
+        }
+
+        for (int row = 0; row + 1 < offsets.length; row++) {
+            offsets[row + 1] += offsets[row];
+        }
+
+        return Arrays.copyOf(offsets, offsets.length - 1);
+    }
+
+    /**
+     * Computes the strongly connected components with an iterative Tarjan algorithm. The components are numbered in
+     * the order they are completed, therefore a component only reaches components with a smaller id.
+     *
+     * @return Number of components
+     */
+    private int computeComponents() {
+        val index = new int[methodCount];
+        val lowLink = new int[methodCount];
+        val onStack = new boolean[methodCount];
+        val stack = new int[methodCount];
+        val callStack = new int[methodCount];
+        val edgePositions = new int[methodCount];
+        Arrays.fill(index, -1);
+
+        int counter = 0;
+        int stackSize = 0;
+        int componentId = 0;
+
+        for (int root = 0; root < methodCount; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+
+            int depth = 0;
+            index[root] = lowLink[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            callStack[depth] = root;
+            edgePositions[depth] = calleeOffsets[root];
+            depth++;
+
+            while (depth > 0) {
+                val method = callStack[depth - 1];
+
+                if (edgePositions[depth - 1] < calleeOffsets[method + 1]) {
+                    val callee = callees[edgePositions[depth - 1]++];
+
+                    if (index[callee] == -1) {
+                        index[callee] = lowLink[callee] = counter++;
+                        stack[stackSize++] = callee;
+                        onStack[callee] = true;
+                        callStack[depth] = callee;
+                        edgePositions[depth] = calleeOffsets[callee];
+                        depth++;
+                    } else if (onStack[callee]) {
+                        lowLink[method] = Math.min(lowLink[method], index[callee]);
+                    }
+
+                    continue;
+                }
+
+                depth--;
+
+                if (depth > 0) {
+                    val caller = callStack[depth - 1];
+                    lowLink[caller] = Math.min(lowLink[caller], lowLink[method]);
+                }
+
+                if (lowLink[method] == index[method]) {
+                    int member;
+
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        components[member] = componentId;
+                    } while (member != method);
+
+                    componentId++;
+                }
+            }
+        }
+
+        return componentId;
+    }
+
+    /**
+     * Returns the number of edges
+     *
+     * @return Number of edges
+     */
+    public int getEdgeCount() {
+        return callees.length;
+    }
+
+    /**
+     * Returns the number of strongly connected components
+     *
+     * @return Number of components
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    private int getMethodId(String methodSignature) {
+        val methodId = signatureTable.getId(methodSignature);
+
+        // Methods interned after building the index are not part of the call graph
+        return methodId < methodCount ? methodId : -1;
+    }
+
+    /**
+     * Returns the methods directly called by the given method
+     *
+     * @param methodSignature Method signature
+     * @return Signatures of the callees
+     */
+    public Set<String> getCallees(String methodSignature) {
+        return getNeighbours(getMethodId(methodSignature), calleeOffsets, callees);
+    }
+
+    /**
+     * Returns the methods directly calling the given method
+     *
+     * @param methodSignature Method signature
+     * @return Signatures of the callers
+     */
+    public Set<String> getCallers(String methodSignature) {
+        return getNeighbours(getMethodId(methodSignature), callerOffsets, callers);
+    }
+
+    private Set<String> getNeighbours(int methodId, int[] offsets, int[] neighbours) {
+        val signatures = new TreeSet<String>();
+
+        if (methodId == -1) {
+            return signatures;
+        }
+
+        for (int position = offsets[methodId]; position < offsets[methodId + 1]; position++) {
+            signatures.add(signatureTable.getSignature(neighbours[position]));
+        }
+
+        return signatures;
+    }
+
+    /**
+     * Checks whether the given source method transitively calls the given target method
+     *
+     * @param sourceSignature Signature of the source method
+     * @param targetSignature Signature of the target method
+     * @return True if the source method reaches the target method
+     */
+    public boolean canReach(String sourceSignature, String targetSignature) {
+        val sourceId = getMethodId(sourceSignature);
+        val targetId = getMethodId(targetSignature);
+
+        if (sourceId == -1 || targetId == -1) {
+            return sourceSignature.equals(targetSignature);
+        }
+
+        val targetComponent = components[targetId];
+        val visited = new BitSet(componentCount);
+        val queue = new ArrayDeque<Integer>();
+        queue.add(components[sourceId]);
+        visited.set(components[sourceId]);
+
+        while (!queue.isEmpty()) {
+            int component = queue.poll();
+
+            if (component == targetComponent) {
+                return true;
+            }
+
+            for (int position = successorOffsets[component]; position < successorOffsets[component + 1]; position++) {
+                val successor = successors[position];
+
+                // The components below the target cannot reach it
+                if (successor >= targetComponent && !visited.get(successor)) {
+                    visited.set(successor);
+                    queue.add(successor);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns all the methods transitively reachable from the given method, including the method itself
+     *
+     * @param methodSignature Method signature
+     * @return Signatures of the reachable methods
+     */
+    public Set<String> getMethodsReachableFrom(String methodSignature) {
+        return collect(getMethodId(methodSignature), successorOffsets, successors, false);
+    }
+
+    /**
+     * Returns all the methods that transitively reach the given method, including the method itself
+     *
+     * @param methodSignature Method signature
+     * @return Signatures of the reaching methods
+     */
+    public Set<String> getMethodsReaching(String methodSignature) {
+        return collect(getMethodId(methodSignature), predecessorOffsets, predecessors, false);
+    }
+
+    /**
+     * Returns all the methods of the app classes that transitively reach the given method
+     *
+     * @param methodSignature Method signature
+     * @return Signatures of the reaching app methods
+     */
+    public Set<String> getAppMethodsReaching(String methodSignature) {
+        return collect(getMethodId(methodSignature), predecessorOffsets, predecessors, true);
+    }
+
+    private Set<String> collect(int methodId, int[] offsets, int[] neighbours, boolean isAppOnly) {
+        val signatures = new TreeSet<String>();
+
+        if (methodId == -1) {
+            return signatures;
+        }
+
+        val visited = new BitSet(componentCount);
+        val queue = new ArrayDeque<Integer>();
+        queue.add(components[methodId]);
+        visited.set(components[methodId]);
+
+        while (!queue.isEmpty()) {
+            int component = queue.poll();
+
+            for (int position = memberOffsets[component]; position < memberOffsets[component + 1]; position++) {
+                if (!isAppOnly || appMethods.get(members[position])) {
+                    signatures.add(signatureTable.getSignature(members[position]));
+                }
+            }
+
+            for (int position = offsets[component]; position < offsets[component + 1]; position++) {
+                if (!visited.get(neighbours[position])) {
+                    visited.set(neighbours[position]);
+                    queue.add(neighbours[position]);
+                }
+            }
+        }
+
+        return signatures;
+    }
+
+    /**
+     * Returns the edges as invoke site table: the invoked method is the target, the method containing the invoke
+     * expression is the source, and the line number is the one of the calling statement or -1 for implicit edges.
+     *
+     * @return Invoke site table of the edges, grouped by source method
+     */
+    public InvokeSiteTable toInvokeSiteTable() {
+        val builder = new InvokeSiteTable.Builder();
+
+        for (int method = 0; method < methodCount; method++) {
+            val signature = signatureTable.getSignature(method);
+
+            for (int position = calleeOffsets[method]; position < calleeOffsets[method + 1]; position++) {
+                builder.add(signatureTable.getSignature(callees[position]), signature, calleeLines[position]);
+            }
+        }
+
+        return builder.build();
+    }
+}
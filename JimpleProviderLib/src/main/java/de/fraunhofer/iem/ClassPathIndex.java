@@ -0,0 +1,305 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.apache.commons.io.IOUtils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.zip.ZipFile;
+
+/**
+ * Index of the classes in an app classpath. The classpath is a list of directories, jars and classpath files separated
+ * by {@link File#pathSeparator}. A classpath file is given as {@code @<file>} and contains one entry per line, which
+ * may again be a directory, a jar or a classpath file.
+ * <p>
+ * The classes of a jar are enumerated from its central directory without extracting it. If a class is present in
+ * multiple entries, then the first entry wins as in the Java classpath.
+ */
+public class ClassPathIndex implements Closeable {
+    private static final String CLASS_PATH_FILE_PREFIX = "@";
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    private final List<File> entries;
+    private final Map<File, ZipFile> openedArchives = new HashMap<>();
+    private Map<String, File> classToEntry;
+
+    private ClassPathIndex(List<File> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Parses the given classpath and checks that all of its entries are existing directories or jars
+     *
+     * @param classPath Classpath
+     * @return ClassPathIndex
+     * @throws IOException If a classpath file could not be read
+     */
+    public static ClassPathIndex of(String classPath) throws IOException {
+        val entries = new ArrayList<File>();
+        addEntries(classPath.split(File.pathSeparator), entries, new HashSet<>());
+
+        if (entries.isEmpty()) {
+            throw new RuntimeException("Given app class path does not contain any entry.");
+        }
+
+        return new ClassPathIndex(entries);
+    }
+
+    private static void addEntries(String[] rawEntries, List<File> entries, Set<File> visitedClassPathFiles) throws IOException {
+        for (val rawEntry : rawEntries) {
+            val trimmedEntry = rawEntry.trim();
+
+            if (trimmedEntry.isEmpty()) {
+                continue;
+            }
+
+            if (trimmedEntry.startsWith(CLASS_PATH_FILE_PREFIX)) {
+                val classPathFile = new File(trimmedEntry.substring(CLASS_PATH_FILE_PREFIX.length())).getAbsoluteFile();
+
+                // Classpath files may refer to each other
+                if (visitedClassPathFiles.add(classPathFile)) {
+                    addEntries(Files.readAllLines(classPathFile.toPath(), StandardCharsets.UTF_8).toArray(new String[0]),
+                            entries, visitedClassPathFiles);
+                }
+
+                continue;
+            }
+
+            val entry = new File(trimmedEntry).getAbsoluteFile();
+
+            if (!entry.exists()) {
+                throw new RuntimeException("Given app class path entry " + entry + " does not exist.");
+            }
+
+            if (!entry.isDirectory() && !isArchive(entry)) {
+                throw new RuntimeException("Given app class path entry " + entry + " is not a directory or a jar.");
+            }
+
+            if (!entries.contains(entry)) {
+                entries.add(entry);
+            }
+        }
+    }
+
+    private static boolean isArchive(File file) {
+        val fileName = file.getName().toLowerCase(Locale.ROOT);
+        return file.isFile() && (fileName.endsWith(".jar") || fileName.endsWith(".zip"));
+    }
+
+    /**
+     * Returns the classpath for the Soot
+     *
+     * @return Classpath of all the entries
+     */
+    public String getSootClassPath() {
+        val sootClassPath = new StringJoiner(File.pathSeparator);
+        entries.forEach(entry -> sootClassPath.add(entry.getPath()));
+
+        return sootClassPath.toString();
+    }
+
+    /**
+     * Returns the directories of the classpath
+     *
+     * @return List of directories in the order of the classpath
+     */
+    public List<File> getDirectories() {
+        val directories = new ArrayList<File>();
+
+        for (val entry : entries) {
+            if (entry.isDirectory()) {
+                directories.add(entry);
+            }
+        }
+
+        return directories;
+    }
+
+    /**
+     * Returns a stamp of the modification times and the sizes of the jars and the class files in the classpath. The
+     * stamp changes when a class is added, removed or rebuilt, without reading any class.
+     *
+     * @return Modification stamp
+     * @throws IOException If a directory could not be walked
+     */
+    public long getModificationStamp() throws IOException {
+        val filesUtils = new FilesUtils();
+        long stamp = 1;
+
+        for (val entry : entries) {
+            if (!entry.isDirectory()) {
+                stamp = 31 * stamp + getModificationStampOf(entry);
+                continue;
+            }
+
+            // The scan reads the attributes of the class files anyway, thus no file is queried again
+            for (val classFile : filesUtils.scanClassFiles(entry.toPath())) {
+                stamp = 31 * stamp + (31 * classFile.getClassName().hashCode() + classFile.getLastModified()) * 31 +
+                        classFile.getSize();
+            }
+        }
+
+        return stamp;
+    }
+
+    /**
+     * Returns a stamp of the entries of the classpath and of the modification times and the sizes of its jars. Unlike
+     * {@link #getModificationStamp()}, the class files in the directories are not visited, so it is cheap enough to
+     * be checked on every use of the classpath.
+     *
+     * @return Modification stamp of the jars
+     */
+    public long getArchiveModificationStamp() {
+        long stamp = 1;
+
+        for (val entry : entries) {
+            stamp = 31 * stamp + (entry.isDirectory() ? entry.getPath().hashCode() : getModificationStampOf(entry));
+        }
+
+        return stamp;
+    }
+
+    private static long getModificationStampOf(File file) {
+        return (31 * file.getPath().hashCode() + file.lastModified()) * 31 + file.length();
+    }
+
+    /**
+     * Returns all the classes in the classpath
+     *
+     * @return List of classes name
+     * @throws IOException If an entry could not be read
+     */
+    public List<String> getClasses() throws IOException {
+        return new ArrayList<>(getClassToEntry().keySet());
+    }
+
+    /**
+     * Checks whether the given class is in the classpath
+     *
+     * @param className Class name
+     * @return True if the class is in the classpath
+     * @throws IOException If an entry could not be read
+     */
+    public boolean contains(String className) throws IOException {
+        return getClassToEntry().containsKey(className);
+    }
+
+    /**
+     * Reads the bytecode of the given class
+     *
+     * @param className Class name
+     * @return Bytecode
+     * @throws IOException If the class is not in the classpath or could not be read
+     */
+    public byte[] readClass(String className) throws IOException {
+        val entry = getClassToEntry().get(className);
+
+        if (entry == null) {
+            throw new IOException(className + " is not present in the given class path");
+        }
+
+        val classFileName = className.replace('.', '/') + CLASS_FILE_EXTENSION;
+
+        if (entry.isDirectory()) {
+            return Files.readAllBytes(new File(entry, classFileName).toPath());
+        }
+
+        val archive = getArchive(entry);
+
+        try (InputStream inputStream = archive.getInputStream(archive.getEntry(classFileName))) {
+            return IOUtils.toByteArray(inputStream);
+        }
+    }
+
+    /**
+     * Looks up the given classes again, e.g. after their class files were added, rebuilt or deleted, without indexing
+     * the whole classpath again. The jars are expected to be unchanged.
+     *
+     * @param classNames Classes name
+     * @throws IOException If a jar could not be read
+     */
+    public synchronized void refresh(Collection<String> classNames) throws IOException {
+        val classToEntry = getClassToEntry();
+
+        for (val className : classNames) {
+            val classFileName = className.replace('.', '/') + CLASS_FILE_EXTENSION;
+            classToEntry.remove(className);
+
+            // The first entry wins as in the Java classpath, a deleted directory contains no class
+            for (val entry : entries) {
+                if (entry.isDirectory() ? new File(entry, classFileName).isFile()
+                        : entry.isFile() && getArchive(entry).getEntry(classFileName) != null) {
+                    classToEntry.put(className, entry);
+                    break;
+                }
+            }
+        }
+    }
+
+    private synchronized Map<String, File> getClassToEntry() throws IOException {
+        if (classToEntry != null) {
+            return classToEntry;
+        }
+
+        val filesUtils = new FilesUtils();
+        classToEntry = new LinkedHashMap<>();
+
+        for (val entry : entries) {
+            if (entry.isDirectory()) {
+                for (val className : filesUtils.getClassesAsList(entry.getPath())) {
+                    classToEntry.putIfAbsent(className, entry);
+                }
+
+                continue;
+            }
+
+            val archiveEntries = getArchive(entry).entries();
+
+            while (archiveEntries.hasMoreElements()) {
+                val archiveEntry = archiveEntries.nextElement();
+                val name = archiveEntry.getName();
+
+                // Skips the module descriptors and the versioned classes of multi-release jars
+                if (archiveEntry.isDirectory() || !name.endsWith(CLASS_FILE_EXTENSION) ||
+                        name.startsWith("META-INF/") || name.endsWith("module-info.class")) {
+                    continue;
+                }
+
+                val className = name.substring(0, name.length() - CLASS_FILE_EXTENSION.length()).replace('/', '.');
+                classToEntry.putIfAbsent(className, entry);
+            }
+        }
+
+        return classToEntry;
+    }
+
+    private synchronized ZipFile getArchive(File entry) throws IOException {
+        ZipFile archive = openedArchives.get(entry);
+
+        if (archive == null) {
+            archive = new ZipFile(entry);
+            openedArchives.put(entry, archive);
+        }
+
+        return archive;
+    }
+
+    /**
+     * Closes all the opened jars
+     *
+     * @throws IOException If a jar could not be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (val archive : openedArchives.values()) {
+            archive.close();
+        }
+
+        openedArchives.clear();
+    }
+}
@@ -0,0 +1,33 @@
+package de.fraunhofer.iem;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Output sink writing every file into an output directory, which is the default layout of the generated files
+ */
+public class DirectoryOutputSink implements OutputSink {
+    private final File outDir;
+    private final OutputWriter outputWriter;
+
+    /**
+     * Constructor for DirectoryOutputSink
+     *
+     * @param outDir        Output directory
+     * @param syncBatchSize Number of files synced to the disk together, 0 to not sync the files
+     */
+    public DirectoryOutputSink(File outDir, int syncBatchSize) {
+        this.outDir = outDir;
+        this.outputWriter = new OutputWriter(syncBatchSize);
+    }
+
+    @Override
+    public long write(String path, OutputWriter.Content content) throws IOException {
+        return outputWriter.write(new File(outDir, path.replace('/', File.separatorChar)), content);
+    }
+
+    @Override
+    public void close() throws IOException {
+        outputWriter.close();
+    }
+}
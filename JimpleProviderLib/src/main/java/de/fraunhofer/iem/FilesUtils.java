@@ -1,5 +1,6 @@
 package de.fraunhofer.iem;
 
+import lombok.Data;
 import lombok.val;
 import org.apache.commons.io.FileUtils;
 
@@ -7,12 +8,17 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.nio.file.Files;
-import java.nio.file.InvalidPathException;
-import java.nio.file.Paths;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Utility for File operations
@@ -40,26 +46,99 @@ public class FilesUtils {
      * Process the given app path that contains the classes and returns the list of classes.
      *
      * @param appClassesPath App class path that contains the classes to be converted into Jimple
-     * @return List of classes name
+     * @return List of classes name in alphabetical order
      */
     protected List<String> getClassesAsList(String appClassesPath) throws IOException {
-        val path = Paths.get(appClassesPath);
-        val appClasses = new ArrayList<String>();
-
-        try (val stream = Files.find(path, Integer.MAX_VALUE, (filePath, fileAttr) ->
-                filePath.toString().endsWith(".class") && fileAttr.isRegularFile())
-        ) {
-            stream.forEach(p -> appClasses.add(p.toString()
-                    .replace(path.toString(), "")
-                    .replaceAll("\\\\", ".")
-                    .replaceAll("/", ".")
-                    .replaceAll("^\\.", "")
-                    .replaceAll("\\.class$", "")));
+        val classFiles = scanClassFiles(Paths.get(appClassesPath));
+        val appClasses = new ArrayList<String>(classFiles.size());
+
+        for (val classFile : classFiles) {
+            appClasses.add(classFile.getClassName());
         }
 
         return appClasses;
     }
 
+    /**
+     * Scans the given directory for class files. The sub-directories are scanned in parallel by a fork-join pool,
+     * and the class names are built from the names of the directories instead of converting the file paths.
+     *
+     * @param directory Directory containing the classes in their package directories
+     * @return Class files sorted by their class name
+     * @throws IOException If a directory could not be read
+     */
+    protected List<ClassFile> scanClassFiles(Path directory) throws IOException {
+        val forkJoinPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+        try {
+            val classFiles = forkJoinPool.invoke(new ClassFileScan(directory, ""));
+            classFiles.sort(Comparator.comparing(ClassFile::getClassName));
+
+            return classFiles;
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    /**
+     * Class file found by {@link #scanClassFiles(Path)}
+     */
+    @Data
+    protected static class ClassFile {
+        final String className;
+        final long lastModified;
+        final long size;
+    }
+
+    /**
+     * Scans a directory of a package. Every sub-directory is scanned by a forked task.
+     */
+    private static class ClassFileScan extends RecursiveTask<List<ClassFile>> {
+        private static final String CLASS_FILE_EXTENSION = ".class";
+
+        private final Path directory;
+        private final String packagePrefix;
+
+        private ClassFileScan(Path directory, String packagePrefix) {
+            this.directory = directory;
+            this.packagePrefix = packagePrefix;
+        }
+
+        @Override
+        protected List<ClassFile> compute() {
+            val classFiles = new ArrayList<ClassFile>();
+            val subDirectoryScans = new ArrayList<ClassFileScan>();
+
+            try (val directoryStream = Files.newDirectoryStream(directory)) {
+                for (val path : directoryStream) {
+                    // Symbolic links are not followed, as by Files.find
+                    val attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    val fileName = path.getFileName().toString();
+
+                    if (attributes.isDirectory()) {
+                        val subDirectoryScan = new ClassFileScan(path, packagePrefix + fileName + ".");
+                        subDirectoryScan.fork();
+                        subDirectoryScans.add(subDirectoryScan);
+                    } else if (attributes.isRegularFile() && fileName.endsWith(CLASS_FILE_EXTENSION)) {
+                        classFiles.add(new ClassFile(
+                                packagePrefix + fileName.substring(0, fileName.length() - CLASS_FILE_EXTENSION.length()),
+                                attributes.lastModifiedTime().toMillis(), attributes.size()));
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+
+            for (val subDirectoryScan : subDirectoryScans) {
+                classFiles.addAll(subDirectoryScan.join());
+            }
+
+            return classFiles;
+        }
+    }
+
     /**
      * This method recursively creates a directory for the given class name in the given baseDir
      *
@@ -79,8 +158,9 @@ public class FilesUtils {
 
         val completePathFile = new File(completePath.toString());
 
+        // Another thread may create the same directory concurrently
         if (!completePathFile.exists())
-            return completePathFile.mkdirs();
+            return completePathFile.mkdirs() || completePathFile.isDirectory();
 
         return true;
     }
@@ -113,4 +193,29 @@ public class FilesUtils {
         writer.flush();
         writer.close();
     }
+
+    /**
+     * Returns the SHA-256 digest of the given content as hex string
+     *
+     * @param content Content
+     * @return Hex digest
+     */
+    protected String getDigestOf(byte[] content) {
+        MessageDigest messageDigest;
+
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException(ex);
+        }
+
+        val digest = messageDigest.digest(content);
+        val hexDigest = new StringBuilder(digest.length * 2);
+
+        for (val b : digest) {
+            hexDigest.append(String.format("%02x", b));
+        }
+
+        return hexDigest.toString();
+    }
 }
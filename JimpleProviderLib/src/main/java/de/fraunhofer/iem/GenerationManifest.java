@@ -0,0 +1,134 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Manifest of the generated Jimple code used by the incremental generation. It stores the options used to generate
+ * the Jimple code and the digest of the bytecode of every generated class.
+ */
+public class GenerationManifest {
+    private static final String MANIFEST_FILE_NAME = ".jimple-provider-manifest";
+    private static final String OPTION_PREFIX = "option.";
+    private static final String CLASS_PREFIX = "class.";
+
+    private final File manifestFile;
+    private final Map<String, String> options = new TreeMap<>();
+    private final Map<String, String> classDigests = new TreeMap<>();
+
+    private GenerationManifest(File manifestFile) {
+        this.manifestFile = manifestFile;
+    }
+
+    /**
+     * Loads the manifest from the given output directory. If there is no manifest, then it returns an empty manifest.
+     *
+     * @param outDir Output directory
+     * @return Manifest
+     * @throws IOException If the manifest could not be read
+     */
+    public static GenerationManifest load(File outDir) throws IOException {
+        val manifest = new GenerationManifest(new File(outDir, MANIFEST_FILE_NAME));
+
+        if (!manifest.manifestFile.exists()) {
+            return manifest;
+        }
+
+        for (val line : Files.readAllLines(manifest.manifestFile.toPath(), StandardCharsets.UTF_8)) {
+            val separator = line.indexOf('=');
+
+            if (separator == -1) {
+                continue;
+            }
+
+            val key = line.substring(0, separator);
+            val value = line.substring(separator + 1);
+
+            if (key.startsWith(OPTION_PREFIX)) {
+                manifest.options.put(key.substring(OPTION_PREFIX.length()), value);
+            } else if (key.startsWith(CLASS_PREFIX)) {
+                manifest.classDigests.put(key.substring(CLASS_PREFIX.length()), value);
+            }
+        }
+
+        return manifest;
+    }
+
+    /**
+     * Stores the manifest in the output directory
+     *
+     * @throws IOException If the manifest could not be written
+     */
+    public void store() throws IOException {
+        val lines = new ArrayList<String>();
+
+        options.forEach((key, value) -> lines.add(OPTION_PREFIX + key + "=" + value));
+        classDigests.forEach((key, value) -> lines.add(CLASS_PREFIX + key + "=" + value));
+
+        Files.write(manifestFile.toPath(), lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks whether the manifest was generated with the given options
+     *
+     * @param options Options
+     * @return True if the options are the same
+     */
+    public boolean hasOptions(Map<String, String> options) {
+        return this.options.equals(new TreeMap<>(options));
+    }
+
+    /**
+     * Replaces the options and forgets all the generated classes, because they were generated with different options.
+     *
+     * @param options Options
+     */
+    public void reset(Map<String, String> options) {
+        this.options.clear();
+        this.options.putAll(options);
+        this.classDigests.clear();
+    }
+
+    /**
+     * Returns the digest of the bytecode of the given class when it was generated
+     *
+     * @param className Class name
+     * @return Digest or null if the class was not generated
+     */
+    public String getDigest(String className) {
+        return classDigests.get(className);
+    }
+
+    /**
+     * Stores the digest of the bytecode of the given generated class
+     *
+     * @param className Class name
+     * @param digest Digest
+     */
+    public void putDigest(String className, String digest) {
+        classDigests.put(className, digest);
+    }
+
+    /**
+     * Removes the given class from the manifest
+     *
+     * @param className Class name
+     */
+    public void removeClass(String className) {
+        classDigests.remove(className);
+    }
+
+    /**
+     * Returns all the generated classes
+     *
+     * @return Set of generated classes
+     */
+    public Set<String> getClasses() {
+        return Collections.unmodifiableSet(classDigests.keySet());
+    }
+}
@@ -0,0 +1,198 @@
+package de.fraunhofer.iem;
+
+import lombok.Data;
+import lombok.val;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Persistent cache of the invoke expressions of all the methods of a class. The entries are keyed by the digest of
+ * the bytecode of the class. The invoked methods are resolved in the class hierarchy, therefore every entry also
+ * records the digests of the classes they were resolved in, and it is only valid as long as none of these classes
+ * changed either. Every entry is kept in memory as int records, whose signature ids refer to the signature table of
+ * the cache, and stored in a compact binary file in the cache directory.
+ * <p>
+ * File format: magic, version, resolution classes (name and digest), string table (all the signatures), methods
+ * (signature index, number of invoke expressions and for each invoke expression the invoked method signature index and
+ * the line number).
+ */
+public class InvokeFactsCache {
+    private static final int MAGIC = 0x4A504946;
+    private static final int VERSION = 2;
+    private static final String FILE_EXTENSION = ".facts";
+
+    private final File cacheDir;
+    private final SignatureTable signatureTable;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Data
+    private static class Entry {
+        final Map<String, String> resolutionDigests;
+        final List<MethodInvokeSites> invokeFacts;
+    }
+
+    /**
+     * Constructor for InvokeFactsCache
+     *
+     * @param cacheDir       Directory to store the cache files
+     * @param signatureTable Signature table of the signature ids
+     */
+    public InvokeFactsCache(File cacheDir, SignatureTable signatureTable) {
+        this.cacheDir = cacheDir;
+        this.signatureTable = signatureTable;
+    }
+
+    /**
+     * Returns the invoke expressions of all the methods of the class with the given key, if the classes they were
+     * resolved in did not change
+     *
+     * @param key Key of the class
+     * @param digests Returns the current digest of a class, or null if it is not in the classpath anymore
+     * @return Invoke sites of the methods in their order or null if the class is not cached or the entry is stale
+     */
+    public List<MethodInvokeSites> get(String key, Function<String, String> digests) {
+        Entry entry = entries.get(key);
+
+        if (entry == null) {
+            val cacheFile = getCacheFile(key);
+
+            if (!cacheFile.exists()) {
+                return null;
+            }
+
+            try {
+                entry = read(cacheFile);
+                entries.put(key, entry);
+            } catch (IOException ex) {
+                System.err.println("Could not read the cache file " + cacheFile.getAbsolutePath() + ": " + ex.getMessage());
+                return null;
+            }
+        }
+
+        for (val resolutionDigest : entry.resolutionDigests.entrySet()) {
+            if (!resolutionDigest.getValue().equals(digests.apply(resolutionDigest.getKey()))) {
+                return null;
+            }
+        }
+
+        return entry.invokeFacts;
+    }
+
+    /**
+     * Stores the invoke expressions of all the methods of the class with the given key
+     *
+     * @param key Key of the class
+     * @param invokeFacts Invoke sites of the methods in their order
+     * @param resolutionDigests Digests of the classes the invoked methods were resolved in
+     */
+    public void put(String key, List<MethodInvokeSites> invokeFacts, Map<String, String> resolutionDigests) {
+        val entry = new Entry(resolutionDigests, invokeFacts);
+        entries.put(key, entry);
+
+        val cacheFile = getCacheFile(key);
+
+        try {
+            if (!cacheDir.exists() && !cacheDir.mkdirs() && !cacheDir.isDirectory()) {
+                throw new IOException("Could not create " + cacheDir.getAbsolutePath());
+            }
+
+            // Write to a temporary file first, so that concurrent readers never see a partially written file
+            val tempFile = File.createTempFile(key, FILE_EXTENSION, cacheDir);
+
+            try {
+                write(tempFile, entry);
+                Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(tempFile.toPath());
+            }
+        } catch (IOException ex) {
+            System.err.println("Could not write the cache file " + cacheFile.getAbsolutePath() + ": " + ex.getMessage());
+        }
+    }
+
+    private File getCacheFile(String key) {
+        return new File(cacheDir, key + FILE_EXTENSION);
+    }
+
+    private void write(File file, Entry entry) throws IOException {
+        val invokeFacts = entry.invokeFacts;
+        // The file has its own string table, as the ids of the signature table differ between runs
+        val stringTable = new LinkedHashMap<Integer, Integer>();
+
+        for (val methodFacts : invokeFacts) {
+            stringTable.putIfAbsent(methodFacts.getMethodId(), stringTable.size());
+
+            for (int site = 0; site < methodFacts.size(); site++) {
+                stringTable.putIfAbsent(methodFacts.getInvokedMethodId(site), stringTable.size());
+            }
+        }
+
+        try (val out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(entry.resolutionDigests.size());
+            for (val resolutionDigest : entry.resolutionDigests.entrySet()) {
+                out.writeUTF(resolutionDigest.getKey());
+                out.writeUTF(resolutionDigest.getValue());
+            }
+
+            out.writeInt(stringTable.size());
+            for (val signatureId : stringTable.keySet()) {
+                out.writeUTF(signatureTable.getSignature(signatureId));
+            }
+
+            out.writeInt(invokeFacts.size());
+            for (val methodFacts : invokeFacts) {
+                out.writeInt(stringTable.get(methodFacts.getMethodId()));
+                out.writeInt(methodFacts.size());
+
+                for (int site = 0; site < methodFacts.size(); site++) {
+                    out.writeInt(stringTable.get(methodFacts.getInvokedMethodId(site)));
+                    out.writeInt(methodFacts.getLineNumber(site));
+                }
+            }
+        }
+    }
+
+    private Entry read(File file) throws IOException {
+        try (val in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported cache file format");
+            }
+
+            val resolutionDigests = new TreeMap<String, String>();
+            val resolutionClassCount = in.readInt();
+            for (int i = 0; i < resolutionClassCount; i++) {
+                resolutionDigests.put(in.readUTF(), in.readUTF());
+            }
+
+            val signatureIds = new int[in.readInt()];
+            for (int i = 0; i < signatureIds.length; i++) {
+                signatureIds[i] = signatureTable.intern(in.readUTF());
+            }
+
+            val methodCount = in.readInt();
+            val invokeFacts = new ArrayList<MethodInvokeSites>(methodCount);
+
+            for (int i = 0; i < methodCount; i++) {
+                val methodId = signatureIds[in.readInt()];
+                val records = new int[2 * in.readInt()];
+
+                for (int j = 0; j < records.length; j += 2) {
+                    records[j] = signatureIds[in.readInt()];
+                    records[j + 1] = in.readInt();
+                }
+
+                invokeFacts.add(new MethodInvokeSites(methodId, records));
+            }
+
+            return new Entry(resolutionDigests, invokeFacts);
+        }
+    }
+}
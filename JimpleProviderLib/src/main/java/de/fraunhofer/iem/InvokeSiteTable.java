@@ -0,0 +1,368 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Columnar table of invoke sites. Every method signature is stored once in a dictionary and the invoke sites are three
+ * int columns: the id of the invoked method, the id of the method containing the invoke expression and the line
+ * number.
+ * <p>
+ * File format, all ints are 4 bytes little-endian: magic, version, number of invoke sites, number of signatures,
+ * signature offsets (number of signatures + 1 byte offsets into the signature data), signature data (UTF-8, padded to
+ * a multiple of 4 bytes), invoked method column, invoked in method column, line number column. The whole file may be
+ * compressed with gzip. An uncompressed file can be memory-mapped, e.g. the columns start at byte
+ * {@code 16 + 4 * (signatures + 1) + padded signature data length}.
+ */
+public class InvokeSiteTable {
+    private static final int MAGIC = 0x4A504953;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final String[] signatures;
+    private final IntBuffer invokedMethods;
+    private final IntBuffer invokedInMethods;
+    private final IntBuffer lineNumbers;
+    private Map<String, Integer> signatureIds;
+
+    private InvokeSiteTable(String[] signatures, IntBuffer invokedMethods, IntBuffer invokedInMethods, IntBuffer lineNumbers) {
+        this.signatures = signatures;
+        this.invokedMethods = invokedMethods;
+        this.invokedInMethods = invokedInMethods;
+        this.lineNumbers = lineNumbers;
+    }
+
+    /**
+     * Builder of the invoke site table, which dictionary-encodes the signatures while the invoke sites are added
+     */
+    public static class Builder {
+        private final Map<String, Integer> signatureIds = new HashMap<>();
+        private final List<String> signatures = new ArrayList<>();
+        private int[] invokedMethods = new int[1024];
+        private int[] invokedInMethods = new int[1024];
+        private int[] lineNumbers = new int[1024];
+        private int size;
+
+        /**
+         * Adds the given invoke site
+         *
+         * @param invokeExpression Invoke expression and its line number
+         * @return Builder
+         */
+        public Builder add(InvokeExpressionToLineNumber invokeExpression) {
+            return add(invokeExpression.getInvokedMethodSignature(), invokeExpression.getInvokedInMethod(),
+                    invokeExpression.getLineNumber());
+        }
+
+        /**
+         * Adds the given invoke site
+         *
+         * @param invokedMethodSignature Signature of the invoked method
+         * @param invokedInMethod        Signature of the method containing the invoke expression
+         * @param lineNumber             Line number
+         * @return Builder
+         */
+        public Builder add(String invokedMethodSignature, String invokedInMethod, int lineNumber) {
+            if (size == lineNumbers.length) {
+                invokedMethods = Arrays.copyOf(invokedMethods, 2 * size);
+                invokedInMethods = Arrays.copyOf(invokedInMethods, 2 * size);
+                lineNumbers = Arrays.copyOf(lineNumbers, 2 * size);
+            }
+
+            invokedMethods[size] = getSignatureId(invokedMethodSignature);
+            invokedInMethods[size] = getSignatureId(invokedInMethod);
+            lineNumbers[size] = lineNumber;
+            size++;
+
+            return this;
+        }
+
+        private int getSignatureId(String signature) {
+            Integer signatureId = signatureIds.get(signature);
+
+            if (signatureId == null) {
+                signatureId = signatures.size();
+                signatureIds.put(signature, signatureId);
+                signatures.add(signature);
+            }
+
+            return signatureId;
+        }
+
+        /**
+         * Builds the invoke site table
+         *
+         * @return InvokeSiteTable
+         */
+        public InvokeSiteTable build() {
+            val table = new InvokeSiteTable(signatures.toArray(new String[0]),
+                    IntBuffer.wrap(Arrays.copyOf(invokedMethods, size)),
+                    IntBuffer.wrap(Arrays.copyOf(invokedInMethods, size)),
+                    IntBuffer.wrap(Arrays.copyOf(lineNumbers, size)));
+            table.signatureIds = new HashMap<>(signatureIds);
+
+            return table;
+        }
+    }
+
+    /**
+     * Returns the number of invoke sites
+     *
+     * @return Number of invoke sites
+     */
+    public int size() {
+        return lineNumbers.limit();
+    }
+
+    /**
+     * Returns the number of distinct signatures
+     *
+     * @return Number of signatures
+     */
+    public int getSignatureCount() {
+        return signatures.length;
+    }
+
+    /**
+     * Returns the signature with the given id
+     *
+     * @param signatureId Signature id
+     * @return Signature
+     */
+    public String getSignature(int signatureId) {
+        return signatures[signatureId];
+    }
+
+    /**
+     * Returns the id of the given signature
+     *
+     * @param signature Signature
+     * @return Signature id or -1 if the signature is not present
+     */
+    public synchronized int getSignatureId(String signature) {
+        if (signatureIds == null) {
+            signatureIds = new HashMap<>(signatures.length * 2);
+
+            for (int i = 0; i < signatures.length; i++) {
+                signatureIds.put(signatures[i], i);
+            }
+        }
+
+        return signatureIds.getOrDefault(signature, -1);
+    }
+
+    /**
+     * Returns the signature id of the invoked method of the given invoke site
+     *
+     * @param site Invoke site
+     * @return Signature id
+     */
+    public int getInvokedMethodId(int site) {
+        return invokedMethods.get(site);
+    }
+
+    /**
+     * Returns the signature id of the method containing the given invoke site
+     *
+     * @param site Invoke site
+     * @return Signature id
+     */
+    public int getInvokedInMethodId(int site) {
+        return invokedInMethods.get(site);
+    }
+
+    /**
+     * Returns the line number of the given invoke site
+     *
+     * @param site Invoke site
+     * @return Line number
+     */
+    public int getLineNumber(int site) {
+        return lineNumbers.get(site);
+    }
+
+    /**
+     * Returns the given invoke site as invoke expression
+     *
+     * @param site Invoke site
+     * @return Invoke expression and its line number
+     */
+    public InvokeExpressionToLineNumber getInvokeExpression(int site) {
+        return new InvokeExpressionToLineNumber(
+                signatures[getInvokedMethodId(site)], signatures[getInvokedInMethodId(site)], getLineNumber(site));
+    }
+
+    /**
+     * Writes the table to the given file, which is replaced if it exists
+     *
+     * @param file       File
+     * @param isCompress Compress the file with gzip or not, a compressed file cannot be memory-mapped
+     * @throws IOException If the file could not be written
+     */
+    public void write(File file, boolean isCompress) throws IOException {
+        val directory = file.getAbsoluteFile().getParentFile();
+
+        if (!directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Could not create directory " + directory.getAbsolutePath());
+        }
+
+        // Write to a temporary file first, so that readers never see a partially written file
+        val tempFile = File.createTempFile("." + file.getName(), ".tmp", directory);
+
+        try {
+            try (OutputStream outputStream = isCompress
+                    ? new GZIPOutputStream(new FileOutputStream(tempFile), BUFFER_SIZE)
+                    : new BufferedOutputStream(new FileOutputStream(tempFile), BUFFER_SIZE)) {
+                writeTo(outputStream);
+            }
+
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+
+    private void writeTo(OutputStream outputStream) throws IOException {
+        val encodedSignatures = new byte[signatures.length][];
+        int signatureDataLength = 0;
+
+        for (int i = 0; i < signatures.length; i++) {
+            encodedSignatures[i] = signatures[i].getBytes(StandardCharsets.UTF_8);
+            signatureDataLength += encodedSignatures[i].length;
+        }
+
+        val buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        putInt(outputStream, buffer, MAGIC);
+        putInt(outputStream, buffer, VERSION);
+        putInt(outputStream, buffer, size());
+        putInt(outputStream, buffer, signatures.length);
+
+        int offset = 0;
+        putInt(outputStream, buffer, offset);
+
+        for (val encodedSignature : encodedSignatures) {
+            offset += encodedSignature.length;
+            putInt(outputStream, buffer, offset);
+        }
+
+        flush(outputStream, buffer);
+
+        for (val encodedSignature : encodedSignatures) {
+            outputStream.write(encodedSignature);
+        }
+
+        // The columns are aligned to 4 bytes
+        outputStream.write(new byte[getPadding(signatureDataLength)]);
+
+        for (val column : Arrays.asList(invokedMethods, invokedInMethods, lineNumbers)) {
+            for (int site = 0; site < size(); site++) {
+                putInt(outputStream, buffer, column.get(site));
+            }
+        }
+
+        flush(outputStream, buffer);
+    }
+
+    private static void putInt(OutputStream outputStream, ByteBuffer buffer, int value) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            flush(outputStream, buffer);
+        }
+
+        buffer.putInt(value);
+    }
+
+    private static void flush(OutputStream outputStream, ByteBuffer buffer) throws IOException {
+        outputStream.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+    }
+
+    private static int getPadding(int length) {
+        return (Integer.BYTES - length % Integer.BYTES) % Integer.BYTES;
+    }
+
+    /**
+     * Reads the table from the given file. An uncompressed file is memory-mapped, therefore the columns are not
+     * loaded into the heap.
+     *
+     * @param file File
+     * @return InvokeSiteTable
+     * @throws IOException If the file could not be read or has an unsupported format
+     */
+    public static InvokeSiteTable read(File file) throws IOException {
+        ByteBuffer buffer;
+
+        try (val channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        // The gzip magic number
+        if (buffer.limit() >= 2 && (buffer.get(0) & 0xff) == 0x1f && (buffer.get(1) & 0xff) == 0x8b) {
+            try (val inputStream = new GZIPInputStream(new FileInputStream(file), BUFFER_SIZE)) {
+                val outputStream = new ByteArrayOutputStream();
+                val chunk = new byte[BUFFER_SIZE];
+                int read;
+
+                while ((read = inputStream.read(chunk)) != -1) {
+                    outputStream.write(chunk, 0, read);
+                }
+
+                buffer = ByteBuffer.wrap(outputStream.toByteArray());
+            }
+        }
+
+        return of(buffer.order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    private static InvokeSiteTable of(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported invoke site table format");
+        }
+
+        val size = buffer.getInt(8);
+        val signatureCount = buffer.getInt(12);
+        val signatureDataStart = HEADER_SIZE + Integer.BYTES * (signatureCount + 1);
+        val signatureDataLength = buffer.getInt(signatureDataStart - Integer.BYTES);
+        val columnsStart = signatureDataStart + signatureDataLength + getPadding(signatureDataLength);
+
+        if (buffer.limit() != columnsStart + 3L * Integer.BYTES * size) {
+            throw new IOException("Invoke site table is truncated");
+        }
+
+        val signatures = new String[signatureCount];
+        val signatureData = new byte[signatureDataLength];
+        ((ByteBuffer) buffer.duplicate().position(signatureDataStart)).get(signatureData);
+
+        for (int i = 0; i < signatureCount; i++) {
+            val start = buffer.getInt(HEADER_SIZE + Integer.BYTES * i);
+            val end = buffer.getInt(HEADER_SIZE + Integer.BYTES * (i + 1));
+            signatures[i] = new String(signatureData, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        return new InvokeSiteTable(signatures,
+                getColumn(buffer, columnsStart, size),
+                getColumn(buffer, columnsStart + Integer.BYTES * size, size),
+                getColumn(buffer, columnsStart + 2 * Integer.BYTES * size, size));
+    }
+
+    private static IntBuffer getColumn(ByteBuffer buffer, int start, int size) {
+        val column = buffer.duplicate();
+        column.position(start);
+        column.limit(start + Integer.BYTES * size);
+
+        return column.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+}
@@ -0,0 +1,122 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import soot.Body;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.tagkit.LineNumberTag;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Source line numbers of the statements of a class, which the Jimple code does not contain. The table is written next
+ * to the Jimple file of a class by the incremental generation, with one line per method body containing its signature
+ * and the line numbers of its statements in the order of the Jimple code, -1 for a statement without line number.
+ * A warm start restores the line numbers of the bodies read from the Jimple code.
+ */
+public class JimpleLineTable {
+    public static final String EXTENSION = ".lines";
+
+    private final Map<String, int[]> lineNumbers = new HashMap<>();
+
+    private JimpleLineTable() {
+    }
+
+    /**
+     * Returns the line table file of the class of the given Jimple file
+     *
+     * @param jimpleFile Jimple file
+     * @return Line table file next to the Jimple file
+     */
+    public static File getFile(File jimpleFile) {
+        val name = jimpleFile.getName();
+
+        return new File(jimpleFile.getParentFile(), name.substring(0, name.length() - ".jimple".length()) + EXTENSION);
+    }
+
+    /**
+     * Writes the line table of the method bodies of the given class
+     *
+     * @param sootClass Soot class whose bodies are retrieved
+     * @param writer    Writer
+     */
+    public static void write(SootClass sootClass, PrintWriter writer) {
+        for (val sootMethod : sootClass.getMethods()) {
+            if (!sootMethod.hasActiveBody()) {
+                continue;
+            }
+
+            val line = new StringBuilder(sootMethod.getSignature()).append('\t');
+            String separator = "";
+
+            for (val unit : sootMethod.getActiveBody().getUnits()) {
+                line.append(separator).append(unit.getJavaSourceStartLineNumber());
+                separator = ",";
+            }
+
+            writer.println(line);
+        }
+    }
+
+    /**
+     * Reads the line table from the given file
+     *
+     * @param file Line table file
+     * @return Line table
+     * @throws IOException If the file could not be read
+     */
+    public static JimpleLineTable read(File file) throws IOException {
+        val lineTable = new JimpleLineTable();
+
+        for (val line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            val separator = line.lastIndexOf('\t');
+
+            if (separator == -1) {
+                continue;
+            }
+
+            val columns = line.substring(separator + 1);
+            // A body without statements has no columns
+            val lineNumbers = columns.isEmpty()
+                    ? new int[0]
+                    : Arrays.stream(columns.split(",")).mapToInt(Integer::parseInt).toArray();
+
+            lineTable.lineNumbers.put(line.substring(0, separator), lineNumbers);
+        }
+
+        return lineTable;
+    }
+
+    /**
+     * Adds the line numbers to the statements of the given body of the given method
+     *
+     * @param sootMethod Soot method
+     * @param body       Body read from the Jimple code of the method
+     * @throws RuntimeException If the body does not match the line table
+     */
+    public void apply(SootMethod sootMethod, Body body) {
+        val methodLineNumbers = lineNumbers.get(sootMethod.getSignature());
+
+        if (methodLineNumbers == null || methodLineNumbers.length != body.getUnits().size()) {
+            throw new RuntimeException("The line table does not match the Jimple code of " +
+                    sootMethod.getSignature() + ".");
+        }
+
+        int i = 0;
+
+        for (val unit : body.getUnits()) {
+            if (methodLineNumbers[i] != -1) {
+                unit.addTag(new LineNumberTag(methodLineNumbers[i]));
+            }
+
+            i++;
+        }
+    }
+}
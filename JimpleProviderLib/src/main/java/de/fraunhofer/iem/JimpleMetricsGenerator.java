@@ -7,7 +7,11 @@ import org.json.JSONException;
 import org.json.JSONObject;
 import soot.SootClass;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Generates the Metrics for the given class
@@ -48,7 +52,10 @@ public class JimpleMetricsGenerator {
      *
      * @param sootClass Soot Class
      * @return JSONObject metrics
+     * @deprecated Sets the fields of the JSONObject reflectively on every insertion. Use
+     * {@link #writeMetric(SootClass, Writer)} to write the metrics instead.
      */
+    @Deprecated
     public static JSONObject generateMetric(SootClass sootClass) {
         val jsonObject = getJSONObject();
 
@@ -69,6 +76,7 @@ public class JimpleMetricsGenerator {
 
         val methodsSignature = new JSONArray();
         val methodsInformation = getJSONObject();
+        val signatureTable = new SignatureTable();
 
         for (val sootMethod : sootClass.getMethods()) {
             // Method signature list
@@ -81,9 +89,15 @@ public class JimpleMetricsGenerator {
             val invokeExpression = new JSONArray();
 
             if (sootMethod.hasActiveBody()) {
-                sootUtils.getStackVariablesIn(sootMethod).forEach(stackVariable::put);
-                sootUtils.getLocalVariablesIn(sootMethod).forEach(localVariables::put);
-                sootUtils.getAllInvokedMethodSignatures(sootMethod).stream().map(InvokeExpressionToLineNumber::getInvokedMethodSignature).forEach(invokeExpression::put);
+                val methodSummary = sootUtils.getMethodSummary(sootMethod, signatureTable);
+                val invokeSites = methodSummary.getInvokeSites();
+
+                methodSummary.getStackVariables().forEach(stackVariable::put);
+                methodSummary.getLocalVariables().forEach(localVariables::put);
+
+                for (int site = 0; site < invokeSites.size(); site++) {
+                    invokeExpression.put(signatureTable.getSignature(invokeSites.getInvokedMethodId(site)));
+                }
             }
 
             methodInfo.put("localVariables", localVariables);
@@ -102,4 +116,121 @@ public class JimpleMetricsGenerator {
 
         return jsonObject;
     }
+
+    /**
+     * Generates the metrics and writes them directly to the given writer. The output is the same as the one of
+     * {@code generateMetric(sootClass).toString(4)}.
+     *
+     * @param sootClass Soot Class
+     * @param writer Writer
+     * @throws IOException If the writer fails
+     */
+    public static void writeMetric(SootClass sootClass, Writer writer) throws IOException {
+        writeMetric(sootClass, writer, null);
+    }
+
+    /**
+     * Generates the metrics and writes them directly to the given writer. The time spent in extracting the method
+     * summaries is added to the given run statistics.
+     *
+     * @param sootClass Soot Class
+     * @param writer Writer
+     * @param runStatistics Run statistics, or null to not record the time
+     * @throws IOException If the writer fails
+     */
+    public static void writeMetric(SootClass sootClass, Writer writer, RunStatistics runStatistics) throws IOException {
+        val jsonWriter = new JsonStreamWriter(writer, 4);
+        val sootMethods = sootClass.getMethods();
+
+        jsonWriter.beginObject(6);
+
+        // 1. className
+        jsonWriter.name("className").value(sootClass.getName());
+
+        // 2. SuperClass
+        jsonWriter.name("superClass").value(sootClass.getSuperclass().getName());
+
+        // 3. Interface implements
+        val implementedInterface = sootUtils.getImplementedInterfacesBy(sootClass);
+
+        jsonWriter.name("implementedInterface").beginArray(implementedInterface.size());
+        for (val interfaceName : implementedInterface) {
+            jsonWriter.value(interfaceName);
+        }
+        jsonWriter.endArray();
+
+        // 4. methodCount
+        jsonWriter.name("methodCount").value(sootClass.getMethodCount());
+
+        // 5. methodsSignature
+        jsonWriter.name("methodsSignature").beginArray(sootMethods.size());
+        for (val sootMethod : sootMethods) {
+            jsonWriter.value(sootMethod.getSignature());
+        }
+        jsonWriter.endArray();
+
+        // 6. methodsInformation
+        jsonWriter.name("methodsInformation").beginObject(sootMethods.size());
+
+        val signatureTable = new SignatureTable();
+        long methodSummariesNanos = 0;
+
+        for (val sootMethod : sootMethods) {
+            Map<String, String> localVariables = Collections.emptyMap();
+            Map<String, String> stackVariables = Collections.emptyMap();
+            MethodInvokeSites invokeSites = null;
+
+            if (sootMethod.hasActiveBody()) {
+                val start = System.nanoTime();
+                val methodSummary = sootUtils.getMethodSummary(sootMethod, signatureTable);
+                methodSummariesNanos += System.nanoTime() - start;
+
+                localVariables = methodSummary.getLocalVariables();
+                stackVariables = methodSummary.getStackVariables();
+                invokeSites = methodSummary.getInvokeSites();
+            }
+
+            jsonWriter.name(sootMethod.getSubSignature()).beginObject(3);
+
+            writeVariables(jsonWriter, "localVariables", localVariables);
+            writeVariables(jsonWriter, "stackVariables", stackVariables);
+
+            val invokeSiteCount = invokeSites == null ? 0 : invokeSites.size();
+
+            jsonWriter.name("invokeExpressions").beginArray(invokeSiteCount);
+            for (int site = 0; site < invokeSiteCount; site++) {
+                jsonWriter.value(signatureTable.getSignature(invokeSites.getInvokedMethodId(site)));
+            }
+            jsonWriter.endArray();
+
+            jsonWriter.endObject();
+        }
+
+        jsonWriter.endObject();
+
+        jsonWriter.endObject();
+        jsonWriter.flush();
+
+        if (runStatistics != null) {
+            runStatistics.addTime(RunStatistics.METHOD_SUMMARIES, methodSummariesNanos);
+        }
+    }
+
+    /**
+     * Writes the given variables and their types as the property with the given name
+     *
+     * @param jsonWriter JSON writer
+     * @param name Property name
+     * @param variables Map of variables and their types
+     * @throws IOException If the writer fails
+     */
+    private static void writeVariables(JsonStreamWriter jsonWriter, String name, Map<String, String> variables) throws IOException {
+        jsonWriter.name(name).beginObject(variables.size());
+
+        for (val variable : variables.entrySet()) {
+            jsonWriter.name(variable.getKey()).value(variable.getValue());
+        }
+
+        jsonWriter.endObject();
+    }
 }
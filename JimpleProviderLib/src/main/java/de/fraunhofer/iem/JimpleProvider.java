@@ -1,14 +1,28 @@
 package de.fraunhofer.iem;
 
 import boomerang.scene.jimple.BoomerangPretransformer;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.val;
 import soot.*;
-import soot.tagkit.LineNumberTag;
-import soot.util.Chain;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Generates the Jimple code and its metrics
@@ -21,6 +35,34 @@ public class JimpleProvider {
     private final static SootUtils sootUtils = new SootUtils();
     private final static FilesUtils filesUtils = new FilesUtils();
     private final List<String> appClasses;
+    @Setter(AccessLevel.PACKAGE)
+    private int workers = 1;
+    @Setter(AccessLevel.PACKAGE)
+    private boolean incremental;
+    private SootMode sootMode = SootMode.FULL;
+    @Setter(AccessLevel.PACKAGE)
+    private InvokeFactsCache invokeFactsCache;
+    private final Map<String, String> classDigests = new ConcurrentHashMap<>();
+    @Setter(AccessLevel.PACKAGE)
+    private ClassPathIndex classPathIndex;
+    private MethodIndex methodIndex;
+    private final Map<String, MethodLineIndex> methodLineIndexes = new ConcurrentHashMap<>();
+    @Setter(AccessLevel.PACKAGE)
+    private int syncBatchSize;
+    @Getter
+    private final SignatureTable signatureTable = new SignatureTable();
+    private CallGraphIndex callGraphIndex;
+    @Setter(AccessLevel.PACKAGE)
+    private File warmStartDir;
+    @Setter(AccessLevel.PACKAGE)
+    private boolean warmStartData;
+    // Looked up by the Soot whenever a class is resolved
+    private final Map<String, File> warmStartJimpleFiles = new ConcurrentHashMap<>();
+    @Setter(AccessLevel.PACKAGE)
+    private int batchSize;
+    private final List<Long> batchPeakHeapUsages = new ArrayList<>();
+    @Getter
+    private final RunStatistics runStatistics = new RunStatistics();
 
     /**
      * Constructor for JimpleProvider
@@ -31,7 +73,8 @@ public class JimpleProvider {
     private JimpleProvider(String appClassPath, PreTransformer preTransformer, List<String> appClasses) {
         this.appClassPath = appClassPath;
         this.preTransformer = preTransformer;
-        this.appClasses = appClasses;
+        // The app classes change when the classes are regenerated
+        this.appClasses = new ArrayList<>(appClasses);
     }
 
     public static JimpleProvider getInstance(String appClassPath, PreTransformer preTransformer, List<String> appClasses) {
@@ -42,16 +85,50 @@ public class JimpleProvider {
      * Generates the Jimple files and respective metrics file
      *
      * @param appClasses List of App classes
-     * @param outDirectory Output directory
-     * @param isReplaceOldJimple Replace the existing Jimple code or not
+     * @param outDirectory Output directory, or zip or tar archive
+     * @param isReplaceOldJimple Replace the existing Jimple code or not, an archive is always replaced
      *
      * @throws IOException If there is some problem with accessing the class files
      */
     public void generate(List<String> appClasses, String outDirectory, boolean isReplaceOldJimple) throws IOException {
+        generate(appClasses, outDirectory, isReplaceOldJimple, incremental);
+    }
+
+    /**
+     * Generates the Jimple files and respective metrics file, incrementally or not regardless of the configured
+     * incremental generation
+     *
+     * @param appClasses List of App classes
+     * @param outDirectory Output directory, or zip or tar archive
+     * @param isReplaceOldJimple Replace the existing Jimple code or not, an archive is always replaced
+     * @param isIncremental Generate only the classes whose bytecode changed since the last generation or not
+     *
+     * @throws IOException If there is some problem with accessing the class files
+     */
+    public void generate(List<String> appClasses, String outDirectory, boolean isReplaceOldJimple,
+                         boolean isIncremental) throws IOException {
+        // An archive is always written as a whole
+        if (OutputSink.isArchive(outDirectory)) {
+            if (isIncremental) {
+                throw new IOException("Incremental generation is not supported for the archive " + outDirectory);
+            }
+
+            try (val outputSink = OutputSink.of(outDirectory, syncBatchSize)) {
+                generate(appClasses, outputSink);
+            }
+
+            return;
+        }
+
         // Generates the output file and generate Jimple
         val outDir = new File(outDirectory);
 
         if (isReplaceOldJimple) {
+            // The Jimple files of the warm start classes are copied from the warm start directory
+            if (warmStartDir != null && outDir.getCanonicalFile().equals(warmStartDir.getCanonicalFile())) {
+                throw new RuntimeException("The warm start directory " + warmStartDir + " cannot be replaced.");
+            }
+
             filesUtils.deleteDirectory(outDir);
         }
 
@@ -59,48 +136,499 @@ public class JimpleProvider {
             throw new IOException("Could not create " + outDir.getAbsolutePath());
         }
 
-        for (String appClass : appClasses) {
-            val outFileAsString = outDir.getAbsolutePath() + File.separator + appClass.replace(".", File.separator) + ".jimple";
-            val metricFileAsString = outDir.getAbsolutePath() + File.separator + appClass.replace(".", File.separator) + ".json";
+        if (isIncremental) {
+            generateIncrementally(appClasses, outDir);
+            return;
+        }
 
-            val outFile = new File(outFileAsString);
-            val metricFile = new File(metricFileAsString);
+        val pendingClasses = new ArrayList<String>();
 
-            if (!isReplaceOldJimple && outFile.exists()) {
+        for (String appClass : appClasses) {
+            if (!isReplaceOldJimple && getOutputFile(outDir, appClass, ".jimple").exists()) {
                 continue;
             }
 
-            System.out.println("Generating Jimple for\t:   " + appClass);
-            SootClass sootClass = Scene.v().getSootClass(appClass);
+            pendingClasses.add(appClass);
+        }
 
+        try (val outputSink = new DirectoryOutputSink(outDir, syncBatchSize)) {
+            generate(pendingClasses, outputSink);
+        }
+    }
 
-            if (isReplaceOldJimple && outFile.exists()) {
-                if (!outFile.delete()) {
-                    throw new IOException("File " + outFile.getAbsolutePath() + " already exist and could not delete it.");
+    /**
+     * Generates the Jimple files and respective metrics file of the given classes into the given output sink, in
+     * parallel if more than one worker is configured. The existing files of the classes are replaced.
+     *
+     * @param appClasses List of App classes
+     * @param outputSink Output sink
+     *
+     * @throws IOException If there is some problem with accessing the class files
+     */
+    public void generate(List<String> appClasses, OutputSink outputSink) throws IOException {
+        generate(appClasses, outputSink, false);
+    }
+
+    /**
+     * Generates the Jimple files and respective metrics file of the given classes into the given output sink, and
+     * optionally their line tables
+     *
+     * @param appClasses List of App classes
+     * @param outputSink Output sink
+     * @param isLineTables Write the line tables of the classes or not
+     *
+     * @throws IOException If there is some problem with accessing the class files
+     */
+    private void generate(List<String> appClasses, OutputSink outputSink, boolean isLineTables) throws IOException {
+        try (val timer = runStatistics.time(RunStatistics.GENERATE)) {
+            if (batchSize > 0) {
+                generateInBatches(appClasses, outputSink, isLineTables);
+            } else {
+                generateClasses(appClasses, outputSink, isLineTables);
+            }
+        }
+    }
+
+    /**
+     * Generates the Jimple files and respective metrics file of the given classes, in parallel if more than one
+     * worker is configured. The files of the warm start classes are copied from the warm start directory.
+     *
+     * @param appClasses List of App classes
+     * @param outputSink Output sink
+     * @param isLineTables Write the line tables of the classes or not
+     *
+     * @throws IOException If there is some problem with accessing the class files
+     */
+    private void generateClasses(List<String> appClasses, OutputSink outputSink, boolean isLineTables)
+            throws IOException {
+        if (workers > 1) {
+            generateInParallel(appClasses, outputSink, isLineTables);
+        } else {
+            for (String appClass : appClasses) {
+                if (warmStartJimpleFiles.containsKey(appClass)) {
+                    copyWarmStartClass(appClass, outputSink, isLineTables);
+                    continue;
                 }
+
+                val sootClass = getSootClass(appClass);
+                generateClass(sootClass, outputSink, retrieveActiveBodies(sootClass), isLineTables);
             }
+        }
+    }
+
+    /**
+     * Generates the Jimple files and respective metrics file in batches of the configured size. The method bodies
+     * retrieved for a batch are released once its files are written, so that the heap does not grow with the number
+     * of classes. The peak heap of every batch is reported.
+     *
+     * @param appClasses List of App classes
+     * @param outputSink Output sink
+     * @param isLineTables Write the line tables of the classes or not
+     *
+     * @throws IOException If there is some problem with accessing the class files
+     */
+    private void generateInBatches(List<String> appClasses, OutputSink outputSink, boolean isLineTables)
+            throws IOException {
+        val batches = (appClasses.size() + batchSize - 1) / batchSize;
+        val heapPools = new ArrayList<MemoryPoolMXBean>();
+
+        for (val memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (memoryPool.getType() == MemoryType.HEAP) {
+                heapPools.add(memoryPool);
+            }
+        }
+
+        batchPeakHeapUsages.clear();
+
+        for (int batch = 0; batch < batches; batch++) {
+            val batchClasses = appClasses.subList(batch * batchSize, Math.min((batch + 1) * batchSize, appClasses.size()));
+            val methodSources = new HashMap<SootMethod, MethodSource>();
+
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+            // The method sources are dropped by Soot once the bodies are retrieved
+            for (val appClass : batchClasses) {
+                // The bodies of the warm start classes are not retrieved
+                if (!warmStartJimpleFiles.containsKey(appClass)) {
+                    methodSources.putAll(sootUtils.getMethodSources(getSootClass(appClass)));
+                }
+            }
+
+            try {
+                generateClasses(batchClasses, outputSink, isLineTables);
+            } finally {
+                sootUtils.releaseBodies(methodSources);
+            }
+
+            long peakHeapUsage = 0;
+
+            for (val heapPool : heapPools) {
+                peakHeapUsage += heapPool.getPeakUsage().getUsed();
+            }
+
+            batchPeakHeapUsages.add(peakHeapUsage);
+
+            System.out.println("Batch " + (batch + 1) + " of " + batches + "\t:   " + batchClasses.size() +
+                    " classes, peak heap " + peakHeapUsage / (1024 * 1024) + " MB");
+        }
+    }
+
+    /**
+     * Generates the Jimple files and respective metrics file only for the classes whose bytecode changed since the
+     * last generation. The outputs of the classes that are removed from the classpath are deleted. The line tables are
+     * written only if the warm start data is requested.
+     *
+     * @param appClasses List of App classes
+     * @param outDir Output directory
+     *
+     * @throws IOException If there is some problem with accessing the class files
+     */
+    private void generateIncrementally(List<String> appClasses, File outDir) throws IOException {
+        val manifest = GenerationManifest.load(outDir);
+        val generationOptions = getGenerationOptions();
+
+        // Classes generated with different options must be generated again
+        if (!manifest.hasOptions(generationOptions)) {
+            manifest.reset(generationOptions);
+        }
+
+        // The app classes may be a selection of the classpath, therefore the classpath decides about removed classes
+        for (val generatedClass : new ArrayList<String>(manifest.getClasses())) {
+            if (!getClassPathIndex().contains(generatedClass)) {
+                System.out.println("Deleting Jimple for\t:   " + generatedClass);
+                deleteOutputFiles(generatedClass, outDir);
+                manifest.removeClass(generatedClass);
+            }
+        }
+
+        val pendingClasses = new ArrayList<String>();
+        val digests = new HashMap<String, String>();
+
+        for (String appClass : appClasses) {
+            val digest = filesUtils.getDigestOf(getClassPathIndex().readClass(appClass));
+            val lineTableFile = getOutputFile(outDir, appClass, JimpleLineTable.EXTENSION);
+
+            // The classes generated without line table are generated again, if the warm start data is requested
+            if (digest.equals(manifest.getDigest(appClass)) && getOutputFile(outDir, appClass, ".jimple").exists()
+                    && (!warmStartData || lineTableFile.exists())) {
+                continue;
+            }
+
+            // The line table of a previous run would not match the generated Jimple code
+            if (!warmStartData && lineTableFile.exists() && !lineTableFile.delete()) {
+                throw new IOException("Could not delete file " + lineTableFile.getAbsolutePath());
+            }
+
+            pendingClasses.add(appClass);
+            digests.put(appClass, digest);
+        }
+
+        System.out.println("Unchanged classes\t:   " + (appClasses.size() - pendingClasses.size()));
+
+        try (val outputSink = new DirectoryOutputSink(outDir, syncBatchSize)) {
+            generate(pendingClasses, outputSink, warmStartData);
+        }
+
+        digests.forEach(manifest::putDigest);
+        manifest.store();
+    }
 
-            if (metricFile.exists()) {
-                if (!metricFile.delete()) {
-                    throw new IOException("File " + metricFile.getAbsolutePath() + " already exist and could not delete it.");
+    /**
+     * Reloads the given changed classes from the app classpath and generates their Jimple files and metrics files
+     * again into the given output directory, e.g. after they were recompiled. The Scene keeps all the other classes,
+     * therefore only the changed classes are resolved again. The changed classes that are no longer in the app
+     * classpath are removed from the Scene and their outputs are deleted. The new classes become app classes.
+     * <p>
+     * Note: The other classes keep referring to the previous version of a reloaded class, e.g. as their super class.
+     *
+     * @param changedClasses Changed classes
+     * @param outDirectory   Output directory
+     * @return Reloaded classes that are still in the app classpath
+     * @throws IOException If there is some problem with accessing the class files
+     */
+    public List<String> regenerate(Collection<String> changedClasses, String outDirectory) throws IOException {
+        // The pre-transformer has transformed the bodies of the whole program
+        if (preTransformer != PreTransformer.NONE) {
+            throw new RuntimeException("Reloading the classes is not supported by the pre-transformer.");
+        }
+
+        if (OutputSink.isArchive(outDirectory)) {
+            throw new IOException("Regeneration is not supported for the archive " + outDirectory);
+        }
+
+        val outDir = new File(outDirectory);
+
+        if (!outDir.exists() && !outDir.mkdirs()) {
+            throw new IOException("Could not create " + outDir.getAbsolutePath());
+        }
+
+        val reloadedClasses = new ArrayList<String>();
+
+        try (val timer = runStatistics.time(RunStatistics.RELOAD_CLASSES)) {
+            getClassPathIndex().refresh(changedClasses);
+
+            for (val changedClass : changedClasses) {
+                classDigests.remove(changedClass);
+                methodLineIndexes.remove(changedClass);
+                // A changed class is read from its bytecode
+                warmStartJimpleFiles.remove(changedClass);
+
+                if (getClassPathIndex().contains(changedClass)) {
+                    // The lazy Soot resolves the bodies when the class is generated
+                    sootUtils.reloadClass(changedClass, sootMode == SootMode.LAZY ? SootClass.SIGNATURES : SootClass.BODIES);
+                    reloadedClasses.add(changedClass);
+
+                    if (!appClasses.contains(changedClass)) {
+                        appClasses.add(changedClass);
+                    }
+                } else {
+                    System.out.println("Deleting Jimple for\t:   " + changedClass);
+                    sootUtils.removeClass(changedClass);
+                    appClasses.remove(changedClass);
+                    deleteOutputFiles(changedClass, outDir);
                 }
+
+                methodIndex.reindex(changedClass);
             }
 
-            if (!filesUtils.recursivelyCreateDirectory(outDir.getAbsolutePath(), appClass)) {
-                throw new IOException("Could not create directory for " + outFileAsString);
+            callGraphIndex = null;
+        }
+
+        if (incremental) {
+            generateIncrementally(reloadedClasses, outDir);
+        } else {
+            try (val outputSink = new DirectoryOutputSink(outDir, syncBatchSize)) {
+                generate(reloadedClasses, outputSink);
             }
+        }
 
-            if (!outFile.createNewFile()) {
-                throw new IOException("Could not create file " + outFileAsString);
+        return reloadedClasses;
+    }
+
+    /**
+     * Returns the options that influence the generated Jimple code
+     *
+     * @return Map of option name and its value
+     */
+    private Map<String, String> getGenerationOptions() {
+        val generationOptions = new HashMap<String, String>();
+
+        generationOptions.put("preTransformer", preTransformer.name());
+        // The lazy Soot generates the same Jimple code as the minimal Soot
+        generationOptions.put("minimalSoot", String.valueOf(sootMode != SootMode.FULL));
+
+        return generationOptions;
+    }
+
+    /**
+     * Generates the Jimple files and respective metrics file using the configured number of workers. All the active
+     * bodies are retrieved upfront because retrieving them modifies the Scene, which is not thread-safe.
+     *
+     * @param appClasses List of App classes
+     * @param outputSink Output sink
+     * @param isLineTables Write the line tables of the classes or not
+     *
+     * @throws IOException If there is some problem with accessing the class files
+     */
+    private void generateInParallel(List<String> appClasses, OutputSink outputSink, boolean isLineTables)
+            throws IOException {
+        val sootClasses = new ArrayList<SootClass>();
+        val retrievalNanos = new long[appClasses.size()];
+
+        for (String appClass : appClasses) {
+            if (warmStartJimpleFiles.containsKey(appClass)) {
+                copyWarmStartClass(appClass, outputSink, isLineTables);
+                continue;
             }
 
-            sootUtils.flushSootClassToFile(outFile, sootClass);
+            val sootClass = getSootClass(appClass);
+            retrievalNanos[sootClasses.size()] = retrieveActiveBodies(sootClass);
+            sootClasses.add(sootClass);
+        }
+
+        val executor = Executors.newFixedThreadPool(workers);
+
+        try {
+            val futures = new ArrayList<Future<?>>();
+
+            for (int i = 0; i < sootClasses.size(); i++) {
+                val sootClass = sootClasses.get(i);
+                val classRetrievalNanos = retrievalNanos[i];
+
+                futures.add(executor.submit(() -> {
+                    generateClass(sootClass, outputSink, classRetrievalNanos, isLineTables);
+                    return null;
+                }));
+            }
+
+            for (val future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating the Jimple code", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
 
-            val metric = JimpleMetricsGenerator.generateMetric(sootClass);
-            filesUtils.flushStringToFile(metricFile, metric.toString(4));
+            throw new IOException("Could not generate the Jimple code", ex.getCause());
+        } finally {
+            executor.shutdownNow();
         }
     }
 
+    /**
+     * Retrieves the active bodies of the given class and records the time and the number of retrieved bodies
+     *
+     * @param sootClass Soot class
+     * @return Elapsed time in nanoseconds
+     */
+    private long retrieveActiveBodies(SootClass sootClass) {
+        val start = System.nanoTime();
+        val retrievedBodies = sootUtils.retrieveActiveBodies(sootClass);
+        val nanos = System.nanoTime() - start;
+
+        runStatistics.addTime(RunStatistics.RETRIEVE_BODIES, nanos);
+        runStatistics.increment(RunStatistics.BODIES_RETRIEVED, retrievedBodies);
+
+        return nanos;
+    }
+
+    /**
+     * Generates the Jimple file and respective metrics file for the given class, and optionally its line table
+     *
+     * @param sootClass Soot class
+     * @param outputSink Output sink
+     * @param retrievalNanos Time spent in retrieving the bodies of the class, which is part of its generation time
+     * @param isLineTables Write the line table of the class or not
+     *
+     * @throws IOException If there is some problem with accessing the class files
+     */
+    private void generateClass(SootClass sootClass, OutputSink outputSink, long retrievalNanos, boolean isLineTables)
+            throws IOException {
+        val start = System.nanoTime();
+        val appClass = sootClass.getName();
+        val path = appClass.replace('.', '/');
+
+        System.out.println("Generating Jimple for\t:   " + appClass);
+
+        long bytesWritten;
+
+        try (val timer = runStatistics.time(RunStatistics.PRINT_JIMPLE)) {
+            bytesWritten = outputSink.write(path + ".jimple", writer -> sootUtils.printSootClass(sootClass, writer));
+        }
+
+        try (val timer = runStatistics.time(RunStatistics.WRITE_METRICS)) {
+            bytesWritten += outputSink.write(path + ".json", writer -> {
+                JimpleMetricsGenerator.writeMetric(sootClass, writer, runStatistics);
+                writer.println();
+            });
+        }
+
+        if (isLineTables) {
+            bytesWritten += outputSink.write(path + JimpleLineTable.EXTENSION,
+                    writer -> JimpleLineTable.write(sootClass, writer));
+        }
+
+        runStatistics.increment(RunStatistics.CLASSES_GENERATED, 1);
+        runStatistics.increment(RunStatistics.FILES_WRITTEN, isLineTables ? 3 : 2);
+        runStatistics.increment(RunStatistics.BYTES_WRITTEN, bytesWritten);
+        runStatistics.addClassTime(appClass, retrievalNanos + System.nanoTime() - start);
+    }
+
+    /**
+     * Copies the Jimple file and respective metrics file of the given warm start class from the warm start directory,
+     * and optionally its line table. The bytecode of the class did not change since the files were generated, therefore
+     * they are the same as the generated ones.
+     *
+     * @param appClass Warm start class
+     * @param outputSink Output sink
+     * @param isLineTables Copy the line table of the class or not
+     *
+     * @throws IOException If the files could not be copied
+     */
+    private void copyWarmStartClass(String appClass, OutputSink outputSink, boolean isLineTables) throws IOException {
+        val start = System.nanoTime();
+        val path = appClass.replace('.', '/');
+        val extensions = isLineTables
+                ? Arrays.asList(".jimple", ".json", JimpleLineTable.EXTENSION)
+                : Arrays.asList(".jimple", ".json");
+
+        System.out.println("Copying Jimple for\t:   " + appClass);
+
+        long bytesWritten = 0;
+
+        for (val extension : extensions) {
+            // The file is read before it is written, as the output directory may be the warm start directory
+            val content = new String(Files.readAllBytes(getOutputFile(warmStartDir, appClass, extension).toPath()),
+                    StandardCharsets.UTF_8);
+            bytesWritten += outputSink.write(path + extension, writer -> writer.print(content));
+        }
+
+        runStatistics.increment(RunStatistics.CLASSES_COPIED, 1);
+        runStatistics.increment(RunStatistics.FILES_WRITTEN, extensions.size());
+        runStatistics.increment(RunStatistics.BYTES_WRITTEN, bytesWritten);
+        runStatistics.addClassTime(appClass, System.nanoTime() - start);
+    }
+
+    /**
+     * Deletes the Jimple file, respective metrics file and line table of the given class
+     *
+     * @param appClass App class
+     * @param outDir Output directory
+     *
+     * @throws IOException If the files could not be deleted
+     */
+    private void deleteOutputFiles(String appClass, File outDir) throws IOException {
+        for (val outFile : Arrays.asList(getOutputFile(outDir, appClass, ".jimple"),
+                getOutputFile(outDir, appClass, ".json"), getOutputFile(outDir, appClass, JimpleLineTable.EXTENSION))) {
+            if (outFile.exists() && !outFile.delete()) {
+                throw new IOException("Could not delete file " + outFile.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Returns the peak heap usage in bytes of every batch of the last batched generation. It is the sum of the peak
+     * usages of the heap memory pools while the batch was generated.
+     *
+     * @return List of peak heap usages in the order of the batches
+     */
+    public List<Long> getBatchPeakHeapUsages() {
+        return Collections.unmodifiableList(batchPeakHeapUsages);
+    }
+
+    /**
+     * Returns the index of the classes in the app classpath
+     *
+     * @return ClassPathIndex
+     * @throws IOException If the app classpath could not be read
+     */
+    private synchronized ClassPathIndex getClassPathIndex() throws IOException {
+        if (classPathIndex == null) {
+            classPathIndex = ClassPathIndex.of(appClassPath);
+        }
+
+        return classPathIndex;
+    }
+
+    /**
+     * Returns the output file of the given class with the given extension
+     *
+     * @param outDir Output directory
+     * @param appClass App class
+     * @param extension File extension
+     * @return Output file
+     */
+    private File getOutputFile(File outDir, String appClass, String extension) {
+        return new File(outDir.getAbsolutePath() + File.separator + appClass.replace(".", File.separator) + extension);
+    }
+
     /**
      * Generates the Jimple files and respective metrics file
      *
@@ -113,12 +641,85 @@ public class JimpleProvider {
         generate(appClasses, outDirectory, isReplaceOldJimple);
     }
 
+    /**
+     * Generates the Jimple files and respective metrics file, incrementally or not regardless of the configured
+     * incremental generation
+     *
+     * @param outDirectory Output directory
+     * @param isReplaceOldJimple Replace the existing Jimple code or not
+     * @param isIncremental Generate only the classes whose bytecode changed since the last generation or not
+     *
+     * @throws IOException If there is some problem with accessing the class files
+     */
+    public void generate(String outDirectory, boolean isReplaceOldJimple, boolean isIncremental) throws IOException {
+        generate(appClasses, outDirectory, isReplaceOldJimple, isIncremental);
+    }
+
     public List<InvokeExpressionToLineNumber> getAllInvokedMethodSignature(String appClass, String method) {
-        val sootClass = Scene.v().getSootClass(appClass);
+        // Classes outside the app classes are not indexed
+        if (methodIndex == null || !methodIndex.contains(appClass)) {
+            return sootUtils.getAllInvokedMethodSignatures(getSootClass(appClass), method);
+        }
 
-        val allInvokedMethodSignatures = sootUtils.getAllInvokedMethodSignatures(sootClass, method);
+        val invokeSites = getInvokeSites(appClass, method);
 
-        return allInvokedMethodSignatures;
+        return invokeSites == null ? Collections.emptyList() : invokeSites.asList(signatureTable);
+    }
+
+    /**
+     * Returns the invoke sites of the given method of the given app class as int records. The signature ids refer to
+     * the signature table of this JimpleProvider.
+     *
+     * @param appClass App class
+     * @param method   Method signature or sub-signature
+     * @return Invoke sites or null if the method is not present in the app classes
+     */
+    public MethodInvokeSites getInvokeSites(String appClass, String method) {
+        if (methodIndex == null || !methodIndex.contains(appClass)) {
+            return null;
+        }
+
+        val sootMethod = methodIndex.getMethod(appClass, method);
+
+        if (sootMethod == null) {
+            return null;
+        }
+
+        if (invokeFactsCache == null) {
+            // In the lazy Soot mode, the bodies of the class are resolved first
+            getSootClass(appClass);
+            return sootUtils.getInvokeSites(sootMethod, signatureTable);
+        }
+
+        val methodId = signatureTable.intern(sootMethod.getSignature());
+
+        for (val methodInvokeSites : getInvokeFacts(appClass)) {
+            if (methodInvokeSites.getMethodId() == methodId) {
+                return methodInvokeSites;
+            }
+        }
+
+        return new MethodInvokeSites(methodId, new int[0]);
+    }
+
+    /**
+     * Returns the invoke sites of all the methods of the given app class as int records. The signature ids refer to
+     * the signature table of this JimpleProvider.
+     *
+     * @param appClass App class
+     * @return Invoke sites in the order of the methods
+     */
+    public List<MethodInvokeSites> getInvokeSites(String appClass) {
+        return Collections.unmodifiableList(getInvokeFacts(appClass));
+    }
+
+    /**
+     * Returns the names of the app classes
+     *
+     * @return List of classes name
+     */
+    public List<String> getAppClasses() {
+        return Collections.unmodifiableList(appClasses);
     }
 
     public List<SootClass> getAllApplicationClasses() {
@@ -133,127 +734,372 @@ public class JimpleProvider {
         return appClassesAsSootClass;
     }
 
-    private int getLastLineNumber(Chain<Unit> units, Unit unit) {
-        if (unit.getJavaSourceStartLineNumber() != -1)
-            return unit.getJavaSourceStartLineNumber();
+    /**
+     * Returns the Soot class of the given app class. In the lazy Soot mode, the bodies of the class are resolved first.
+     *
+     * @param appClass App class
+     * @return Soot class
+     */
+    private SootClass getSootClass(String appClass) {
+        if (sootMode == SootMode.LAZY) {
+            // Only the first resolution of the bodies is recorded
+            if (Scene.v().containsClass(appClass) && Scene.v().getSootClass(appClass).resolvingLevel() >= SootClass.BODIES) {
+                return Scene.v().getSootClass(appClass);
+            }
 
-        return getLastLineNumber(units, units.getPredOf(unit));
+            try (val timer = runStatistics.time(RunStatistics.RESOLVE_BODIES)) {
+                return sootUtils.resolveBodies(appClass);
+            }
+        }
+
+        return Scene.v().getSootClass(appClass);
     }
 
-    private static int getLastLineNumberOfMethod(SootMethod method) {
-        if (!method.hasActiveBody()) {
-            method.retrieveActiveBody();
+    /**
+     * Returns the signature of the method containing the given line number in the given source file
+     *
+     * @param fileName   Source file name relative to the project, e.g. src/main/java/de/fraunhofer/iem/App.java
+     * @param lineNumber Line number
+     * @return Method signature or null if no method contains the given line number
+     */
+    public String findMethodContainingLineNumber(String fileName, int lineNumber) {
+        return getMethodLineIndex(getClassName(fileName)).findMethod(lineNumber);
+    }
+
+    /**
+     * Returns the signatures of the methods containing the given source line numbers. Every class is indexed once,
+     * so this is the preferred way to look up many line numbers.
+     *
+     * @param sourceLineNumbers Source file names and line numbers
+     * @return Method signatures in the order of the given source line numbers, null if no method contains the line
+     */
+    public List<String> findMethodsContainingLineNumbers(List<SourceLineNumber> sourceLineNumbers) {
+        val methodSignatures = new ArrayList<String>(sourceLineNumbers.size());
+
+        for (val sourceLineNumber : sourceLineNumbers) {
+            methodSignatures.add(findMethodContainingLineNumber(
+                    sourceLineNumber.getFileName(), sourceLineNumber.getLineNumber()));
         }
 
-        Body body = method.getActiveBody();
-        int lastLineNumber = -1;
+        return methodSignatures;
+    }
 
-        for (Unit unit : body.getUnits()) {
-            LineNumberTag tag = (LineNumberTag) unit.getTag("LineNumberTag");
-            if (tag != null) {
-                int line = tag.getLineNumber();
-                if (line > lastLineNumber) {
-                    lastLineNumber = line;
-                }
-            }
+    /**
+     * Returns the method line index of the given class. It is built on the first lookup in the class.
+     *
+     * @param className Class name
+     * @return Method line index
+     */
+    private MethodLineIndex getMethodLineIndex(String className) {
+        MethodLineIndex methodLineIndex = methodLineIndexes.get(className);
+
+        if (methodLineIndex == null) {
+            methodLineIndex = MethodLineIndex.of(sootUtils.resolveBodies(className));
+            methodLineIndexes.put(className, methodLineIndex);
         }
 
-        return lastLineNumber;
+        return methodLineIndex;
     }
 
-    public String findMethodContainingLineNumber(String fileName, int lineNumber) {
-        val className = fileName
+    private static String getClassName(String fileName) {
+        return fileName
                 .replace("src/main/java/", "")
                 .replace("src\\main\\java\\", "")
                 .replace("/", ".")
                 .replace("\\", ".")
                 .replace(".java", "");
+    }
 
-        val sc = Scene.v().forceResolve(className, SootClass.BODIES);
+    public HashMap<String, List<InvokeExpressionToLineNumber>> getAllInvokedMethodUsages(String rootPackageName) {
+        return streamInvokedMethodUsages(rootPackageName, false).collect(Collectors.groupingBy(
+                InvokeExpressionToLineNumber::getInvokedMethodSignature, HashMap::new, Collectors.toList()));
+    }
 
-        // Iterate over each method in the class
-        for (SootMethod method : sc.getMethods()) {
-            // Check if the method has an active body (non-abstract method)
-            try {
-                Body body = method.retrieveActiveBody();
-                Chain<Unit> units = body.getUnits();
+    /**
+     * Returns the invoke expressions in the classes of the given root package as lazily evaluated stream. The classes
+     * are visited one by one while the stream is consumed, so that only the invoke sites of one class are materialized
+     * at a time.
+     * <p>
+     * Note: The stream must be consumed sequentially, as Soot is not thread-safe.
+     *
+     * @param rootPackageName Root package name
+     * @param isReleaseBodies Release the method bodies retrieved for a class after it is visited or not. The bodies
+     *                        retrieved before, e.g. by the Boomerang pre-transformer, are kept.
+     * @return Stream of invoke expressions in the order of the app classes and their methods
+     */
+    public Stream<InvokeExpressionToLineNumber> streamInvokedMethodUsages(String rootPackageName, boolean isReleaseBodies) {
+        return streamInvokeFacts(rootPackageName, isReleaseBodies)
+                .flatMap(methodInvokeSites -> methodInvokeSites.asList(signatureTable).stream());
+    }
+
+    /**
+     * Returns all the invoke sites in the classes of the given root package as columnar table. Unlike
+     * {@link #getAllInvokedMethodUsages(String)}, every signature is stored once, and the invoke expressions of a
+     * class are released as soon as they are added to the table.
+     *
+     * @param rootPackageName Root package name
+     * @return Invoke site table in the order of the app classes and their methods
+     */
+    public InvokeSiteTable getAllInvokeSites(String rootPackageName) {
+        val builder = new InvokeSiteTable.Builder();
 
-                val firstUnitLineNumber = method.getJavaSourceStartLineNumber();
-                val lastUnitLineNumber = getLastLineNumberOfMethod(method); //getLastLineNumber(units, units.getLast());
+        for (val appClass : appClasses) {
+            if (Scene.v().getSootClass(appClass).getPackageName().startsWith(rootPackageName)) {
+                for (val methodInvokeSites : getInvokeFacts(appClass)) {
+                    val invokedInMethod = signatureTable.getSignature(methodInvokeSites.getMethodId());
 
-                if (lineNumber >= firstUnitLineNumber && lineNumber <= lastUnitLineNumber)
-                    return method.getSignature();
-            } catch (RuntimeException ex) {
-                System.err.println("Could not get active body: " + method);
-                return null;
+                    for (int site = 0; site < methodInvokeSites.size(); site++) {
+                        builder.add(signatureTable.getSignature(methodInvokeSites.getInvokedMethodId(site)),
+                                invokedInMethod, methodInvokeSites.getLineNumber(site));
+                    }
+                }
             }
         }
 
-        return null; // No method contains the given line number
+        return builder.build();
     }
 
-    public HashMap<String, List<InvokeExpressionToLineNumber>> getAllInvokedMethodUsages(String rootPackageName) {
-        HashMap<String, List<InvokeExpressionToLineNumber>> usages = new HashMap<>();
+    public Set<String> getAllInvokedMethodSignature(String rootPackageName) {
+        return streamInvokedMethodSignatures(rootPackageName, false).collect(Collectors.toCollection(HashSet::new));
+    }
 
-        for (val appClass : appClasses) {
-            val sootClass = Scene.v().getSootClass(appClass);
-
-            if (sootClass.getPackageName().startsWith(rootPackageName)) {
-                for (val sootMethod : sootClass.getMethods()) {
-                    val allInvokedMethodSignatures = sootUtils.getAllInvokedMethodSignatures(sootClass, sootMethod.getSignature());
-
-                    for (val invokeExpr : allInvokedMethodSignatures) {
-                        if (usages.containsKey(invokeExpr.invokedMethodSignature)) {
-                            usages.get(invokeExpr.invokedMethodSignature).add(invokeExpr);
-                        } else {
-                            usages.put(invokeExpr.invokedMethodSignature, new ArrayList<>(Collections.singletonList(invokeExpr)));
-                        }
-                    }
-                }
+    /**
+     * Returns the distinct signatures of the methods invoked in the classes of the given root package as lazily
+     * evaluated stream. The signatures are deduplicated by their id in the signature table instead of a set of
+     * strings.
+     * <p>
+     * Note: The stream must be consumed sequentially, as Soot is not thread-safe.
+     *
+     * @param rootPackageName Root package name
+     * @param isReleaseBodies Release the method bodies retrieved for a class after it is visited or not
+     * @return Stream of method signatures in the order of their first invocation
+     */
+    public Stream<String> streamInvokedMethodSignatures(String rootPackageName, boolean isReleaseBodies) {
+        return streamInvokeFacts(rootPackageName, isReleaseBodies)
+                .flatMapToInt(JimpleProvider::getInvokedMethodIds)
+                .filter(isFirstOccurrence())
+                .mapToObj(signatureTable::getSignature);
+    }
+
+    public Set<String> getAllMethodSignature() {
+        return streamMethodSignatures(false).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    /**
+     * Returns the distinct signatures of the methods in the app classes and the methods invoked in them as lazily
+     * evaluated stream.
+     * <p>
+     * Note: The stream must be consumed sequentially, as Soot is not thread-safe.
+     *
+     * @param isReleaseBodies Release the method bodies retrieved for a class after it is visited or not
+     * @return Stream of method signatures in the order of their first occurrence
+     */
+    public Stream<String> streamMethodSignatures(boolean isReleaseBodies) {
+        return streamInvokeFacts("", isReleaseBodies)
+                .flatMapToInt(methodInvokeSites -> IntStream.concat(
+                        IntStream.of(methodInvokeSites.getMethodId()), getInvokedMethodIds(methodInvokeSites)))
+                .filter(isFirstOccurrence())
+                .mapToObj(signatureTable::getSignature);
+    }
+
+    /**
+     * Returns a stateful filter that accepts every signature id only once. The visited ids are kept as bits instead
+     * of a set of signatures.
+     *
+     * @return Filter of signature ids
+     */
+    private static IntPredicate isFirstOccurrence() {
+        val visitedIds = new BitSet();
+
+        return id -> {
+            if (visitedIds.get(id)) {
+                return false;
             }
+
+            visitedIds.set(id);
+            return true;
+        };
+    }
+
+    /**
+     * Returns the ids of the methods invoked at the given invoke sites
+     *
+     * @param methodInvokeSites Invoke sites of a method
+     * @return Stream of signature ids
+     */
+    private static IntStream getInvokedMethodIds(MethodInvokeSites methodInvokeSites) {
+        return IntStream.range(0, methodInvokeSites.size()).map(methodInvokeSites::getInvokedMethodId);
+    }
+
+    /**
+     * Returns the invoke sites of the methods in the classes of the given root package as lazily evaluated stream
+     *
+     * @param rootPackageName Root package name
+     * @param isReleaseBodies Release the method bodies retrieved for a class after it is visited or not
+     * @return Stream of invoke sites in the order of the app classes and their methods
+     */
+    private Stream<MethodInvokeSites> streamInvokeFacts(String rootPackageName, boolean isReleaseBodies) {
+        return appClasses.stream()
+                .filter(appClass -> Scene.v().getSootClass(appClass).getPackageName().startsWith(rootPackageName))
+                .flatMap(appClass -> getInvokeFacts(appClass, isReleaseBodies).stream());
+    }
+
+    /**
+     * Returns the invoke sites of all the methods of the given class and optionally releases the bodies that are
+     * retrieved for them
+     *
+     * @param appClass App class
+     * @param isReleaseBodies Release the retrieved method bodies or not
+     * @return Invoke sites of the methods in their order
+     */
+    private List<MethodInvokeSites> getInvokeFacts(String appClass, boolean isReleaseBodies) {
+        if (!isReleaseBodies) {
+            return getInvokeFacts(appClass);
         }
 
-        return usages;
+        val methodSources = sootUtils.getMethodSources(getSootClass(appClass));
+
+        try {
+            return getInvokeFacts(appClass);
+        } finally {
+            sootUtils.releaseBodies(methodSources);
+        }
     }
 
-    public Set<String> getAllInvokedMethodSignature(String rootPackageName) {
-        val allMethodSignature = new HashSet<String>();
+    /**
+     * Returns the invoke sites of all the methods of the given class. If the invoke facts cache is set, then
+     * the invoke sites of the unchanged classes are answered from the cache without retrieving any body. The invoked
+     * methods are resolved in the class hierarchy, therefore an entry is only used as long as the classes it was
+     * resolved in did not change either.
+     *
+     * @param appClass App class
+     * @return Invoke sites of the methods in their order
+     */
+    private List<MethodInvokeSites> getInvokeFacts(String appClass) {
+        if (invokeFactsCache == null) {
+            return computeInvokeFacts(appClass);
+        }
 
-        for (val appClass : appClasses) {
-            val sootClass = Scene.v().getSootClass(appClass);
+        val digest = getDigest(appClass);
 
-            if (sootClass.getPackageName().startsWith(rootPackageName)) {
-                for (val sootMethod : sootClass.getMethods()) {
-                    val allInvokedMethodSignatures = sootUtils.getAllInvokedMethodSignatures(sootClass, sootMethod.getSignature());
+        if (digest == null) {
+            return computeInvokeFacts(appClass);
+        }
+
+        // The pre-transformer changes the bodies, therefore it is part of the key
+        val key = digest + "-" + preTransformer.name();
+        val cachedInvokeFacts = invokeFactsCache.get(key, this::getDigest);
+
+        if (cachedInvokeFacts != null) {
+            return cachedInvokeFacts;
+        }
+
+        val invokeFacts = computeInvokeFacts(appClass);
+
+        // The cache is keyed by the bytecode, therefore only the facts computed from the bytecode are stored
+        if (!warmStartJimpleFiles.containsKey(appClass)) {
+            val resolutionDigests = new TreeMap<String, String>();
+
+            for (val sootMethod : getSootClass(appClass).getMethods()) {
+                for (val resolutionClass : sootUtils.getInvokeResolutionClasses(sootMethod)) {
+                    val resolutionDigest = getDigest(resolutionClass);
 
-                    allInvokedMethodSignatures.stream()
-                            .map(InvokeExpressionToLineNumber::getInvokedMethodSignature)
-                            .forEach(allMethodSignature::add);
+                    // The classes outside the classpath, e.g. of the JDK, are not tracked
+                    if (resolutionDigest != null) {
+                        resolutionDigests.put(resolutionClass, resolutionDigest);
+                    }
                 }
             }
+
+            invokeFactsCache.put(key, invokeFacts, resolutionDigests);
         }
 
-        return allMethodSignature;
+        return invokeFacts;
     }
 
-    public Set<String> getAllMethodSignature() {
-        val allMethodSignature = new HashSet<String>();
+    /**
+     * Returns the digest of the bytecode of the given class
+     *
+     * @param className Class name
+     * @return Digest or null if the class is not in the classpath or could not be read
+     */
+    private String getDigest(String className) {
+        String digest = classDigests.get(className);
 
-        for (val appClass : appClasses) {
-            val sootClass = Scene.v().getSootClass(appClass);
+        if (digest != null) {
+            return digest;
+        }
+
+        try {
+            if (!getClassPathIndex().contains(className)) {
+                return null;
+            }
+
+            digest = filesUtils.getDigestOf(getClassPathIndex().readClass(className));
+        } catch (IOException ex) {
+            System.err.println("Could not compute the digest of " + className + ": " + ex.getMessage());
+            return null;
+        }
+
+        classDigests.put(className, digest);
+
+        return digest;
+    }
+
+    /**
+     * Computes the invoke sites of all the methods of the given class from their bodies
+     *
+     * @param appClass App class
+     * @return Invoke sites of the methods in their order
+     */
+    private List<MethodInvokeSites> computeInvokeFacts(String appClass) {
+        val invokeFacts = new ArrayList<MethodInvokeSites>();
+        val sootClass = getSootClass(appClass);
 
+        try (val timer = runStatistics.time(RunStatistics.INVOKE_FACTS)) {
             for (val sootMethod : sootClass.getMethods()) {
-                allMethodSignature.add(sootMethod.getSignature());
+                val isRetrieved = sootMethod.hasActiveBody();
+                invokeFacts.add(sootUtils.getInvokeSites(sootMethod, signatureTable));
+
+                if (!isRetrieved && sootMethod.hasActiveBody()) {
+                    runStatistics.increment(RunStatistics.BODIES_RETRIEVED, 1);
+                }
+            }
+        }
+
+        return invokeFacts;
+    }
+
+    /**
+     * Returns the index of the call graph of the app classes. The call graph built by the Boomerang pre-transformer
+     * is reused. Otherwise, the call graph is built on the first call by class hierarchy analysis of the bodies of the
+     * app classes only, so that the library methods are leaves of the call graph.
+     *
+     * @return Call graph index
+     */
+    public synchronized CallGraphIndex getCallGraph() {
+        if (callGraphIndex != null) {
+            return callGraphIndex;
+        }
+
+        try (val timer = runStatistics.time(RunStatistics.CALL_GRAPH)) {
+            if (Scene.v().hasCallGraph()) {
+                callGraphIndex = CallGraphIndex.of(Scene.v().getCallGraph(), signatureTable, appClasses);
+                return callGraphIndex;
+            }
 
-                val allInvokedMethodSignatures = sootUtils.getAllInvokedMethodSignatures(sootClass, sootMethod.getSignature());
+            val builder = new CallGraphIndex.Builder(signatureTable, appClasses);
 
-                allInvokedMethodSignatures.stream()
-                        .map(InvokeExpressionToLineNumber::getInvokedMethodSignature)
-                        .forEach(allMethodSignature::add);
+            for (val appClass : appClasses) {
+                for (val sootMethod : getSootClass(appClass).getMethods()) {
+                    sootUtils.addCallEdges(sootMethod, builder);
+                }
             }
+
+            callGraphIndex = builder.build();
         }
 
-        return allMethodSignature;
+        return callGraphIndex;
     }
 
     /**
@@ -261,21 +1107,95 @@ public class JimpleProvider {
      *
      */
     public void preTasks(boolean isMinimalSoot) {
-        if (isMinimalSoot) {
-            System.out.println("Minimal Soot");
-            sootUtils.initializeMinimalSoot(appClassPath, appClasses);
-        } else {
-            System.out.println("Full Soot");
-            sootUtils.initializeSoot(appClassPath, appClasses);
+        preTasks(isMinimalSoot ? SootMode.MINIMAL : SootMode.FULL);
+    }
+
+    /**
+     * Pre tasks such as initializing soot in the given mode, applying the pre-transformer
+     *
+     * @param sootMode Soot mode
+     */
+    public void preTasks(SootMode sootMode) {
+        this.sootMode = sootMode;
+
+        if (warmStartDir != null) {
+            try (val timer = runStatistics.time(RunStatistics.WARM_START)) {
+                findWarmStartJimpleFiles();
+            }
+
+            System.out.println("Warm start      \t:   " + warmStartJimpleFiles.size() + " of " + appClasses.size() +
+                    " classes from " + warmStartDir);
+        }
+
+        try (val timer = runStatistics.time(RunStatistics.INITIALIZE_SOOT)) {
+            if (sootMode == SootMode.LAZY) {
+                System.out.println("Lazy Soot");
+                sootUtils.initializeLazySoot(appClassPath, appClasses, warmStartJimpleFiles);
+            } else if (sootMode == SootMode.MINIMAL) {
+                System.out.println("Minimal Soot");
+                sootUtils.initializeMinimalSoot(appClassPath, appClasses, warmStartJimpleFiles);
+            } else {
+                System.out.println("Full Soot");
+                sootUtils.initializeSoot(appClassPath, appClasses, warmStartJimpleFiles);
+            }
         }
 
         // Set the pre-transformer
         // TODO: In future, if needed to extend the more transformer add the functionality here
         if (preTransformer == PreTransformer.BOOMERANG) {
-            sootUtils.applyBoomerangTransformer();
+            // The Jimple code of the warm start was generated with the pre-transformer
+            sootUtils.applyBoomerangTransformer(runStatistics, new HashSet<>(warmStartJimpleFiles.keySet()));
+        }
+
+        methodIndex = MethodIndex.of(appClasses);
+    }
+
+    /**
+     * Finds the Jimple files in the warm start directory of the app classes whose bytecode did not change since they
+     * were generated. The warm start directory must have been generated incrementally with the same options, so that
+     * its manifest contains the digests of the bytecode and the classes have line tables. Otherwise, all the classes
+     * are read from their bytecode.
+     */
+    private void findWarmStartJimpleFiles() {
+        try {
+            val manifest = GenerationManifest.load(warmStartDir);
+
+            if (!manifest.hasOptions(getGenerationOptions())) {
+                System.out.println("No incremental generation with the same options in " + warmStartDir);
+                return;
+            }
+
+            for (val appClass : appClasses) {
+                val generatedDigest = manifest.getDigest(appClass);
+                val jimpleFile = getOutputFile(warmStartDir, appClass, ".jimple");
+
+                if (generatedDigest == null || !jimpleFile.isFile() || !JimpleLineTable.getFile(jimpleFile).isFile()) {
+                    continue;
+                }
+
+                val digest = filesUtils.getDigestOf(getClassPathIndex().readClass(appClass));
+                classDigests.put(appClass, digest);
+
+                if (digest.equals(generatedDigest)) {
+                    warmStartJimpleFiles.put(appClass, jimpleFile);
+                }
+            }
+        } catch (IOException ex) {
+            System.err.println("Could not read the warm start directory " + warmStartDir + ": " + ex.getMessage());
+            warmStartJimpleFiles.clear();
         }
     }
 
+    /**
+     * Returns the app classes that are read from the Jimple code of the warm start directory instead of their bytecode.
+     * The line numbers of their bodies are read from their line tables.
+     *
+     * @return Set of classes name
+     */
+    public Set<String> getWarmStartClasses() {
+        return Collections.unmodifiableSet(warmStartJimpleFiles.keySet());
+    }
+
     /**
      * Post tasks: resetting the pre-transformer
      */
@@ -285,5 +1205,13 @@ public class JimpleProvider {
         if (preTransformer == PreTransformer.BOOMERANG) {
             BoomerangPretransformer.v().reset();
         }
+
+        if (classPathIndex != null) {
+            try {
+                classPathIndex.close();
+            } catch (IOException ex) {
+                System.err.println("Could not close the app classpath: " + ex.getMessage());
+            }
+        }
     }
 }
@@ -2,16 +2,32 @@ package de.fraunhofer.iem;
 
 import lombok.val;
 
+import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.*;
 
 public class JimpleProviderBuilder {
     private String jpAppClassPath;
     private PreTransformer jpPreTransformer;
+    private int jpWorkers = 1;
+    private boolean jpIncremental;
+    private String jpInvokeFactsCacheDir;
+    private int jpSyncBatchSize;
+    private int jpBatchSize;
+    private String jpWarmStartDir;
+    private boolean jpWarmStartData;
+    private List<String> jpClasses;
+    private List<String> jpIncludedPackages = Collections.emptyList();
+    private List<String> jpExcludedPackages = Collections.emptyList();
     private JimpleProvider jimpleProvider;
 
+    /**
+     * Sets the app classpath. It is a list of directories, jars and classpath files ({@code @<file>} containing one
+     * entry per line) separated by the path separator.
+     *
+     * @param appClassPath App classpath
+     * @return JimpleProviderBuilder
+     */
     public JimpleProviderBuilder appClassPath(String appClassPath) {
         this.jpAppClassPath = appClassPath;
         return this;
@@ -22,27 +38,276 @@ public class JimpleProviderBuilder {
         return this;
     }
 
+    /**
+     * Sets the number of workers used to print the Jimple code and to generate the metrics. A single worker generates
+     * the classes one after another.
+     *
+     * @param workers Number of workers
+     * @return JimpleProviderBuilder
+     */
+    public JimpleProviderBuilder workers(int workers) {
+        this.jpWorkers = workers;
+        return this;
+    }
+
+    /**
+     * Enables the incremental generation. It generates only the classes whose bytecode changed since the last
+     * generation into the same output directory and deletes the outputs of the removed classes.
+     *
+     * @param incremental Incremental generation or not
+     * @return JimpleProviderBuilder
+     */
+    public JimpleProviderBuilder incremental(boolean incremental) {
+        this.jpIncremental = incremental;
+        return this;
+    }
+
+    /**
+     * Sets the directory of the persistent invoke facts cache. The queries over the invoke expressions of all the
+     * classes then answer the unchanged classes from the cache without retrieving their bodies.
+     *
+     * @param invokeFactsCacheDir Cache directory
+     * @return JimpleProviderBuilder
+     */
+    public JimpleProviderBuilder invokeFactsCache(String invokeFactsCacheDir) {
+        this.jpInvokeFactsCacheDir = invokeFactsCacheDir;
+        return this;
+    }
+
+    /**
+     * Syncs the generated files to the disk in batches of the given size. By default, the files are not synced.
+     *
+     * @param syncBatchSize Number of files synced together, 0 to not sync the files
+     * @return JimpleProviderBuilder
+     */
+    public JimpleProviderBuilder syncBatchSize(int syncBatchSize) {
+        this.jpSyncBatchSize = syncBatchSize;
+        return this;
+    }
+
+    /**
+     * Generates the classes in batches of the given size and releases the method bodies of a batch once its Jimple
+     * code and metrics are written, so that the generation runs in bounded memory. By default, all the bodies are kept.
+     *
+     * @param batchSize Number of classes generated together, 0 to keep all the bodies
+     * @return JimpleProviderBuilder
+     */
+    public JimpleProviderBuilder batchSize(int batchSize) {
+        this.jpBatchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Sets the output directory of a previous incremental generation for a warm start. The app classes whose bytecode
+     * did not change since are read from their Jimple code by the Soot Jimple front end instead of their bytecode, and
+     * the pre-transformer is not applied to them again. Their line numbers are restored from the line tables of the
+     * incremental generation, and their generated files are copied from the warm start directory.
+     *
+     * @param warmStartDir Output directory of a previous incremental generation with the same options and the warm
+     *                     start data
+     * @return JimpleProviderBuilder
+     */
+    public JimpleProviderBuilder warmStart(String warmStartDir) {
+        this.jpWarmStartDir = warmStartDir;
+        return this;
+    }
+
+    /**
+     * Enables the warm start data. The incremental generation then writes the line table of every class next to its
+     * Jimple file, so that its output directory can be used for a warm start.
+     *
+     * @param warmStartData Write the warm start data or not
+     * @return JimpleProviderBuilder
+     */
+    public JimpleProviderBuilder warmStartData(boolean warmStartData) {
+        this.jpWarmStartData = warmStartData;
+        return this;
+    }
+
+    /**
+     * Selects the app classes. Only the selected classes are loaded into the Soot and generated. If no class is
+     * selected, then all the classes in the app classpath are used.
+     *
+     * @param classes List of classes name
+     * @return JimpleProviderBuilder
+     */
+    public JimpleProviderBuilder classes(List<String> classes) {
+        this.jpClasses = classes;
+        return this;
+    }
+
+    /**
+     * Restricts the app classes to the given packages and their sub-packages
+     *
+     * @param includedPackages List of package names
+     * @return JimpleProviderBuilder
+     */
+    public JimpleProviderBuilder includePackages(List<String> includedPackages) {
+        this.jpIncludedPackages = includedPackages;
+        return this;
+    }
+
+    /**
+     * Removes the classes in the given packages and their sub-packages from the app classes
+     *
+     * @param excludedPackages List of package names
+     * @return JimpleProviderBuilder
+     */
+    public JimpleProviderBuilder excludePackages(List<String> excludedPackages) {
+        this.jpExcludedPackages = excludedPackages;
+        return this;
+    }
+
     public JimpleProvider build(boolean isMinimalSoot) throws IOException {
+        return build(isMinimalSoot ? SootMode.MINIMAL : SootMode.FULL);
+    }
+
+    /**
+     * Builds the JimpleProvider and initializes the Soot in the given mode
+     *
+     * @param sootMode Soot mode
+     * @return JimpleProvider
+     * @throws IOException If there is some problem with accessing the class files
+     */
+    public JimpleProvider build(SootMode sootMode) throws IOException {
         if (this.jpAppClassPath == null || this.jpAppClassPath.isEmpty()) {
             throw new RuntimeException("App class path is not given. Please set the app class path before building.");
         }
 
-        if (!Files.exists(Paths.get(this.jpAppClassPath)) ||
-                !Files.isDirectory(Paths.get(this.jpAppClassPath))) {
-            throw new RuntimeException("Given app class path is not valid.");
+        if (jpWorkers < 1) {
+            throw new RuntimeException("Number of workers must be at least 1.");
+        }
+
+        if (jpSyncBatchSize < 0) {
+            throw new RuntimeException("Sync batch size must not be negative.");
+        }
+
+        if (jpBatchSize < 0) {
+            throw new RuntimeException("Batch size must not be negative.");
         }
 
         if (jpPreTransformer == null) {
             jpPreTransformer = PreTransformer.NONE;
         }
 
-        val completeAppClasses = new FilesUtils().getClassesAsList(this.jpAppClassPath);
-        jimpleProvider = JimpleProvider.getInstance(jpAppClassPath, jpPreTransformer, completeAppClasses);
-        jimpleProvider.preTasks(isMinimalSoot);
+        // The pre-transformer retrieves all the bodies upfront, and the released bodies would lose its changes
+        if (jpBatchSize > 0 && jpPreTransformer != PreTransformer.NONE) {
+            throw new RuntimeException("Batched generation releases the bodies and is not supported by the pre-transformer.");
+        }
+
+        if (sootMode == SootMode.LAZY && jpPreTransformer != PreTransformer.NONE) {
+            throw new RuntimeException("Pre-transformer requires all the bodies and is not supported by the lazy Soot.");
+        }
+
+        if (jpWarmStartDir != null && OutputSink.isArchive(jpWarmStartDir)) {
+            throw new RuntimeException("Warm start requires an output directory, not the archive " + jpWarmStartDir + ".");
+        }
+
+        // The app class path may contain directories, jars and classpath files
+        val classPathIndex = ClassPathIndex.of(this.jpAppClassPath);
+        val selectedAppClasses = selectAppClasses(classPathIndex);
+        jimpleProvider = JimpleProvider.getInstance(classPathIndex.getSootClassPath(), jpPreTransformer, selectedAppClasses);
+        jimpleProvider.setClassPathIndex(classPathIndex);
+        jimpleProvider.setWorkers(jpWorkers);
+        jimpleProvider.setIncremental(jpIncremental);
+        jimpleProvider.setSyncBatchSize(jpSyncBatchSize);
+        jimpleProvider.setBatchSize(jpBatchSize);
+        jimpleProvider.setWarmStartData(jpWarmStartData);
+
+        if (jpWarmStartDir != null) {
+            jimpleProvider.setWarmStartDir(new File(jpWarmStartDir));
+        }
+
+        if (jpInvokeFactsCacheDir != null) {
+            jimpleProvider.setInvokeFactsCache(new InvokeFactsCache(new File(jpInvokeFactsCacheDir), jimpleProvider.getSignatureTable()));
+        }
+
+        jimpleProvider.preTasks(sootMode);
 
         return jimpleProvider;
     }
 
+    /**
+     * Returns the app classes that are loaded into the Soot when building, without building the JimpleProvider
+     *
+     * @return List of classes name
+     * @throws IOException If the app classpath could not be read
+     */
+    public List<String> getSelectedClasses() throws IOException {
+        if (this.jpAppClassPath == null || this.jpAppClassPath.isEmpty()) {
+            throw new RuntimeException("App class path is not given. Please set the app class path before building.");
+        }
+
+        try (val classPathIndex = ClassPathIndex.of(this.jpAppClassPath)) {
+            return selectAppClasses(classPathIndex);
+        }
+    }
+
+    /**
+     * Returns the selected classes of the app classpath, restricted to the included packages and without the excluded
+     * packages
+     *
+     * @param classPathIndex Index of the app classpath
+     * @return List of classes name
+     * @throws IOException If the app classpath could not be read
+     */
+    private List<String> selectAppClasses(ClassPathIndex classPathIndex) throws IOException {
+        List<String> appClasses;
+
+        if (jpClasses == null || jpClasses.isEmpty()) {
+            appClasses = classPathIndex.getClasses();
+        } else {
+            appClasses = new ArrayList<>(new LinkedHashSet<>(jpClasses));
+
+            for (val appClass : appClasses) {
+                if (!classPathIndex.contains(appClass)) {
+                    throw new RuntimeException("Selected class " + appClass + " is not present in the app class path.");
+                }
+            }
+        }
+
+        val selectedAppClasses = new ArrayList<String>();
+
+        for (val appClass : appClasses) {
+            if (isInSelectedPackages(appClass)) {
+                selectedAppClasses.add(appClass);
+            }
+        }
+
+        if (selectedAppClasses.isEmpty()) {
+            throw new RuntimeException("No app class is selected. Please check the selected classes and packages.");
+        }
+
+        return selectedAppClasses;
+    }
+
+    /**
+     * Checks whether the given class of the app classpath is selected by the selected classes and packages, e.g. a
+     * class that is added to the app classpath after building
+     *
+     * @param className Class name
+     * @return True if the class is selected
+     */
+    public boolean isSelected(String className) {
+        return (jpClasses == null || jpClasses.isEmpty() || jpClasses.contains(className)) &&
+                isInSelectedPackages(className);
+    }
+
+    private boolean isInSelectedPackages(String className) {
+        return (jpIncludedPackages.isEmpty() || isInPackages(className, jpIncludedPackages)) &&
+                !isInPackages(className, jpExcludedPackages);
+    }
+
+    private static boolean isInPackages(String className, List<String> packages) {
+        for (val packageName : packages) {
+            if (className.startsWith(packageName + ".")) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     public JimpleProvider build() throws IOException {
         return build(false);
     }
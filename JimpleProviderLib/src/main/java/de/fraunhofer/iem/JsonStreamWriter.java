@@ -0,0 +1,228 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Writes JSON directly to the given writer in the insertion order. The layout is the same as the one of
+ * {@link JSONObject#toString(int)}, including writing the objects and arrays with exactly one element in a single line.
+ * Therefore, the number of elements of every object and array must be known when it begins.
+ */
+public class JsonStreamWriter {
+    private final Writer writer;
+    private final int indentFactor;
+    private final Deque<Scope> scopes = new ArrayDeque<>();
+
+    /**
+     * Object or array that is being written
+     */
+    private static class Scope {
+        private final boolean isArray;
+        private final int size;
+        private final int indent;
+        private int count;
+
+        private Scope(boolean isArray, int size, int indent) {
+            this.isArray = isArray;
+            this.size = size;
+            this.indent = indent;
+        }
+
+        private boolean isSingleLine() {
+            return size <= 1;
+        }
+
+        private int getElementIndent(int indentFactor) {
+            return isSingleLine() ? indent : indent + indentFactor;
+        }
+    }
+
+    /**
+     * Constructor for JsonStreamWriter
+     *
+     * @param writer Writer
+     * @param indentFactor Number of spaces to add to each level of indentation
+     */
+    public JsonStreamWriter(Writer writer, int indentFactor) {
+        this.writer = writer;
+        this.indentFactor = indentFactor;
+    }
+
+    /**
+     * Begins an object with the given number of properties
+     *
+     * @param size Number of properties
+     * @return JsonStreamWriter
+     * @throws IOException If the writer fails
+     */
+    public JsonStreamWriter beginObject(int size) throws IOException {
+        beginValue();
+        writer.write('{');
+        scopes.push(new Scope(false, size, getValueIndent()));
+        return this;
+    }
+
+    /**
+     * Ends the current object
+     *
+     * @return JsonStreamWriter
+     * @throws IOException If the writer fails
+     */
+    public JsonStreamWriter endObject() throws IOException {
+        endScope();
+        writer.write('}');
+        return this;
+    }
+
+    /**
+     * Begins an array with the given number of elements
+     *
+     * @param size Number of elements
+     * @return JsonStreamWriter
+     * @throws IOException If the writer fails
+     */
+    public JsonStreamWriter beginArray(int size) throws IOException {
+        beginValue();
+        writer.write('[');
+        scopes.push(new Scope(true, size, getValueIndent()));
+        return this;
+    }
+
+    /**
+     * Ends the current array
+     *
+     * @return JsonStreamWriter
+     * @throws IOException If the writer fails
+     */
+    public JsonStreamWriter endArray() throws IOException {
+        endScope();
+        writer.write(']');
+        return this;
+    }
+
+    /**
+     * Writes the name of the next property of the current object
+     *
+     * @param name Property name
+     * @return JsonStreamWriter
+     * @throws IOException If the writer fails
+     */
+    public JsonStreamWriter name(String name) throws IOException {
+        beginElement();
+        JSONObject.quote(name, writer);
+        writer.write(':');
+
+        if (indentFactor > 0) {
+            writer.write(' ');
+        }
+
+        return this;
+    }
+
+    /**
+     * Writes the given string as a property value or an array element
+     *
+     * @param value String value
+     * @return JsonStreamWriter
+     * @throws IOException If the writer fails
+     */
+    public JsonStreamWriter value(String value) throws IOException {
+        beginValue();
+        JSONObject.quote(value, writer);
+        return this;
+    }
+
+    /**
+     * Writes the given number as a property value or an array element
+     *
+     * @param value Number value
+     * @return JsonStreamWriter
+     * @throws IOException If the writer fails
+     */
+    public JsonStreamWriter value(int value) throws IOException {
+        beginValue();
+        writer.write(Integer.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes the given number as a property value or an array element
+     *
+     * @param value Number value
+     * @return JsonStreamWriter
+     * @throws IOException If the writer fails
+     */
+    public JsonStreamWriter value(long value) throws IOException {
+        beginValue();
+        writer.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes the given number as a property value or an array element. A number that is not finite is written as
+     * null, as JSON does not support it.
+     *
+     * @param value Number value
+     * @return JsonStreamWriter
+     * @throws IOException If the writer fails
+     */
+    public JsonStreamWriter value(double value) throws IOException {
+        beginValue();
+        writer.write(Double.isNaN(value) || Double.isInfinite(value) ? "null" : JSONObject.numberToString(value));
+        return this;
+    }
+
+    /**
+     * Flushes the underlying writer
+     *
+     * @throws IOException If the writer fails
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private int getValueIndent() {
+        val scope = scopes.peek();
+        return scope == null ? 0 : scope.getElementIndent(indentFactor);
+    }
+
+    private void beginValue() throws IOException {
+        // In objects, the element begins with the name of the property
+        if (!scopes.isEmpty() && scopes.peek().isArray) {
+            beginElement();
+        }
+    }
+
+    private void beginElement() throws IOException {
+        val scope = scopes.peek();
+
+        if (scope.count++ > 0) {
+            writer.write(',');
+        }
+
+        if (!scope.isSingleLine()) {
+            writer.write('\n');
+            indent(scope.indent + indentFactor);
+        }
+    }
+
+    private void endScope() throws IOException {
+        val scope = scopes.pop();
+
+        if (!scope.isSingleLine()) {
+            writer.write('\n');
+            indent(scope.indent);
+        }
+    }
+
+    private void indent(int indent) throws IOException {
+        for (int i = 0; i < indent; i++) {
+            writer.write(' ');
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index of the methods of the app classes. It maps the signature and the sub-signature of every method to its Soot
+ * method, so that looking up a method does not scan all the methods of its class.
+ */
+public class MethodIndex {
+    private final Map<String, Map<String, SootMethod>> methodsBySignature = new HashMap<>();
+    private final Map<String, Map<String, SootMethod>> methodsBySubSignature = new HashMap<>();
+
+    private MethodIndex() {
+    }
+
+    /**
+     * Builds the method index of the given app classes from the Scene
+     *
+     * @param appClasses App classes
+     * @return Method index
+     */
+    public static MethodIndex of(Collection<String> appClasses) {
+        val methodIndex = new MethodIndex();
+
+        for (val appClass : appClasses) {
+            methodIndex.index(Scene.v().getSootClass(appClass));
+        }
+
+        return methodIndex;
+    }
+
+    /**
+     * Indexes the methods of the given class again from the Scene, e.g. after it was reloaded. A class that is no
+     * longer in the Scene is removed from the index.
+     *
+     * @param className Class name
+     */
+    public void reindex(String className) {
+        if (Scene.v().containsClass(className)) {
+            index(Scene.v().getSootClass(className));
+        } else {
+            methodsBySignature.remove(className);
+            methodsBySubSignature.remove(className);
+        }
+    }
+
+    private void index(SootClass sootClass) {
+        val methods = sootClass.getMethods();
+        val bySignature = new HashMap<String, SootMethod>(methods.size() * 2);
+        val bySubSignature = new HashMap<String, SootMethod>(methods.size() * 2);
+
+        for (val sootMethod : methods) {
+            bySignature.putIfAbsent(sootMethod.getSignature(), sootMethod);
+            bySubSignature.putIfAbsent(sootMethod.getSubSignature(), sootMethod);
+        }
+
+        methodsBySignature.put(sootClass.getName(), bySignature);
+        methodsBySubSignature.put(sootClass.getName(), bySubSignature);
+    }
+
+    /**
+     * Returns true if the methods of the given class are indexed
+     *
+     * @param className Class name
+     * @return Indexed or not
+     */
+    public boolean contains(String className) {
+        return methodsBySignature.containsKey(className);
+    }
+
+    /**
+     * Returns the method of the given class that matches the given method signature or sub-signature. The angle
+     * brackets of the signature are optional.
+     *
+     * @param className Class name
+     * @param method    Method signature or sub-signature
+     * @return Soot method or null if there is no such method
+     */
+    public SootMethod getMethod(String className, String method) {
+        val bySignature = methodsBySignature.get(className);
+
+        if (bySignature == null) {
+            return null;
+        }
+
+        val sootMethod = bySignature.get(toSignature(method));
+
+        if (sootMethod != null) {
+            return sootMethod;
+        }
+
+        return methodsBySubSignature.get(className).get(method);
+    }
+
+    private static String toSignature(String method) {
+        if (method.startsWith("<") && method.endsWith(">")) {
+            return method;
+        }
+
+        val methodSignature = new StringBuilder(method.length() + 2);
+
+        if (!method.startsWith("<")) {
+            methodSignature.append("<");
+        }
+
+        methodSignature.append(method);
+
+        if (!method.endsWith(">")) {
+            methodSignature.append(">");
+        }
+
+        return methodSignature.toString();
+    }
+}
@@ -0,0 +1,89 @@
+package de.fraunhofer.iem;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Invoke sites of a method as int records. A record consists of the signature id of the invoked method and the line
+ * number of the invoke expression. The signature ids refer to a {@link SignatureTable}.
+ */
+@EqualsAndHashCode
+public class MethodInvokeSites {
+    private static final int RECORD_SIZE = 2;
+
+    @Getter
+    private final int methodId;
+    private final int[] records;
+
+    /**
+     * Constructor for MethodInvokeSites
+     *
+     * @param methodId Signature id of the method
+     * @param records  Signature id of the invoked method and line number of every invoke site
+     */
+    public MethodInvokeSites(int methodId, int[] records) {
+        if (records.length % RECORD_SIZE != 0) {
+            throw new IllegalArgumentException("Incomplete invoke site record");
+        }
+
+        this.methodId = methodId;
+        this.records = records;
+    }
+
+    /**
+     * Returns the number of invoke sites
+     *
+     * @return Number of invoke sites
+     */
+    public int size() {
+        return records.length / RECORD_SIZE;
+    }
+
+    /**
+     * Returns the signature id of the method invoked at the given invoke site
+     *
+     * @param site Invoke site
+     * @return Signature id
+     */
+    public int getInvokedMethodId(int site) {
+        return records[RECORD_SIZE * site];
+    }
+
+    /**
+     * Returns the line number of the given invoke site
+     *
+     * @param site Invoke site
+     * @return Line number
+     */
+    public int getLineNumber(int site) {
+        return records[RECORD_SIZE * site + 1];
+    }
+
+    /**
+     * Returns a view of the invoke sites as invoke expressions. The invoke expressions are created on access.
+     *
+     * @param signatureTable Signature table of the ids
+     * @return Unmodifiable list of the invoke expressions
+     */
+    public List<InvokeExpressionToLineNumber> asList(SignatureTable signatureTable) {
+        return new AbstractList<InvokeExpressionToLineNumber>() {
+            @Override
+            public InvokeExpressionToLineNumber get(int site) {
+                if (site < 0 || site >= size()) {
+                    throw new IndexOutOfBoundsException("Invoke site " + site + " of " + size());
+                }
+
+                return new InvokeExpressionToLineNumber(signatureTable.getSignature(getInvokedMethodId(site)),
+                        signatureTable.getSignature(methodId), getLineNumber(site));
+            }
+
+            @Override
+            public int size() {
+                return MethodInvokeSites.this.size();
+            }
+        };
+    }
+}
@@ -0,0 +1,161 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+import soot.tagkit.LineNumberTag;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/**
+ * Interval tree of the source line ranges of the methods of a class. The tree is stored as an array of the ranges
+ * sorted by their first line, where every middle element of a sub-array is the root of that sub-array and knows the
+ * largest last line below it.
+ */
+public class MethodLineIndex {
+    private final int[] firstLines;
+    private final int[] lastLines;
+    private final int[] maxLastLines;
+    private final int[] methodPositions;
+    private final String[] methodSignatures;
+
+    private MethodLineIndex(int size) {
+        firstLines = new int[size];
+        lastLines = new int[size];
+        maxLastLines = new int[size];
+        methodPositions = new int[size];
+        methodSignatures = new String[size];
+    }
+
+    /**
+     * Builds the index from the line number tags of the method bodies of the given class. The methods without body
+     * or without line numbers are not part of the index.
+     *
+     * @param sootClass Soot class resolved up to the bodies level
+     * @return Method line index
+     */
+    public static MethodLineIndex of(SootClass sootClass) {
+        val ranges = new ArrayList<int[]>();
+        val methods = sootClass.getMethods();
+        val signatures = new String[methods.size()];
+        int position = 0;
+
+        for (val method : methods) {
+            if (!method.isConcrete()) {
+                position++;
+                continue;
+            }
+
+            try {
+                val range = getLineRange(method);
+
+                if (range != null) {
+                    ranges.add(new int[]{range[0], range[1], position});
+                    signatures[position] = method.getSignature();
+                }
+            } catch (RuntimeException ex) {
+                System.err.println("Could not get active body: " + method);
+            }
+
+            position++;
+        }
+
+        ranges.sort(Comparator.<int[]>comparingInt(range -> range[0]).thenComparingInt(range -> range[2]));
+
+        val methodLineIndex = new MethodLineIndex(ranges.size());
+
+        for (int i = 0; i < ranges.size(); i++) {
+            val range = ranges.get(i);
+            methodLineIndex.firstLines[i] = range[0];
+            methodLineIndex.lastLines[i] = range[1];
+            methodLineIndex.methodPositions[i] = range[2];
+            methodLineIndex.methodSignatures[i] = signatures[range[2]];
+        }
+
+        methodLineIndex.computeMaxLastLines(0, ranges.size() - 1);
+
+        return methodLineIndex;
+    }
+
+    /**
+     * Returns the first and the last line of the given method or null if its body does not have line numbers
+     *
+     * @param method Soot method
+     * @return First and last line
+     */
+    private static int[] getLineRange(SootMethod method) {
+        int firstLine = Integer.MAX_VALUE;
+        int lastLine = -1;
+
+        for (Unit unit : method.retrieveActiveBody().getUnits()) {
+            val tag = (LineNumberTag) unit.getTag("LineNumberTag");
+
+            if (tag != null) {
+                firstLine = Math.min(firstLine, tag.getLineNumber());
+                lastLine = Math.max(lastLine, tag.getLineNumber());
+            }
+        }
+
+        if (lastLine == -1) {
+            return null;
+        }
+
+        // The method declaration may start before its first statement
+        if (method.getJavaSourceStartLineNumber() != -1) {
+            firstLine = Math.min(firstLine, method.getJavaSourceStartLineNumber());
+        }
+
+        return new int[]{firstLine, lastLine};
+    }
+
+    private int computeMaxLastLines(int low, int high) {
+        if (low > high) {
+            return -1;
+        }
+
+        val middle = (low + high) >>> 1;
+        maxLastLines[middle] = Math.max(lastLines[middle],
+                Math.max(computeMaxLastLines(low, middle - 1), computeMaxLastLines(middle + 1, high)));
+
+        return maxLastLines[middle];
+    }
+
+    /**
+     * Returns the signature of the method containing the given line number. If the ranges of several methods contain
+     * the line number, e.g. a lambda inside a method, then the method declared first in the class is returned.
+     *
+     * @param lineNumber Line number
+     * @return Method signature or null if no method contains the given line number
+     */
+    public String findMethod(int lineNumber) {
+        val found = find(0, firstLines.length - 1, lineNumber, -1);
+
+        return found == -1 ? null : methodSignatures[found];
+    }
+
+    private int find(int low, int high, int lineNumber, int found) {
+        if (low > high) {
+            return found;
+        }
+
+        val middle = (low + high) >>> 1;
+
+        if (maxLastLines[middle] < lineNumber) {
+            return found;
+        }
+
+        found = find(low, middle - 1, lineNumber, found);
+
+        if (firstLines[middle] > lineNumber) {
+            return found;
+        }
+
+        if (lastLines[middle] >= lineNumber && (found == -1 || methodPositions[middle] < methodPositions[found])) {
+            found = middle;
+        }
+
+        return find(middle + 1, high, lineNumber, found);
+    }
+}
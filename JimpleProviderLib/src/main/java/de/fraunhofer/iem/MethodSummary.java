@@ -0,0 +1,31 @@
+package de.fraunhofer.iem;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Summary of a method body that is extracted in a single traversal: its local variables, its stack variables and its
+ * invoke sites. The variables are mapped to their types in the order of the locals of the body.
+ */
+@Getter
+public class MethodSummary {
+    private final Map<String, String> localVariables;
+    private final Map<String, String> stackVariables;
+    private final MethodInvokeSites invokeSites;
+
+    /**
+     * Constructor for MethodSummary
+     *
+     * @param localVariables Local variables and their types
+     * @param stackVariables Stack variables and their types
+     * @param invokeSites    Invoke sites
+     */
+    public MethodSummary(Map<String, String> localVariables, Map<String, String> stackVariables,
+                         MethodInvokeSites invokeSites) {
+        this.localVariables = Collections.unmodifiableMap(localVariables);
+        this.stackVariables = Collections.unmodifiableMap(stackVariables);
+        this.invokeSites = invokeSites;
+    }
+}
@@ -0,0 +1,51 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Destination of the generated Jimple and metrics files. The files are addressed by their path relative to the
+ * output root, e.g. {@code de/fraunhofer/iem/App.jimple}.
+ */
+public interface OutputSink extends Closeable {
+    /**
+     * Writes the given content to the file with the given relative path
+     *
+     * @param path    Relative path with '/' as separator
+     * @param content Content
+     * @return Number of bytes written
+     * @throws IOException If the file could not be written
+     */
+    long write(String path, OutputWriter.Content content) throws IOException;
+
+    /**
+     * Checks whether the given output is an archive, i.e. a zip or tar file
+     *
+     * @param output Output directory or archive
+     * @return True if the given output is an archive
+     */
+    static boolean isArchive(String output) {
+        val lowerCaseOutput = output.toLowerCase(Locale.ROOT);
+        return lowerCaseOutput.endsWith(".zip") || lowerCaseOutput.endsWith(".tar");
+    }
+
+    /**
+     * Returns the sink of the given output. A zip or tar file becomes an archive, everything else a directory.
+     *
+     * @param output        Output directory or archive
+     * @param syncBatchSize Number of files synced to the disk together, 0 to not sync the files
+     * @return Output sink
+     * @throws IOException If the archive could not be created
+     */
+    static OutputSink of(String output, int syncBatchSize) throws IOException {
+        if (isArchive(output)) {
+            return new ArchiveOutputSink(new File(output));
+        }
+
+        return new DirectoryOutputSink(new File(output), syncBatchSize);
+    }
+}
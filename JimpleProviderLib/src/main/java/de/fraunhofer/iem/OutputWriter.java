@@ -0,0 +1,187 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes the output files of the generation. A file is written through a large buffer into a temporary file next to
+ * it, which is then atomically renamed to the file, so that readers never see a partially written file. The created
+ * directories are remembered, so that every directory is created only once.
+ * <p>
+ * If a sync batch size is set, then the files are synced to the disk in batches: the temporary files of a batch are
+ * synced together, then renamed, and then their directories are synced once per batch. The files of a pending batch
+ * become visible on the next batch or on {@link #flush()}.
+ * <p>
+ * The writer can be used by multiple threads.
+ */
+public class OutputWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
+
+    private final int syncBatchSize;
+    private final Set<File> createdDirectories = ConcurrentHashMap.newKeySet();
+    private final List<File[]> pendingFiles = new ArrayList<>();
+
+    /**
+     * Content of an output file
+     */
+    public interface Content {
+        /**
+         * Writes the content to the given writer
+         *
+         * @param writer Writer
+         * @throws IOException If the content could not be written
+         */
+        void writeTo(PrintWriter writer) throws IOException;
+    }
+
+    /**
+     * Constructor for OutputWriter
+     *
+     * @param syncBatchSize Number of files synced to the disk together, 0 to not sync the files
+     */
+    public OutputWriter(int syncBatchSize) {
+        this.syncBatchSize = syncBatchSize;
+    }
+
+    /**
+     * Writes the given content to the given file and replaces the file if it exists
+     *
+     * @param file    File
+     * @param content Content
+     * @return Number of bytes written
+     * @throws IOException If the file could not be written
+     */
+    public long write(File file, Content content) throws IOException {
+        val directory = file.getAbsoluteFile().getParentFile();
+        createDirectory(directory);
+
+        val tempFile = File.createTempFile("." + file.getName(), TEMP_FILE_EXTENSION, directory);
+
+        try (val writer = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8), BUFFER_SIZE))) {
+            content.writeTo(writer);
+            writer.flush();
+
+            // PrintWriter does not throw the errors of the underlying writer
+            if (writer.checkError()) {
+                throw new IOException("Could not write file " + file.getAbsolutePath());
+            }
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tempFile.toPath());
+            throw ex;
+        }
+
+        val size = tempFile.length();
+
+        if (syncBatchSize <= 0) {
+            commit(tempFile, file);
+            return size;
+        }
+
+        List<File[]> batch = null;
+
+        synchronized (pendingFiles) {
+            pendingFiles.add(new File[]{tempFile, file});
+
+            if (pendingFiles.size() >= syncBatchSize) {
+                batch = new ArrayList<>(pendingFiles);
+                pendingFiles.clear();
+            }
+        }
+
+        if (batch != null) {
+            syncAndCommit(batch);
+        }
+
+        return size;
+    }
+
+    /**
+     * Creates the given directory and its parents, if it has not been created by this writer yet
+     *
+     * @param directory Directory
+     * @throws IOException If the directory could not be created
+     */
+    public void createDirectory(File directory) throws IOException {
+        if (createdDirectories.contains(directory)) {
+            return;
+        }
+
+        // Another thread may create the same directory concurrently
+        if (!directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Could not create directory " + directory.getAbsolutePath());
+        }
+
+        createdDirectories.add(directory);
+    }
+
+    /**
+     * Syncs and commits all the pending files
+     *
+     * @throws IOException If a file could not be synced or committed
+     */
+    public void flush() throws IOException {
+        List<File[]> batch;
+
+        synchronized (pendingFiles) {
+            batch = new ArrayList<>(pendingFiles);
+            pendingFiles.clear();
+        }
+
+        if (!batch.isEmpty()) {
+            syncAndCommit(batch);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private void syncAndCommit(List<File[]> batch) throws IOException {
+        for (val files : batch) {
+            sync(files[0], StandardOpenOption.WRITE);
+        }
+
+        val directories = new LinkedHashSet<File>();
+
+        for (val files : batch) {
+            commit(files[0], files[1]);
+            directories.add(files[1].getAbsoluteFile().getParentFile());
+        }
+
+        // Syncing a directory persists the renames, but it is not supported on every platform
+        for (val directory : directories) {
+            try {
+                sync(directory, StandardOpenOption.READ);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static void sync(File file, StandardOpenOption openOption) throws IOException {
+        try (val channel = FileChannel.open(file.toPath(), openOption)) {
+            channel.force(true);
+        }
+    }
+
+    private static void commit(File tempFile, File file) throws IOException {
+        try {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+    }
+}
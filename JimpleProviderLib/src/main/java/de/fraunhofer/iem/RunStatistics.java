@@ -0,0 +1,241 @@
+package de.fraunhofer.iem;
+
+import lombok.Data;
+import lombok.val;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timers and counters of a JimpleProvider run, e.g. the time spent in initializing the Soot, retrieving the bodies and
+ * printing the Jimple code, the number of bytes written and the slowest classes. The statistics can be queried while
+ * the run is in progress and written as JSON run report.
+ * <p>
+ * The statistics can be updated by multiple threads.
+ */
+public class RunStatistics {
+    public static final String INITIALIZE_SOOT = "initializeSoot";
+    public static final String CG_PACK = "cgPack";
+    public static final String BOOMERANG_PRE_TRANSFORMER = "boomerangPreTransformer";
+    public static final String WJTP_PACK = "wjtpPack";
+    public static final String RESOLVE_BODIES = "resolveBodies";
+    public static final String RETRIEVE_BODIES = "retrieveBodies";
+    public static final String GENERATE = "generate";
+    public static final String PRINT_JIMPLE = "printJimple";
+    public static final String WRITE_METRICS = "writeMetrics";
+    public static final String METHOD_SUMMARIES = "methodSummaries";
+    public static final String INVOKE_FACTS = "invokeFacts";
+    public static final String CALL_GRAPH = "callGraph";
+    public static final String RELOAD_CLASSES = "reloadClasses";
+    public static final String WARM_START = "warmStart";
+
+    public static final String CLASSES_GENERATED = "classesGenerated";
+    public static final String CLASSES_COPIED = "classesCopied";
+    public static final String BODIES_RETRIEVED = "bodiesRetrieved";
+    public static final String FILES_WRITTEN = "filesWritten";
+    public static final String BYTES_WRITTEN = "bytesWritten";
+
+    private static final int MAX_SLOWEST_CLASSES = 10;
+
+    private final Map<String, LongAdder> phaseNanos = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> phaseCounts = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    // Min-heap, so that the fastest of the slowest classes is replaced
+    private final PriorityQueue<ClassTiming> slowestClasses =
+            new PriorityQueue<>(Comparator.comparingLong(ClassTiming::getNanos));
+
+    /**
+     * Generation time of a class
+     */
+    @Data
+    public static class ClassTiming {
+        final String className;
+        final long nanos;
+    }
+
+    /**
+     * Running timer of a phase, which adds the elapsed time to the phase on closing
+     */
+    public interface Timer extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Starts a timer of the given phase. The timer is meant to be closed by a try-with-resources statement.
+     *
+     * @param phase Phase name
+     * @return Timer
+     */
+    public Timer time(String phase) {
+        val start = System.nanoTime();
+        return () -> addTime(phase, System.nanoTime() - start);
+    }
+
+    /**
+     * Adds the given time to the given phase and counts the phase once
+     *
+     * @param phase Phase name
+     * @param nanos Elapsed time in nanoseconds
+     */
+    public void addTime(String phase, long nanos) {
+        phaseNanos.computeIfAbsent(phase, key -> new LongAdder()).add(nanos);
+        phaseCounts.computeIfAbsent(phase, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Adds the given delta to the given counter
+     *
+     * @param counter Counter name
+     * @param delta   Delta
+     */
+    public void increment(String counter, long delta) {
+        counters.computeIfAbsent(counter, key -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Records the generation time of the given class. Only the slowest classes are kept.
+     *
+     * @param className Class name
+     * @param nanos     Elapsed time in nanoseconds
+     */
+    public void addClassTime(String className, long nanos) {
+        synchronized (slowestClasses) {
+            if (slowestClasses.size() < MAX_SLOWEST_CLASSES) {
+                slowestClasses.add(new ClassTiming(className, nanos));
+            } else if (slowestClasses.peek().getNanos() < nanos) {
+                slowestClasses.poll();
+                slowestClasses.add(new ClassTiming(className, nanos));
+            }
+        }
+    }
+
+    /**
+     * Returns the names of the recorded phases
+     *
+     * @return Phase names in alphabetical order
+     */
+    public Set<String> getPhases() {
+        return new TreeSet<>(phaseNanos.keySet());
+    }
+
+    /**
+     * Returns the total time spent in the given phase
+     *
+     * @param phase Phase name
+     * @return Elapsed time in nanoseconds, 0 if the phase is not recorded
+     */
+    public long getPhaseNanos(String phase) {
+        return getSum(phaseNanos, phase);
+    }
+
+    /**
+     * Returns how many times the given phase is recorded
+     *
+     * @param phase Phase name
+     * @return Number of times
+     */
+    public long getPhaseCount(String phase) {
+        return getSum(phaseCounts, phase);
+    }
+
+    /**
+     * Returns the names of the counters
+     *
+     * @return Counter names in alphabetical order
+     */
+    public Set<String> getCounters() {
+        return new TreeSet<>(counters.keySet());
+    }
+
+    /**
+     * Returns the value of the given counter
+     *
+     * @param counter Counter name
+     * @return Value, 0 if the counter is not recorded
+     */
+    public long getCounter(String counter) {
+        return getSum(counters, counter);
+    }
+
+    /**
+     * Returns the slowest generated classes
+     *
+     * @return Class timings from the slowest to the fastest
+     */
+    public List<ClassTiming> getSlowestClasses() {
+        List<ClassTiming> classTimings;
+
+        synchronized (slowestClasses) {
+            classTimings = new ArrayList<>(slowestClasses);
+        }
+
+        classTimings.sort(Comparator.comparingLong(ClassTiming::getNanos).reversed());
+
+        return classTimings;
+    }
+
+    /**
+     * Returns the number of generated classes per second of generation time
+     *
+     * @return Classes per second, 0 if no class is generated
+     */
+    public double getClassesPerSecond() {
+        val nanos = getPhaseNanos(GENERATE);
+        return nanos == 0 ? 0 : getCounter(CLASSES_GENERATED) * 1e9 / nanos;
+    }
+
+    /**
+     * Writes the statistics as JSON run report to the given writer. The times are written in milliseconds.
+     *
+     * @param writer Writer
+     * @throws IOException If the writer fails
+     */
+    public void writeJson(Writer writer) throws IOException {
+        val jsonWriter = new JsonStreamWriter(writer, 4);
+        // The phases and counters are taken first, as the number of elements must be known in advance
+        val phases = getPhases();
+        val counterNames = getCounters();
+        val classTimings = getSlowestClasses();
+
+        jsonWriter.beginObject(4);
+
+        jsonWriter.name("phases").beginObject(phases.size());
+        for (val phase : phases) {
+            jsonWriter.name(phase).beginObject(2);
+            jsonWriter.name("count").value(getPhaseCount(phase));
+            jsonWriter.name("millis").value(TimeUnit.NANOSECONDS.toMillis(getPhaseNanos(phase)));
+            jsonWriter.endObject();
+        }
+        jsonWriter.endObject();
+
+        jsonWriter.name("counters").beginObject(counterNames.size());
+        for (val counter : counterNames) {
+            jsonWriter.name(counter).value(getCounter(counter));
+        }
+        jsonWriter.endObject();
+
+        jsonWriter.name("classesPerSecond").value(getClassesPerSecond());
+
+        jsonWriter.name("slowestClasses").beginArray(classTimings.size());
+        for (val classTiming : classTimings) {
+            jsonWriter.beginObject(2);
+            jsonWriter.name("className").value(classTiming.getClassName());
+            jsonWriter.name("millis").value(TimeUnit.NANOSECONDS.toMillis(classTiming.getNanos()));
+            jsonWriter.endObject();
+        }
+        jsonWriter.endArray();
+
+        jsonWriter.endObject();
+        jsonWriter.flush();
+    }
+
+    private static long getSum(Map<String, LongAdder> values, String name) {
+        val value = values.get(name);
+        return value == null ? 0 : value.sum();
+    }
+}
@@ -0,0 +1,72 @@
+package de.fraunhofer.iem;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interning table of method signatures. Every signature gets a dense int id in the order of interning, so that the
+ * invoke sites can refer to the signatures by id instead of storing the strings.
+ * <p>
+ * The table can be used by multiple threads.
+ */
+public class SignatureTable {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] signatures = new String[256];
+    private int size;
+
+    /**
+     * Returns the id of the given signature and assigns the next id if the signature is not interned yet
+     *
+     * @param signature Method signature
+     * @return Signature id
+     */
+    public synchronized int intern(String signature) {
+        Integer id = ids.get(signature);
+
+        if (id == null) {
+            if (size == signatures.length) {
+                signatures = Arrays.copyOf(signatures, 2 * size);
+            }
+
+            id = size;
+            signatures[size++] = signature;
+            ids.put(signature, id);
+        }
+
+        return id;
+    }
+
+    /**
+     * Returns the id of the given signature
+     *
+     * @param signature Method signature
+     * @return Signature id or -1 if the signature is not interned
+     */
+    public synchronized int getId(String signature) {
+        return ids.getOrDefault(signature, -1);
+    }
+
+    /**
+     * Returns the signature with the given id
+     *
+     * @param id Signature id
+     * @return Method signature
+     */
+    public synchronized String getSignature(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown signature id " + id);
+        }
+
+        return signatures[id];
+    }
+
+    /**
+     * Returns the number of interned signatures
+     *
+     * @return Number of signatures
+     */
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,16 @@
+package de.fraunhofer.iem;
+
+/**
+ * Supported ways to initialize the Soot
+ * <p>
+ * FULL: Resolves the bodies of all the classes and builds the whole program (required for the pre-transformer)
+ * <p>
+ * MINIMAL: Resolves the bodies of all the classes without the whole program
+ * <p>
+ * LAZY: Resolves only the signatures of all the classes. The bodies of a class are resolved when it is queried.
+ */
+public enum SootMode {
+    FULL,
+    MINIMAL,
+    LAZY
+}
@@ -3,20 +3,39 @@ package de.fraunhofer.iem;
 import boomerang.scene.jimple.BoomerangPretransformer;
 import lombok.val;
 import soot.*;
+import soot.asm.AsmClassProvider;
+import soot.asm.AsmJava9ClassProvider;
+import soot.jimple.InstanceInvokeExpr;
+import soot.jimple.InvokeExpr;
+import soot.jimple.SpecialInvokeExpr;
 import soot.jimple.Stmt;
 import soot.options.Options;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.PrintWriter;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class SootUtils {
+    // Entry of the Soot classpath standing for the modules of the Java runtime
+    private static final String JDK_MODULES_CLASS_PATH = "VIRTUAL_FS_FOR_JDK";
+
     /**
      * Initializes the soot
      */
     protected void initializeSoot(String appClassPath, List<String> appClasses) {
+        initializeSoot(appClassPath, appClasses, Collections.emptyMap());
+    }
+
+    /**
+     * Initializes the soot in the whole program mode. The given classes are read from their Jimple files instead of
+     * their bytecode.
+     *
+     * @param appClassPath App classpath
+     * @param appClasses   App classes
+     * @param jimpleFiles  Jimple files of the classes read by the Jimple front end
+     */
+    protected void initializeSoot(String appClassPath, List<String> appClasses, Map<String, File> jimpleFiles) {
         G.reset();
         Options.v().set_keep_line_number(true);
         Options.v().setPhaseOption("cg.cha", "on");
@@ -29,6 +48,7 @@ public class SootUtils {
         Options.v().setPhaseOption("jb", "use-original-names:true");
         //Options.v().setPhaseOption("jb.lns", "enabled:false");
         Options.v().set_output_format(Options.output_format_none);
+        setJimpleFiles(jimpleFiles);
 
         val entries = new ArrayList<SootMethod>();
         for (val appClass : appClasses) {
@@ -42,6 +62,18 @@ public class SootUtils {
     }
 
     protected void initializeMinimalSoot(String appClassPath, List<String> appClasses) {
+        initializeMinimalSoot(appClassPath, appClasses, Collections.emptyMap());
+    }
+
+    /**
+     * Initializes the soot without the whole program mode. The given classes are read from their Jimple files instead
+     * of their bytecode.
+     *
+     * @param appClassPath App classpath
+     * @param appClasses   App classes
+     * @param jimpleFiles  Jimple files of the classes read by the Jimple front end
+     */
+    protected void initializeMinimalSoot(String appClassPath, List<String> appClasses, Map<String, File> jimpleFiles) {
         G.reset();
         Options.v().set_keep_line_number(true);
         Options.v().set_allow_phantom_refs(true);
@@ -51,6 +83,7 @@ public class SootUtils {
         Options.v().set_whole_program(false); // 🚫 no callgraph
 
         Options.v().setPhaseOption("jb", "use-original-names:true");
+        setJimpleFiles(jimpleFiles);
 
         for (String appClass : appClasses) {
             SootClass sootClass = Scene.v().forceResolve(appClass, SootClass.BODIES);
@@ -61,15 +94,148 @@ public class SootUtils {
     }
 
     /**
-     * Applies the Boomerang pre-transformer to the soot instance
+     * Initializes the soot by resolving only the signatures of the app classes. The bodies are resolved on demand by
+     * {@link #resolveBodies(String)}.
+     */
+    protected void initializeLazySoot(String appClassPath, List<String> appClasses) {
+        initializeLazySoot(appClassPath, appClasses, Collections.emptyMap());
+    }
+
+    /**
+     * Initializes the soot by resolving only the signatures of the app classes. The given classes are read from their
+     * Jimple files instead of their bytecode.
+     *
+     * @param appClassPath App classpath
+     * @param appClasses   App classes
+     * @param jimpleFiles  Jimple files of the classes read by the Jimple front end
+     */
+    protected void initializeLazySoot(String appClassPath, List<String> appClasses, Map<String, File> jimpleFiles) {
+        G.reset();
+        Options.v().set_keep_line_number(true);
+        Options.v().set_allow_phantom_refs(true);
+        Options.v().set_soot_classpath(appClassPath);
+        Options.v().set_prepend_classpath(true);
+        Options.v().set_output_format(Options.output_format_none);
+        Options.v().set_whole_program(false);
+
+        Options.v().setPhaseOption("jb", "use-original-names:true");
+        setJimpleFiles(jimpleFiles);
+
+        for (String appClass : appClasses) {
+            SootClass sootClass = Scene.v().forceResolve(appClass, SootClass.SIGNATURES);
+            sootClass.setApplicationClass();
+        }
+
+        // loadNecessaryClasses would resolve the bodies of all the application classes
+        Scene.v().loadBasicClasses();
+        Scene.v().setDoneResolving();
+    }
+
+    /**
+     * Reads the given classes from their Jimple files and line tables, all the other classes from their bytecode. The
+     * map is looked up whenever a class is resolved, thus removing a class from it makes the class to be read from its
+     * bytecode again.
+     *
+     * @param jimpleFiles Jimple files of the classes
+     */
+    private void setJimpleFiles(Map<String, File> jimpleFiles) {
+        if (jimpleFiles.isEmpty()) {
+            return;
+        }
+
+        val classProviders = new ArrayList<ClassProvider>();
+        classProviders.add(className -> {
+            val jimpleFile = jimpleFiles.get(className);
+            return jimpleFile == null
+                    ? null
+                    : new WarmStartClassSource(className, jimpleFile, JimpleLineTable.getFile(jimpleFile));
+        });
+        classProviders.add(new AsmClassProvider());
+
+        // Like Soot, the classes of the Java runtime are read from its modules since Java 9
+        if (Arrays.asList(Scene.v().getSootClassPath().split(File.pathSeparator)).contains(JDK_MODULES_CLASS_PATH)) {
+            classProviders.add(new AsmJava9ClassProvider());
+        }
+
+        SourceLocator.v().setClassProviders(classProviders);
+    }
+
+    /**
+     * Resolves the given class up to the bodies level, if it is not yet resolved
+     *
+     * @param className Class name
+     * @return Soot class
+     */
+    protected SootClass resolveBodies(String className) {
+        return Scene.v().forceResolve(className, SootClass.BODIES);
+    }
+
+    /**
+     * Removes the given class from the Scene and resolves it again from the classpath up to the given level, e.g.
+     * after its class file was rebuilt. The other classes of the Scene are kept.
+     *
+     * @param className Class name
+     * @param level     Resolving level, e.g. {@link SootClass#BODIES}
+     * @return Soot class
+     */
+    protected SootClass reloadClass(String className, int level) {
+        removeClass(className);
+
+        val sootClass = Scene.v().forceResolve(className, level);
+        sootClass.setApplicationClass();
+
+        return sootClass;
+    }
+
+    /**
+     * Removes the given class from the Scene, if it is in the Scene
+     *
+     * @param className Class name
+     */
+    protected void removeClass(String className) {
+        if (Scene.v().containsClass(className)) {
+            Scene.v().removeClass(Scene.v().getSootClass(className));
+        }
+    }
+
+    /**
+     * Applies the Boomerang pre-transformer to the soot instance. The bodies of the given classes are not transformed
+     * again, e.g. as they are read from the Jimple code of a previous run with the pre-transformer.
+     *
+     * @param runStatistics      Run statistics
+     * @param transformedClasses Classes whose bodies are already transformed
      */
-    protected void applyBoomerangTransformer() {
+    protected void applyBoomerangTransformer(RunStatistics runStatistics, Set<String> transformedClasses) {
         val transform = new Transform("wjtp.ifds", createAnalysisTransformer());
         PackManager.v().getPack("wjtp").add(transform);
-        PackManager.v().getPack("cg").apply();
 
-        BoomerangPretransformer.v().apply();
-        PackManager.v().getPack("wjtp").apply();
+        try (val timer = runStatistics.time(RunStatistics.CG_PACK)) {
+            PackManager.v().getPack("cg").apply();
+        }
+
+        // The pre-transformer transforms the active bodies only, thus the transformed bodies are detached meanwhile
+        val transformedBodies = new HashMap<SootMethod, Body>();
+
+        for (val transformedClass : transformedClasses) {
+            for (val sootMethod : Scene.v().getSootClass(transformedClass).getMethods()) {
+                if (sootMethod.hasActiveBody()) {
+                    transformedBodies.put(sootMethod, sootMethod.getActiveBody());
+                    sootMethod.releaseActiveBody();
+                }
+            }
+        }
+
+        // The pre-transformer is a singleton that is applied only once, even if the Soot has been reset since
+        try (val timer = runStatistics.time(RunStatistics.BOOMERANG_PRE_TRANSFORMER)) {
+            BoomerangPretransformer.v().reset();
+            BoomerangPretransformer.v().apply();
+        } finally {
+            transformedBodies.forEach(SootMethod::setActiveBody);
+        }
+
+        try (val timer = runStatistics.time(RunStatistics.WJTP_PACK)) {
+            PackManager.v().getPack("wjtp").apply();
+        }
     }
 
     /**
@@ -92,12 +258,94 @@ public class SootUtils {
      * @throws FileNotFoundException If the provided file does not exist
      */
     protected void flushSootClassToFile(File outFile, SootClass sootClass) throws FileNotFoundException {
-        val writer = new PrintWriter(outFile);
-        soot.Printer.v().printTo(sootClass, writer);
+        val writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outFile), StandardCharsets.UTF_8), 1 << 16));
+        printSootClass(sootClass, writer);
         writer.flush();
         writer.close();
     }
 
+    /**
+     * Prints the Jimple code of the provided SootClass to the provided writer
+     *
+     * @param sootClass SootClass
+     * @param writer Writer
+     */
+    protected void printSootClass(SootClass sootClass, PrintWriter writer) {
+        soot.Printer.v().printTo(sootClass, writer);
+    }
+
+    /**
+     * Retrieves the active bodies of all the concrete methods in the given Soot class and resolves the methods invoked
+     * in them. Afterwards, printing the class and generating its metrics do not modify the Scene anymore.
+     * <p>
+     * Note: The methods whose body could not be retrieved are skipped, retrieving them later reports the error.
+     *
+     * @param sootClass Soot class
+     * @return Number of bodies that are retrieved, i.e. were not retrieved before
+     */
+    protected int retrieveActiveBodies(SootClass sootClass) {
+        int retrievedBodies = 0;
+
+        for (val sootMethod : sootClass.getMethods()) {
+            if (!sootMethod.isConcrete()) {
+                continue;
+            }
+
+            val isRetrieved = sootMethod.hasActiveBody();
+
+            try {
+                val body = sootMethod.retrieveActiveBody();
+
+                if (!isRetrieved) {
+                    retrievedBodies++;
+                }
+
+                for (val unit : body.getUnits()) {
+                    val stmt = (Stmt) unit;
+
+                    if (stmt.containsInvokeExpr()) {
+                        stmt.getInvokeExpr().getMethod();
+                    }
+                }
+            } catch (RuntimeException ignored) {
+            }
+        }
+
+        return retrievedBodies;
+    }
+
+    /**
+     * Returns the method sources of the methods in the given Soot class whose body is not retrieved yet. Soot drops
+     * the method source once the body is retrieved, therefore it must be taken beforehand to release the body.
+     *
+     * @param sootClass Soot class
+     * @return Map of Soot method and its method source
+     */
+    protected Map<SootMethod, MethodSource> getMethodSources(SootClass sootClass) {
+        val methodSources = new HashMap<SootMethod, MethodSource>();
+
+        for (val sootMethod : sootClass.getMethods()) {
+            if (sootMethod.isConcrete() && !sootMethod.hasActiveBody() && sootMethod.getSource() != null) {
+                methodSources.put(sootMethod, sootMethod.getSource());
+            }
+        }
+
+        return methodSources;
+    }
+
+    /**
+     * Releases the active bodies of the given methods and restores their method sources, so that the bodies are
+     * retrieved again on the next access.
+     *
+     * @param methodSources Map of Soot method and its method source, see {@link #getMethodSources(SootClass)}
+     */
+    protected void releaseBodies(Map<SootMethod, MethodSource> methodSources) {
+        methodSources.forEach((sootMethod, methodSource) -> {
+            sootMethod.releaseActiveBody();
+            sootMethod.setSource(methodSource);
+        });
+    }
+
     /**
      * Returns all the invoke-expression's method signature in the given method
      *
@@ -105,35 +353,199 @@ public class SootUtils {
      * @return Returns List of invoke-expression's method signature in the given method
      */
     protected List<InvokeExpressionToLineNumber> getAllInvokedMethodSignatures(SootMethod sootMethod) {
-        val invokeExpressionSignatures = new ArrayList<InvokeExpressionToLineNumber>();
+        val signatureTable = new SignatureTable();
+        return getInvokeSites(sootMethod, signatureTable).asList(signatureTable);
+    }
 
-        Body body;
+    /**
+     * Returns all the invoke sites in the given Soot method as int records. The signatures are interned in the given
+     * signature table instead of being stored per invoke site.
+     *
+     * @param sootMethod Soot method
+     * @param signatureTable Signature table
+     * @return Invoke sites of the given Soot method
+     */
+    protected MethodInvokeSites getInvokeSites(SootMethod sootMethod, SignatureTable signatureTable) {
+        val methodId = signatureTable.intern(sootMethod.getSignature());
+        val body = retrieveActiveBody(sootMethod);
+
+        return body == null ? new MethodInvokeSites(methodId, new int[0]) : getInvokeSites(methodId, body, signatureTable);
+    }
+
+    /**
+     * Returns the summary of the given Soot method, i.e. its local variables, its stack variables and its invoke sites.
+     * The body is retrieved once, and its locals and its units are traversed once.
+     *
+     * @param sootMethod Soot method
+     * @param signatureTable Signature table the signatures of the invoke sites are interned in
+     * @return Method summary, empty if the body could not be retrieved
+     */
+    protected MethodSummary getMethodSummary(SootMethod sootMethod, SignatureTable signatureTable) {
+        val methodId = signatureTable.intern(sootMethod.getSignature());
+        val body = retrieveActiveBody(sootMethod);
 
+        if (body == null) {
+            return new MethodSummary(Collections.emptyMap(), Collections.emptyMap(), new MethodInvokeSites(methodId, new int[0]));
+        }
+
+        val localVariables = new LinkedHashMap<String, String>();
+        val stackVariables = new LinkedHashMap<String, String>();
+
+        for (val local : body.getLocals()) {
+            val name = local.getName();
+
+            if (isStackVariable(name)) {
+                stackVariables.put(name, local.getType().toString());
+            } else {
+                localVariables.put(name, local.getType().toString());
+            }
+        }
+
+        return new MethodSummary(localVariables, stackVariables, getInvokeSites(methodId, body, signatureTable));
+    }
+
+    /**
+     * Returns the active body of the given Soot method. If it could not be retrieved, the error is reported unless the
+     * method is abstract.
+     *
+     * @param sootMethod Soot method
+     * @return Active body or null if it could not be retrieved
+     */
+    private Body retrieveActiveBody(SootMethod sootMethod) {
         try {
-            body = sootMethod.retrieveActiveBody();
+            return sootMethod.retrieveActiveBody();
         } catch (RuntimeException ex) {
             if (!sootMethod.isAbstract()) {
                 System.err.println("Could not get active body: " + sootMethod);
             }
-            return Collections.emptyList();
+            return null;
         }
+    }
+
+    /**
+     * Returns all the invoke sites in the given body as int records
+     *
+     * @param methodId Signature id of the method
+     * @param body Body
+     * @param signatureTable Signature table
+     * @return Invoke sites of the given body
+     */
+    private MethodInvokeSites getInvokeSites(int methodId, Body body, SignatureTable signatureTable) {
+        int[] records = new int[16];
+        int size = 0;
 
         for (val unit : body.getUnits()) {
             val stmt = (Stmt) unit;
 
             if (stmt.containsInvokeExpr()) {
-                // Invoke expression list
-                invokeExpressionSignatures.add(
-                        new InvokeExpressionToLineNumber(
-                                stmt.getInvokeExpr().getMethod().getSignature(),
-                                sootMethod.getSignature(),
-                                stmt.getJavaSourceStartLineNumber()
-                        )
-                );
+                if (size + 2 > records.length) {
+                    records = Arrays.copyOf(records, 2 * records.length);
+                }
+
+                records[size++] = signatureTable.intern(stmt.getInvokeExpr().getMethod().getSignature());
+                records[size++] = stmt.getJavaSourceStartLineNumber();
             }
         }
 
-        return invokeExpressionSignatures;
+        return new MethodInvokeSites(methodId, Arrays.copyOf(records, size));
+    }
+
+    /**
+     * Returns the classes the invoked methods of the given Soot method are resolved in, i.e. the declaring classes of
+     * the invoked method references with their super classes and interfaces. A method without an active body has none.
+     *
+     * @param sootMethod Soot method
+     * @return Names of the classes
+     */
+    protected Set<String> getInvokeResolutionClasses(SootMethod sootMethod) {
+        val resolutionClasses = new LinkedHashSet<String>();
+
+        if (!sootMethod.hasActiveBody()) {
+            return resolutionClasses;
+        }
+
+        for (val unit : sootMethod.getActiveBody().getUnits()) {
+            val stmt = (Stmt) unit;
+
+            if (stmt.containsInvokeExpr()) {
+                addHierarchy(stmt.getInvokeExpr().getMethodRef().getDeclaringClass(), resolutionClasses);
+            }
+        }
+
+        return resolutionClasses;
+    }
+
+    private static void addHierarchy(SootClass sootClass, Set<String> classes) {
+        if (!classes.add(sootClass.getName())) {
+            return;
+        }
+
+        try {
+            if (sootClass.hasSuperclass()) {
+                addHierarchy(sootClass.getSuperclass(), classes);
+            }
+
+            for (val sootInterface : sootClass.getInterfaces()) {
+                addHierarchy(sootInterface, classes);
+            }
+        } catch (RuntimeException ignored) {
+            // The hierarchy of a class that is not resolved to the hierarchy level is not known
+        }
+    }
+
+    /**
+     * Adds the call edges of the given Soot method to the given call graph builder. The targets of a virtual or
+     * interface call are all the implementations of the invoked method in the class hierarchy.
+     *
+     * @param sootMethod Soot method
+     * @param builder Call graph builder
+     */
+    protected void addCallEdges(SootMethod sootMethod, CallGraphIndex.Builder builder) {
+        Body body;
+
+        try {
+            body = sootMethod.retrieveActiveBody();
+        } catch (RuntimeException ex) {
+            return;
+        }
+
+        for (val unit : body.getUnits()) {
+            val stmt = (Stmt) unit;
+
+            if (stmt.containsInvokeExpr()) {
+                for (val target : getCallTargets(stmt.getInvokeExpr())) {
+                    builder.addEdge(sootMethod, target, stmt.getJavaSourceStartLineNumber());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the targets of the given invoke expression by class hierarchy analysis. If no implementation is found,
+     * e.g. for phantom classes, then the invoked method itself is the target.
+     *
+     * @param invokeExpr Invoke expression
+     * @return Target methods
+     */
+    private Collection<SootMethod> getCallTargets(InvokeExpr invokeExpr) {
+        if (invokeExpr instanceof InstanceInvokeExpr && !(invokeExpr instanceof SpecialInvokeExpr)) {
+            try {
+                val methodRef = invokeExpr.getMethodRef();
+                val targets = Scene.v().getOrMakeFastHierarchy()
+                        .resolveAbstractDispatch(methodRef.getDeclaringClass(), methodRef);
+
+                if (!targets.isEmpty()) {
+                    return targets;
+                }
+            } catch (RuntimeException ignored) {
+            }
+        }
+
+        try {
+            return Collections.singletonList(invokeExpr.getMethod());
+        } catch (RuntimeException ex) {
+            return Collections.emptyList();
+        }
     }
 
     /**
@@ -166,50 +578,22 @@ public class SootUtils {
     }
 
     /**
-     * Check if the variable is a stack variable
-     * @param local Local
-     * @return Returns true if the given Local is a stack variable
-     */
-    private boolean isStackVariable(Local local) {
-        return local.getName().matches("^\\$.*") || local.getName().matches("^l\\d.*");
-    }
-
-    /**
-     * Returns all the stack variable in the given Soot method
+     * Check if the variable is a stack variable, i.e. its name starts with '$' or with 'l' followed by a digit. The
+     * name is checked character by character instead of matching it against regular expressions.
      *
-     * @param sootMethod Soot method
-     * @return Map of stack variables in the given Soot method and its type
+     * @param name Name of the local
+     * @return Returns true if the given name is the name of a stack variable
      */
-    protected Map<String, String> getStackVariablesIn(SootMethod sootMethod) {
-        val stackVariables = new LinkedHashMap<String, String>();
-
-        for (val local : sootMethod.retrieveActiveBody().getLocals()) {
-            if (isStackVariable(local)) {
-                // Stack variables list
-                stackVariables.put(local.getName(), local.getType().toString());
-            }
+    private static boolean isStackVariable(String name) {
+        if (name.isEmpty()) {
+            return false;
         }
 
-        return stackVariables;
-    }
-
-    /**
-     * Returns all the local variable in the given Soot method
-     *
-     * @param sootMethod Soot method
-     * @return Map of local variables in the given Soot method and its type
-     */
-    protected Map<String, String> getLocalVariablesIn(SootMethod sootMethod) {
-        val localVariables = new LinkedHashMap<String, String>();
-
-        for (val local : sootMethod.retrieveActiveBody().getLocals()) {
-            if (!isStackVariable(local)) {
-                // Stack variables list
-                localVariables.put(local.getName(), local.getType().toString());
-            }
+        if (name.charAt(0) == '$') {
+            return true;
         }
 
-        return localVariables;
+        return name.length() > 1 && name.charAt(0) == 'l' && name.charAt(1) >= '0' && name.charAt(1) <= '9';
     }
 
     /**
@@ -0,0 +1,9 @@
+package de.fraunhofer.iem;
+
+import lombok.Data;
+
+@Data
+public class SourceLineNumber {
+    final String fileName;
+    final int lineNumber;
+}
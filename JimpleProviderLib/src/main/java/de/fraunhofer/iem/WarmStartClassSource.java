@@ -0,0 +1,71 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import soot.*;
+import soot.javaToJimple.IInitialResolver;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Class source of a warm start class, which reads the class from its Jimple file and the line numbers of its
+ * statements from its line table. The bodies are taken as they are written in the Jimple file: the Jimple body pack
+ * is not applied again, so that the statements match the line table and the bodies are the ones of the previous run.
+ */
+public class WarmStartClassSource extends JimpleClassSource {
+    private final File lineTableFile;
+
+    /**
+     * Constructor for WarmStartClassSource
+     *
+     * @param className     Class name
+     * @param jimpleFile    Jimple file of the class
+     * @param lineTableFile Line table file of the class
+     */
+    public WarmStartClassSource(String className, File jimpleFile, File lineTableFile) {
+        super(className, new FoundFile(jimpleFile));
+        this.lineTableFile = lineTableFile;
+    }
+
+    @Override
+    public IInitialResolver.Dependencies resolve(SootClass sootClass) {
+        val dependencies = super.resolve(sootClass);
+        JimpleLineTable lineTable;
+
+        try {
+            lineTable = JimpleLineTable.read(lineTableFile);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not read the line table " + lineTableFile.getAbsolutePath() + ".", ex);
+        }
+
+        for (val sootMethod : sootClass.getMethods()) {
+            val methodSource = sootMethod.getSource();
+
+            if (methodSource == null) {
+                continue;
+            }
+
+            sootMethod.setSource((method, phaseName) -> {
+                val options = PhaseOptions.v().getPhaseOptions("jb");
+                val isEnabled = PhaseOptions.getBoolean(options, "enabled");
+
+                // The Jimple file was written from a body that the pack had already been applied to
+                PhaseOptions.v().setPhaseOption("jb", "enabled:false");
+
+                Body body;
+
+                try {
+                    body = methodSource.getBody(method, phaseName);
+                } finally {
+                    PhaseOptions.v().setPhaseOption("jb", "enabled:" + isEnabled);
+                }
+
+                lineTable.apply(method, body);
+
+                return body;
+            });
+        }
+
+        return dependencies;
+    }
+}
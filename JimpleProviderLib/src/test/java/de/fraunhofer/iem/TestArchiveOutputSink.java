@@ -0,0 +1,206 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.*;
+
+public class TestArchiveOutputSink {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private String classPath;
+
+    @Before
+    public void setUp() {
+        URL url = TestArchiveOutputSink.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classPath = url.getPath();
+    }
+
+    private void generate(String output) throws IOException {
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            jimpleProviderBuilder.appClassPath(classPath).build().generate(output, true);
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+
+    private static Map<String, String> readZip(File archive) throws IOException {
+        val entries = new TreeMap<String, String>();
+
+        try (val zipFile = new ZipFile(archive)) {
+            for (val entry : zipFile.stream().collect(Collectors.toList())) {
+                entries.put(entry.getName(), IOUtils.toString(zipFile.getInputStream(entry), StandardCharsets.UTF_8));
+            }
+        }
+
+        return entries;
+    }
+
+    private static Map<String, String> readTar(File archive) throws IOException {
+        val entries = new TreeMap<String, String>();
+        String longName = null;
+
+        try (val inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(archive)))) {
+            val header = new byte[512];
+
+            while (true) {
+                inputStream.readFully(header);
+
+                // The archive ends with empty blocks
+                if (header[0] == 0) {
+                    break;
+                }
+
+                val name = new String(header, 0, 100, StandardCharsets.UTF_8).trim().replace("\0", "");
+                val size = Integer.parseInt(new String(header, 124, 11, StandardCharsets.US_ASCII), 8);
+                val content = new byte[size];
+                inputStream.readFully(content);
+                inputStream.skipBytes((512 - size % 512) % 512);
+
+                if (header[156] == 'x') {
+                    val record = new String(content, StandardCharsets.UTF_8);
+                    assertEquals(Integer.parseInt(record.substring(0, record.indexOf(' '))), size);
+                    longName = record.substring(record.indexOf("path=") + 5, record.length() - 1);
+                } else {
+                    entries.put(longName == null ? name : longName, new String(content, StandardCharsets.UTF_8));
+                    longName = null;
+                }
+            }
+        }
+
+        return entries;
+    }
+
+    private static void assertIndex(Map<String, String> entries) {
+        val index = entries.get(ArchiveOutputSink.INDEX_ENTRY_NAME);
+        assertNotNull(index);
+
+        val indexedFiles = new TreeMap<String, Integer>();
+
+        for (val line : index.split("\n")) {
+            val columns = line.split("\t");
+            indexedFiles.put(columns[0], Integer.parseInt(columns[1]));
+        }
+
+        assertEquals(entries.size() - 1, indexedFiles.size());
+
+        for (val indexedFile : indexedFiles.entrySet()) {
+            assertEquals(indexedFile.getValue().intValue(),
+                    entries.get(indexedFile.getKey()).getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+
+    @Test
+    public void testZip() throws IOException {
+        val outDir = temporaryFolder.newFolder();
+        val archive = new File(temporaryFolder.getRoot(), "out/jimple.zip");
+
+        generate(outDir.getPath());
+        generate(archive.getPath());
+
+        val entries = readZip(archive);
+        assertIndex(entries);
+        assertEquals(9, entries.size());
+
+        // The archive contains the same files as the output directory
+        for (val file : Files.walk(outDir.toPath()).filter(Files::isRegularFile).collect(Collectors.toList())) {
+            val path = outDir.toPath().relativize(file).toString().replace(File.separatorChar, '/');
+            assertEquals(path, new String(Files.readAllBytes(file), StandardCharsets.UTF_8), entries.get(path));
+        }
+
+        // No temporary file is left behind
+        assertArrayEquals(new String[]{"jimple.zip"}, archive.getParentFile().list());
+    }
+
+    private void generate(File archive, int workers, int batchSize, long modificationTime) throws IOException {
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = jimpleProviderBuilder.appClassPath(classPath)
+                    .workers(workers)
+                    .batchSize(batchSize)
+                    .build();
+
+            try (val outputSink = new ArchiveOutputSink(archive, modificationTime)) {
+                jimpleProvider.generate(jimpleProvider.getAppClasses(), outputSink);
+            }
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+
+    @Test
+    public void testParallelWorkers() throws IOException {
+        val modificationTime = System.currentTimeMillis();
+
+        for (val archiveName : Arrays.asList("jimple.zip", "jimple.tar")) {
+            val sequentialArchive = new File(temporaryFolder.newFolder(), archiveName);
+            val parallelArchive = new File(temporaryFolder.newFolder(), archiveName);
+            generate(sequentialArchive, 1, 0, modificationTime);
+            generate(parallelArchive, 4, 0, modificationTime);
+
+            // The entries are written in the order of their paths, whichever worker finishes first
+            assertArrayEquals(archiveName, Files.readAllBytes(sequentialArchive.toPath()),
+                    Files.readAllBytes(parallelArchive.toPath()));
+        }
+    }
+
+    @Test
+    public void testBatches() throws IOException {
+        val modificationTime = System.currentTimeMillis();
+        val archive = new File(temporaryFolder.newFolder(), "jimple.zip");
+        val batchedArchive = new File(temporaryFolder.newFolder(), "jimple.zip");
+
+        generate(archive, 1, 0, modificationTime);
+        // The bodies are released after every batch while the archive is written
+        generate(batchedArchive, 2, 1, modificationTime);
+
+        assertArrayEquals(Files.readAllBytes(archive.toPath()), Files.readAllBytes(batchedArchive.toPath()));
+        assertEquals(9, readZip(batchedArchive).size());
+        assertArrayEquals(new String[]{"jimple.zip"}, batchedArchive.getParentFile().list());
+    }
+
+    @Test
+    public void testTar() throws IOException {
+        val archive = temporaryFolder.newFile("jimple.tar");
+        val longPath = String.join("/", Arrays.asList("de", "fraunhofer", "iem", "very", "long", "package", "name",
+                "that", "does", "not", "fit", "into", "the", "name", "field", "of", "the", "header", "Ä.jimple"));
+
+        try (val outputSink = OutputSink.of(archive.getPath(), 0)) {
+            outputSink.write("de/fraunhofer/iem/App.jimple", writer -> writer.print("app"));
+            outputSink.write(longPath, writer -> writer.print(new String(new char[600]).replace('\0', 'x')));
+        }
+
+        val entries = readTar(archive);
+        assertIndex(entries);
+        assertEquals(3, entries.size());
+        assertEquals("app", entries.get("de/fraunhofer/iem/App.jimple"));
+        assertEquals(600, entries.get(longPath).length());
+
+        generate(archive.getPath());
+
+        // The archive is replaced
+        val generatedEntries = readTar(archive);
+        assertIndex(generatedEntries);
+        assertEquals(9, generatedEntries.size());
+        assertTrue(generatedEntries.get("de/fraunhofer/iem/App.jimple").contains("class de.fraunhofer.iem.App"));
+    }
+}
@@ -0,0 +1,85 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import soot.Scene;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class TestBatchedGeneration {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private String classPath;
+
+    @Before
+    public void setUp() {
+        URL url = TestBatchedGeneration.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classPath = url.getPath();
+    }
+
+    private Map<Path, byte[]> generate(int batchSize, int workers) throws IOException {
+        val outDir = temporaryFolder.newFolder();
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = jimpleProviderBuilder.appClassPath(classPath).batchSize(batchSize).workers(workers).build();
+            jimpleProvider.generate(outDir.getPath(), true);
+
+            if (batchSize > 0) {
+                // 4 classes in batches of 3
+                assertEquals(2, jimpleProvider.getBatchPeakHeapUsages().size());
+
+                for (val sootMethod : Scene.v().getSootClass("de.fraunhofer.iem.App").getMethods()) {
+                    assertFalse(sootMethod.getSignature(), sootMethod.hasActiveBody());
+                }
+
+                // The released bodies are retrieved again
+                assertEquals(3, jimpleProvider.getInvokeSites("de.fraunhofer.iem.App", "void main(java.lang.String[])").size());
+            }
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+
+        val outputs = new TreeMap<Path, byte[]>();
+
+        for (val file : Files.walk(outDir.toPath()).filter(Files::isRegularFile).collect(Collectors.toList())) {
+            outputs.put(outDir.toPath().relativize(file), Files.readAllBytes(file));
+        }
+
+        return outputs;
+    }
+
+    @Test
+    public void test() throws IOException {
+        val outputs = generate(0, 1);
+        val batchedOutputs = generate(3, 1);
+        val parallelBatchedOutputs = generate(3, 2);
+
+        assertEquals(8, outputs.size());
+        assertEquals(outputs.keySet(), batchedOutputs.keySet());
+        assertEquals(outputs.keySet(), parallelBatchedOutputs.keySet());
+
+        for (val output : outputs.entrySet()) {
+            assertArrayEquals(output.getKey().toString(), output.getValue(), batchedOutputs.get(output.getKey()));
+            assertArrayEquals(output.getKey().toString(), output.getValue(), parallelBatchedOutputs.get(output.getKey()));
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testPreTransformer() throws IOException {
+        new JimpleProviderBuilder().appClassPath(classPath).batchSize(3).preTransformer(PreTransformer.BOOMERANG).build();
+    }
+}
@@ -0,0 +1,89 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class TestCallGraphIndex {
+    private static final String MAIN = "<de.fraunhofer.iem.App: void main(java.lang.String[])>";
+    private static final String GET_PRINTER = "<de.fraunhofer.iem.App: de.fraunhofer.iem.HelloPrinter getPrinter()>";
+    private static final String PRINT_WITH_NAME =
+            "<de.fraunhofer.iem.HelloPrinterWithName: void printHelloWorld(java.lang.String)>";
+    private static final String PRINTLN = "<java.io.PrintStream: void println(java.lang.String)>";
+
+    private String classPath;
+
+    @Before
+    public void setUp() {
+        URL url = TestCallGraphIndex.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classPath = url.getPath();
+    }
+
+    @Test
+    public void test() throws IOException {
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            val callGraph = jimpleProviderBuilder.appClassPath(classPath).build().getCallGraph();
+
+            assertTrue(callGraph.getCallees(MAIN).contains(GET_PRINTER));
+            assertTrue(callGraph.getCallers(GET_PRINTER).contains(MAIN));
+
+            // The virtual call in main is resolved to all the printers
+            assertTrue(callGraph.getCallees(MAIN).contains(PRINT_WITH_NAME));
+            assertTrue(callGraph.canReach(MAIN, PRINTLN));
+            assertTrue(callGraph.canReach(MAIN, MAIN));
+            assertFalse(callGraph.canReach(PRINT_WITH_NAME, MAIN));
+            assertFalse(callGraph.canReach(MAIN, "<de.fraunhofer.iem.App: void unknown()>"));
+
+            val reachingAppMethods = callGraph.getAppMethodsReaching(PRINTLN);
+            assertTrue(reachingAppMethods.containsAll(Arrays.asList(MAIN, PRINT_WITH_NAME)));
+
+            for (val reachingAppMethod : reachingAppMethods) {
+                assertTrue(reachingAppMethod, reachingAppMethod.startsWith("<de.fraunhofer.iem."));
+                assertTrue(callGraph.canReach(reachingAppMethod, PRINTLN));
+            }
+
+            assertTrue(callGraph.getMethodsReaching(PRINTLN).containsAll(reachingAppMethods));
+            assertTrue(callGraph.getMethodsReachableFrom(MAIN).containsAll(Arrays.asList(MAIN, GET_PRINTER, PRINTLN)));
+
+            // The export contains every edge
+            val invokeSiteTable = callGraph.toInvokeSiteTable();
+            assertEquals(callGraph.getEdgeCount(), invokeSiteTable.size());
+
+            val exportedEdges = new HashSet<String>();
+
+            for (int site = 0; site < invokeSiteTable.size(); site++) {
+                val invokeExpression = invokeSiteTable.getInvokeExpression(site);
+                exportedEdges.add(invokeExpression.getInvokedInMethod() + " -> " + invokeExpression.getInvokedMethodSignature());
+            }
+
+            assertTrue(exportedEdges.contains(MAIN + " -> " + GET_PRINTER));
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+
+    @Test
+    public void testLazySoot() throws IOException {
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            val callGraph = jimpleProviderBuilder.appClassPath(classPath).build(SootMode.LAZY).getCallGraph();
+
+            assertTrue(callGraph.canReach(MAIN, PRINTLN));
+            assertEquals(new HashSet<>(Arrays.asList(MAIN, GET_PRINTER)),
+                    callGraph.getAppMethodsReaching(GET_PRINTER));
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+}
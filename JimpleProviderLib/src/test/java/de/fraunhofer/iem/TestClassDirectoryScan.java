@@ -0,0 +1,79 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class TestClassDirectoryScan {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private String classPath;
+
+    @Before
+    public void setUp() {
+        URL url = TestClassDirectoryScan.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classPath = url.getPath();
+    }
+
+    private void createFile(File root, String path) throws IOException {
+        val file = new File(root, path);
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), new byte[]{1, 2, 3});
+    }
+
+    @Test
+    public void test() throws IOException {
+        val filesUtils = new FilesUtils();
+
+        assertEquals(Arrays.asList(
+                "de.fraunhofer.iem.App",
+                "de.fraunhofer.iem.HelloPrinter",
+                "de.fraunhofer.iem.HelloPrinterWithMessage",
+                "de.fraunhofer.iem.HelloPrinterWithName"), filesUtils.getClassesAsList(classPath));
+
+        // The name of the root directory also appears in a package, which must not be cut out of the class names
+        val root = temporaryFolder.newFolder("pkg");
+        createFile(root, "pkg/b/C.class");
+        createFile(root, "pkg/b/a/B.class");
+        createFile(root, "pkg/A.class");
+        createFile(root, "Z.class");
+        createFile(root, "pkg/b/readme.txt");
+        createFile(root, "pkg/b/class");
+        Files.createDirectories(new File(root, "empty/dir").toPath());
+
+        assertEquals(Arrays.asList("Z", "pkg.A", "pkg.b.C", "pkg.b.a.B"),
+                filesUtils.getClassesAsList(root.getPath()));
+
+        val classFile = filesUtils.scanClassFiles(root.toPath()).get(0);
+        assertEquals("Z", classFile.getClassName());
+        assertEquals(3, classFile.getSize());
+        assertEquals(new File(root, "Z.class").lastModified(), classFile.getLastModified());
+
+        // The modification stamp is computed from the same scan
+        try (val classPathIndex = ClassPathIndex.of(root.getPath())) {
+            val stamp = classPathIndex.getModificationStamp();
+            assertEquals(stamp, classPathIndex.getModificationStamp());
+
+            createFile(root, "pkg/b/D.class");
+            assertNotEquals(stamp, classPathIndex.getModificationStamp());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingDirectory() throws IOException {
+        new FilesUtils().getClassesAsList(new File(temporaryFolder.getRoot(), "missing").getPath());
+    }
+}
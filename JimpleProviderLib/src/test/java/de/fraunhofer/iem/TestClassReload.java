@@ -0,0 +1,103 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class TestClassReload {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File classesDir;
+    private File sourcesDir;
+
+    @Before
+    public void setUp() throws IOException {
+        URL url = TestClassReload.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+
+        classesDir = temporaryFolder.newFolder("classes");
+        sourcesDir = temporaryFolder.newFolder("sources");
+        FileUtils.copyDirectory(new File(url.getPath()), classesDir);
+    }
+
+    private void compile(String methodName) throws IOException {
+        val sourceFile = new File(sourcesDir, "Added.java");
+        Files.write(sourceFile.toPath(), Arrays.asList(
+                "package de.fraunhofer.iem;",
+                "public class Added {",
+                "    public String " + methodName + "() { return \"" + methodName + "\".trim(); }",
+                "}"), StandardCharsets.UTF_8);
+
+        val result = ToolProvider.getSystemJavaCompiler().run(null, null, null,
+                "-source", "8", "-target", "8", "-nowarn", "-d", classesDir.getPath(), sourceFile.getPath());
+        assertEquals(0, result);
+    }
+
+    private void test(SootMode sootMode) throws IOException {
+        val outDir = temporaryFolder.newFolder("out" + sootMode);
+        val addedJimple = new File(outDir, "de/fraunhofer/iem/Added.jimple");
+        val removedJimple = new File(outDir, "de/fraunhofer/iem/HelloPrinterWithName.jimple");
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = jimpleProviderBuilder.appClassPath(classesDir.getPath()).build(sootMode);
+            jimpleProvider.generate(outDir.getPath(), true);
+
+            assertTrue(removedJimple.exists());
+            assertFalse(addedJimple.exists());
+
+            // A new class is added to the app classes
+            compile("first");
+            assertEquals(Collections.singletonList("de.fraunhofer.iem.Added"),
+                    jimpleProvider.regenerate(Collections.singletonList("de.fraunhofer.iem.Added"), outDir.getPath()));
+            assertTrue(jimpleProvider.getAppClasses().contains("de.fraunhofer.iem.Added"));
+            assertTrue(FileUtils.readFileToString(addedJimple, StandardCharsets.UTF_8).contains("first()"));
+
+            // A rebuilt class is resolved again without rebuilding the Scene
+            compile("second");
+            jimpleProvider.regenerate(Collections.singletonList("de.fraunhofer.iem.Added"), outDir.getPath());
+
+            val jimple = FileUtils.readFileToString(addedJimple, StandardCharsets.UTF_8);
+            assertTrue(jimple.contains("second()"));
+            assertFalse(jimple.contains("first()"));
+            assertNotNull(jimpleProvider.getInvokeSites("de.fraunhofer.iem.Added", "java.lang.String second()"));
+
+            // A deleted class is removed with its outputs
+            Files.delete(new File(classesDir, "de/fraunhofer/iem/HelloPrinterWithName.class").toPath());
+            assertTrue(jimpleProvider.regenerate(
+                    Collections.singletonList("de.fraunhofer.iem.HelloPrinterWithName"), outDir.getPath()).isEmpty());
+            assertFalse(removedJimple.exists());
+            assertFalse(new File(outDir, "de/fraunhofer/iem/HelloPrinterWithName.json").exists());
+            assertFalse(jimpleProvider.getAppClasses().contains("de.fraunhofer.iem.HelloPrinterWithName"));
+
+            assertEquals(3, jimpleProvider.getRunStatistics().getPhaseCount(RunStatistics.RELOAD_CLASSES));
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+
+    @Test
+    public void test() throws IOException {
+        test(SootMode.FULL);
+    }
+
+    @Test
+    public void testLazySoot() throws IOException {
+        test(SootMode.LAZY);
+    }
+}
@@ -0,0 +1,78 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import soot.Scene;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class TestClassSelection {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private String classPath;
+
+    @Before
+    public void setUp() {
+        URL url = TestClassSelection.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classPath = url.getPath();
+    }
+
+    @Test
+    public void test() throws IOException {
+        val outDir = temporaryFolder.newFolder();
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = jimpleProviderBuilder
+                    .appClassPath(classPath)
+                    .incremental(true)
+                    .build(true);
+            jimpleProvider.generate(outDir.getPath(), false);
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+
+        val selectingJimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = selectingJimpleProviderBuilder
+                    .appClassPath(classPath)
+                    .incremental(true)
+                    .classes(Arrays.asList("de.fraunhofer.iem.App", "de.fraunhofer.iem.HelloPrinterWithName"))
+                    .includePackages(Collections.singletonList("de.fraunhofer"))
+                    .build(true);
+
+            assertEquals(2, jimpleProvider.getAllApplicationClasses().size());
+            assertFalse(Scene.v().getSootClass("de.fraunhofer.iem.HelloPrinterWithMessage").isApplicationClass());
+
+            // The outputs of the classes that are not selected are kept
+            jimpleProvider.generate(outDir.getPath(), false);
+        } finally {
+            selectingJimpleProviderBuilder.close();
+        }
+
+        assertTrue(new File(outDir, "de/fraunhofer/iem/HelloPrinterWithMessage.jimple").exists());
+        assertTrue(new File(outDir, "de/fraunhofer/iem/App.jimple").exists());
+
+        try {
+            new JimpleProviderBuilder()
+                    .appClassPath(classPath)
+                    .excludePackages(Collections.singletonList("de.fraunhofer.iem"))
+                    .build(true);
+            fail("All the classes are excluded");
+        } catch (RuntimeException ex) {
+            assertEquals("No app class is selected. Please check the selected classes and packages.", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestIncrementalGeneration {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File classPath;
+    private File outDir;
+
+    @Before
+    public void setUp() throws IOException {
+        URL url = TestIncrementalGeneration.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+
+        classPath = temporaryFolder.newFolder("classes");
+        outDir = temporaryFolder.newFolder("out");
+        FileUtils.copyDirectory(new File(url.getPath()), classPath);
+    }
+
+    private void generate() throws IOException {
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            jimpleProviderBuilder.appClassPath(classPath.getPath()).incremental(true).build().generate(outDir.getPath(), false);
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+
+    @Test
+    public void test() throws IOException {
+        generate();
+
+        val appJimple = new File(outDir, "de/fraunhofer/iem/App.jimple");
+        val removedJimple = new File(outDir, "de/fraunhofer/iem/HelloPrinterWithName.jimple");
+        val removedMetric = new File(outDir, "de/fraunhofer/iem/HelloPrinterWithName.json");
+
+        assertTrue(appJimple.exists());
+        assertTrue(removedJimple.exists());
+        assertTrue(new File(outDir, ".jimple-provider-manifest").exists());
+
+        // Unchanged classes must not be generated again
+        FileUtils.writeStringToFile(appJimple, "unchanged", "UTF-8");
+        assertTrue(new File(classPath, "de/fraunhofer/iem/HelloPrinterWithName.class").delete());
+
+        generate();
+
+        assertEquals("unchanged", FileUtils.readFileToString(appJimple, "UTF-8"));
+        assertFalse(removedJimple.exists());
+        assertFalse(removedMetric.exists());
+    }
+}
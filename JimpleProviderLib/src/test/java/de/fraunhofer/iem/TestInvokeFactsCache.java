@@ -0,0 +1,103 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import soot.Scene;
+import soot.SootClass;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestInvokeFactsCache {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private String classPath;
+
+    @Before
+    public void setUp() {
+        URL url = TestInvokeFactsCache.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classPath = url.getPath();
+    }
+
+    @Test
+    public void test() throws IOException {
+        val cacheDir = temporaryFolder.newFolder().getPath();
+
+        val coldBuilder = new JimpleProviderBuilder();
+        val coldUsages = coldBuilder.appClassPath(classPath).invokeFactsCache(cacheDir).build()
+                .getAllInvokedMethodUsages("de.fraunhofer.iem");
+        coldBuilder.close();
+
+        // A later run answers the query from the cache without resolving any body
+        val warmBuilder = new JimpleProviderBuilder();
+
+        try {
+            val warmJimpleProvider = warmBuilder.appClassPath(classPath).invokeFactsCache(cacheDir).build(SootMode.LAZY);
+
+            assertEquals(coldUsages, warmJimpleProvider.getAllInvokedMethodUsages("de.fraunhofer.iem"));
+            assertEquals(21, warmJimpleProvider.getAllMethodSignature().size());
+            assertEquals(SootClass.SIGNATURES, Scene.v().getSootClass("de.fraunhofer.iem.App").resolvingLevel());
+        } finally {
+            warmBuilder.close();
+        }
+    }
+
+    private void compile(File classesDir, String className, String... lines) throws IOException {
+        val sourceFile = new File(temporaryFolder.newFolder(), className + ".java");
+        Files.write(sourceFile.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+
+        assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, "-source", "8", "-target", "8",
+                "-nowarn", "-cp", classesDir.getPath(), "-d", classesDir.getPath(), sourceFile.getPath()));
+    }
+
+    private List<String> getInvokedMethods(String classesDir, String cacheDir) throws IOException {
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            return jimpleProviderBuilder.appClassPath(classesDir).invokeFactsCache(cacheDir).build()
+                    .getAllInvokedMethodSignature("other.Caller", "java.lang.String call(other.Middle)").stream()
+                    .map(InvokeExpressionToLineNumber::getInvokedMethodSignature)
+                    .collect(Collectors.toList());
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+
+    @Test
+    public void testChangedSuperclass() throws IOException {
+        val classesDir = temporaryFolder.newFolder("classes");
+        val cacheDir = temporaryFolder.newFolder("cache").getPath();
+
+        compile(classesDir, "Base", "package other;", "public class Base {",
+                "    public String name() { return \"base\"; }", "}");
+        compile(classesDir, "Middle", "package other;", "public class Middle extends Base {}");
+        compile(classesDir, "Caller", "package other;", "public class Caller {",
+                "    public String call(Middle middle) { return middle.name(); }", "}");
+
+        assertEquals(Arrays.asList("<other.Base: java.lang.String name()>"),
+                getInvokedMethods(classesDir.getPath(), cacheDir));
+
+        // The bytecode of the caller does not change, but its invoked method is resolved to the new override
+        compile(classesDir, "Middle", "package other;", "public class Middle extends Base {",
+                "    public String name() { return \"middle\"; }", "}");
+
+        assertEquals(Arrays.asList("<other.Middle: java.lang.String name()>"),
+                getInvokedMethods(classesDir.getPath(), cacheDir));
+        assertEquals(getInvokedMethods(classesDir.getPath(), temporaryFolder.newFolder("cold").getPath()),
+                getInvokedMethods(classesDir.getPath(), cacheDir));
+    }
+}
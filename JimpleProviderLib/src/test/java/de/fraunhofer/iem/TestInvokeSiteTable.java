@@ -0,0 +1,95 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestInvokeSiteTable {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private String classPath;
+
+    @Before
+    public void setUp() {
+        URL url = TestInvokeSiteTable.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classPath = url.getPath();
+    }
+
+    private static HashMap<String, List<InvokeExpressionToLineNumber>> getUsages(InvokeSiteTable invokeSiteTable) {
+        val usages = new HashMap<String, List<InvokeExpressionToLineNumber>>();
+
+        for (int site = 0; site < invokeSiteTable.size(); site++) {
+            val invokeExpression = invokeSiteTable.getInvokeExpression(site);
+            usages.computeIfAbsent(invokeExpression.getInvokedMethodSignature(), key -> new ArrayList<>())
+                    .add(invokeExpression);
+        }
+
+        return usages;
+    }
+
+    private static void assertTableEquals(InvokeSiteTable expected, InvokeSiteTable actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getSignatureCount(), actual.getSignatureCount());
+
+        for (int site = 0; site < expected.size(); site++) {
+            assertEquals(expected.getInvokeExpression(site), actual.getInvokeExpression(site));
+        }
+    }
+
+    @Test
+    public void test() throws IOException {
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+        InvokeSiteTable invokeSiteTable;
+
+        try {
+            val jimpleProvider = jimpleProviderBuilder.appClassPath(classPath).build();
+            invokeSiteTable = jimpleProvider.getAllInvokeSites("de.fraunhofer.iem");
+
+            assertEquals(jimpleProvider.getAllInvokedMethodUsages("de.fraunhofer.iem"), getUsages(invokeSiteTable));
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+
+        // Every signature is stored once
+        val printlnId = invokeSiteTable.getSignatureId("<java.io.PrintStream: void println(java.lang.String)>");
+        assertNotEquals(-1, printlnId);
+        assertEquals(-1, invokeSiteTable.getSignatureId("<java.io.PrintStream: void unknown()>"));
+        assertEquals("<java.io.PrintStream: void println(java.lang.String)>", invokeSiteTable.getSignature(printlnId));
+
+        val file = new File(temporaryFolder.getRoot(), "export/invoke-sites.bin");
+        val compressedFile = new File(temporaryFolder.getRoot(), "export/invoke-sites.bin.gz");
+        invokeSiteTable.write(file, false);
+        invokeSiteTable.write(compressedFile, true);
+
+        assertTableEquals(invokeSiteTable, InvokeSiteTable.read(file));
+        assertTableEquals(invokeSiteTable, InvokeSiteTable.read(compressedFile));
+        assertTrue(compressedFile.length() < file.length());
+        assertEquals(2, file.getParentFile().list().length);
+
+        // A truncated file is rejected
+        val truncatedFile = temporaryFolder.newFile();
+        Files.write(truncatedFile.toPath(), Arrays.copyOf(Files.readAllBytes(file.toPath()), (int) file.length() - 4));
+
+        try {
+            InvokeSiteTable.read(truncatedFile);
+            fail("The file is truncated");
+        } catch (IOException ex) {
+            assertEquals("Invoke site table is truncated", ex.getMessage());
+        }
+    }
+}
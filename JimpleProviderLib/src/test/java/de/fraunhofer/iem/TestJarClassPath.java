@@ -0,0 +1,89 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestJarClassPath {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File classesDir;
+
+    @Before
+    public void setUp() {
+        URL url = TestJarClassPath.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classesDir = new File(url.getPath());
+    }
+
+    private File createJar(String name, String... classNames) throws IOException {
+        val jar = temporaryFolder.newFile(name);
+
+        try (val out = new ZipOutputStream(new FileOutputStream(jar))) {
+            for (val className : classNames) {
+                val entryName = "de/fraunhofer/iem/" + className + ".class";
+                out.putNextEntry(new ZipEntry(entryName));
+                out.write(FileUtils.readFileToByteArray(new File(classesDir, entryName)));
+                out.closeEntry();
+            }
+        }
+
+        return jar;
+    }
+
+    @Test
+    public void test() throws IOException {
+        val appJar = createJar("app.jar", "App", "HelloPrinter");
+        val printersJar = createJar("printers.jar", "HelloPrinterWithMessage", "HelloPrinterWithName");
+
+        // The second jar is listed in a classpath file
+        val classPathFile = temporaryFolder.newFile("classpath.txt");
+        Files.write(classPathFile.toPath(), Arrays.asList(printersJar.getPath(), ""), StandardCharsets.UTF_8);
+
+        val classPathIndex = ClassPathIndex.of(appJar.getPath() + File.pathSeparator + "@" + classPathFile.getPath());
+
+        assertEquals(new HashSet<>(Arrays.asList("de.fraunhofer.iem.App", "de.fraunhofer.iem.HelloPrinter",
+                        "de.fraunhofer.iem.HelloPrinterWithMessage", "de.fraunhofer.iem.HelloPrinterWithName")),
+                new HashSet<>(classPathIndex.getClasses()));
+        assertEquals(appJar.getPath() + File.pathSeparator + printersJar.getPath(), classPathIndex.getSootClassPath());
+        classPathIndex.close();
+
+        val outDir = temporaryFolder.newFolder();
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = jimpleProviderBuilder
+                    .appClassPath(appJar.getPath() + File.pathSeparator + "@" + classPathFile.getPath())
+                    .incremental(true)
+                    .build();
+
+            assertEquals(3, jimpleProvider.getAllInvokedMethodSignature(
+                    "de.fraunhofer.iem.App", "void main(java.lang.String[])").size());
+
+            jimpleProvider.generate(outDir.getPath(), false);
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+
+        assertTrue(new File(outDir, "de/fraunhofer/iem/HelloPrinterWithName.jimple").exists());
+        assertTrue(new File(outDir, "de/fraunhofer/iem/App.json").exists());
+    }
+}
@@ -0,0 +1,43 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestJimpleMetricsGenerator {
+    private String classPath;
+
+    @Before
+    public void setUp() {
+        URL url = TestJimpleMetricsGenerator.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classPath = url.getPath();
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void test() throws IOException {
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = jimpleProviderBuilder.appClassPath(classPath).build();
+
+            for (val sootClass : jimpleProvider.getAllApplicationClasses()) {
+                new SootUtils().retrieveActiveBodies(sootClass);
+
+                val writer = new StringWriter();
+                JimpleMetricsGenerator.writeMetric(sootClass, writer);
+
+                assertEquals(JimpleMetricsGenerator.generateMetric(sootClass).toString(4), writer.toString());
+            }
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+}
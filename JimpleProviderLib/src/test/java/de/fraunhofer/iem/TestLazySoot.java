@@ -0,0 +1,45 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import soot.Scene;
+import soot.SootClass;
+
+import java.io.IOException;
+import java.net.URL;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestLazySoot {
+    private String classPath;
+
+    @Before
+    public void setUp() {
+        URL url = TestLazySoot.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classPath = url.getPath();
+    }
+
+    @Test
+    public void test() throws IOException {
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            JimpleProvider jimpleProvider = jimpleProviderBuilder.appClassPath(classPath).build(SootMode.LAZY);
+
+            assertEquals(SootClass.SIGNATURES, Scene.v().getSootClass("de.fraunhofer.iem.App").resolvingLevel());
+
+            val invokedMethods = jimpleProvider.getAllInvokedMethodSignature(
+                    "de.fraunhofer.iem.App", "de.fraunhofer.iem.App: void main(java.lang.String[])");
+
+            assertEquals(3, invokedMethods.size());
+            assertEquals(SootClass.BODIES, Scene.v().getSootClass("de.fraunhofer.iem.App").resolvingLevel());
+            assertEquals(SootClass.SIGNATURES, Scene.v().getSootClass("de.fraunhofer.iem.HelloPrinterWithName").resolvingLevel());
+
+            assertEquals(21, jimpleProvider.getAllMethodSignature().size());
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class TestMethodIndex {
+    private String classPath;
+
+    @Before
+    public void setUp() {
+        URL url = TestMethodIndex.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classPath = url.getPath();
+    }
+
+    @Test
+    public void test() throws IOException {
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            jimpleProviderBuilder.appClassPath(classPath).build(true);
+
+            val methodIndex = MethodIndex.of(Collections.singletonList("de.fraunhofer.iem.App"));
+            val signature = "<de.fraunhofer.iem.App: void main(java.lang.String[])>";
+
+            assertEquals(signature, methodIndex.getMethod("de.fraunhofer.iem.App", signature).getSignature());
+            assertEquals(signature, methodIndex.getMethod("de.fraunhofer.iem.App",
+                    "de.fraunhofer.iem.App: void main(java.lang.String[])").getSignature());
+            assertEquals(signature, methodIndex.getMethod("de.fraunhofer.iem.App",
+                    "void main(java.lang.String[])").getSignature());
+
+            assertNull(methodIndex.getMethod("de.fraunhofer.iem.App", "void main()"));
+            assertNull(methodIndex.getMethod("de.fraunhofer.iem.HelloPrinter", "void <init>()"));
+            assertFalse(methodIndex.contains("de.fraunhofer.iem.HelloPrinter"));
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestMethodLineIndex {
+    private String classPath;
+
+    @Before
+    public void setUp() {
+        URL url = TestMethodLineIndex.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classPath = url.getPath();
+    }
+
+    @Test
+    public void test() throws IOException {
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = jimpleProviderBuilder.appClassPath(classPath).build(true);
+            val appFile = "src/main/java/de/fraunhofer/iem/App.java";
+
+            val methodSignatures = jimpleProvider.findMethodsContainingLineNumbers(Arrays.asList(
+                    new SourceLineNumber(appFile, 9),
+                    new SourceLineNumber(appFile, 14),
+                    new SourceLineNumber(appFile, 36),
+                    new SourceLineNumber(appFile, 100),
+                    new SourceLineNumber("src\\main\\java\\de\\fraunhofer\\iem\\HelloPrinterWithName.java", 7)
+            ));
+
+            assertEquals(Arrays.asList(
+                    "<de.fraunhofer.iem.App: void <init>()>",
+                    "<de.fraunhofer.iem.App: void main(java.lang.String[])>",
+                    "<de.fraunhofer.iem.App: de.fraunhofer.iem.HelloPrinter getPrinter()>",
+                    null,
+                    "<de.fraunhofer.iem.HelloPrinterWithName: void printHelloWorld(java.lang.String)>"
+            ), methodSignatures);
+
+            assertEquals("<de.fraunhofer.iem.App: void main(java.lang.String[])>",
+                    jimpleProvider.findMethodContainingLineNumber(appFile, 20));
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import soot.Scene;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class TestMethodSummary {
+    private String classPath;
+
+    @Before
+    public void setUp() {
+        URL url = TestMethodSummary.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classPath = url.getPath();
+    }
+
+    private static Map<String, String> toMap(String... namesAndTypes) {
+        val map = new LinkedHashMap<String, String>();
+
+        for (int i = 0; i < namesAndTypes.length; i += 2) {
+            map.put(namesAndTypes[i], namesAndTypes[i + 1]);
+        }
+
+        return map;
+    }
+
+    private static List<String> getInvokeSites(MethodSummary methodSummary, SignatureTable signatureTable) {
+        return methodSummary.getInvokeSites().asList(signatureTable).stream()
+                .map(invokeSite -> invokeSite.getInvokedMethodSignature() + " @" + invokeSite.getLineNumber())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void test() throws IOException {
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            jimpleProviderBuilder.appClassPath(classPath).build();
+            val sootUtils = new SootUtils();
+            val signatureTable = new SignatureTable();
+            val app = Scene.v().getSootClass("de.fraunhofer.iem.App");
+
+            val mainSummary = sootUtils.getMethodSummary(app.getMethodByName("main"), signatureTable);
+
+            assertEquals(toMap("args", "java.lang.String[]"), mainSummary.getLocalVariables());
+            assertEquals(toMap(
+                    "$stack2", "de.fraunhofer.iem.HelloPrinter",
+                    "$stack3", "java.lang.String",
+                    "$i0", "int"), mainSummary.getStackVariables());
+            assertEquals(Arrays.asList(
+                    "<de.fraunhofer.iem.App: de.fraunhofer.iem.HelloPrinter getPrinter()> @13",
+                    "<java.lang.System: void exit(int)> @16",
+                    "<de.fraunhofer.iem.HelloPrinter: void printHelloWorld(java.lang.String)> @19"
+            ), getInvokeSites(mainSummary, signatureTable));
+
+            // The variables keep the order of the locals of the body
+            val getPrinterSummary = sootUtils.getMethodSummary(app.getMethodByName("getPrinter"), signatureTable);
+
+            assertTrue(getPrinterSummary.getLocalVariables().isEmpty());
+            assertEquals(Arrays.asList("$stack3", "$stack4", "$stack5", "$stack6", "$stack7", "$stack8", "$stack9",
+                    "$stack10", "$stack11", "$stack12", "$stack13", "$stack14", "$stack15", "$stack16", "$stack17",
+                    "$stack19", "$stack20", "l2"),
+                    new ArrayList<>(getPrinterSummary.getStackVariables().keySet()));
+            assertEquals("java.util.Scanner", getPrinterSummary.getStackVariables().get("$stack3"));
+            assertEquals("byte", getPrinterSummary.getStackVariables().get("l2"));
+            assertEquals(Arrays.asList(
+                    "<java.util.Scanner: void <init>(java.io.InputStream)> @23",
+                    "<java.util.Scanner: java.lang.String nextLine()> @23",
+                    "<java.lang.String: java.lang.String[] split(java.lang.String)> @25",
+                    "<java.io.PrintStream: void println(java.lang.String)> @26",
+                    "<java.lang.String: java.lang.String[] split(java.lang.String)> @30",
+                    "<java.lang.String: java.lang.String[] split(java.lang.String)> @32",
+                    "<java.lang.String: java.lang.String toLowerCase()> @32",
+                    "<java.lang.String: int hashCode()> @32",
+                    "<java.lang.String: boolean equals(java.lang.Object)> @32",
+                    "<java.lang.String: boolean equals(java.lang.Object)> @32",
+                    "<de.fraunhofer.iem.HelloPrinterWithName: void <init>()> @34",
+                    "<de.fraunhofer.iem.HelloPrinterWithMessage: void <init>()> @36",
+                    "<java.io.PrintStream: void println(java.lang.String)> @38"
+            ), getInvokeSites(getPrinterSummary, signatureTable));
+
+            val constructorSummary = sootUtils.getMethodSummary(app.getMethodByName("<init>"), signatureTable);
+
+            assertEquals(toMap("this", "de.fraunhofer.iem.App"), constructorSummary.getLocalVariables());
+            assertTrue(constructorSummary.getStackVariables().isEmpty());
+            assertEquals(Collections.singletonList("<java.lang.Object: void <init>()> @9"),
+                    getInvokeSites(constructorSummary, signatureTable));
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+}
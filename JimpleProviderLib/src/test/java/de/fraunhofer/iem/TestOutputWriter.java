@@ -0,0 +1,63 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class TestOutputWriter {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void test() throws IOException {
+        val outDir = temporaryFolder.newFolder();
+        val first = new File(outDir, "de/fraunhofer/iem/First.jimple");
+        val second = new File(outDir, "de/fraunhofer/iem/Second.jimple");
+        val third = new File(outDir, "de/fraunhofer/Third.jimple");
+
+        try (val outputWriter = new OutputWriter(2)) {
+            outputWriter.write(first, writer -> writer.print("first"));
+            // The batch is not complete yet
+            assertFalse(first.exists());
+
+            outputWriter.write(second, writer -> writer.print("second"));
+            assertEquals("first", read(first));
+            assertEquals("second", read(second));
+
+            outputWriter.write(third, writer -> writer.print("third"));
+            assertFalse(third.exists());
+        }
+
+        assertEquals("third", read(third));
+
+        // Existing files are replaced
+        val outputWriter = new OutputWriter(0);
+        outputWriter.write(first, writer -> writer.print("replaced"));
+        assertEquals("replaced", read(first));
+
+        try {
+            outputWriter.write(second, writer -> {
+                throw new IOException("failed");
+            });
+            fail("The content failed");
+        } catch (IOException ex) {
+            assertEquals("failed", ex.getMessage());
+        }
+
+        // A failed write keeps the old file and leaves no temporary file behind
+        assertEquals("second", read(second));
+        assertEquals(0, new File(outDir, "de/fraunhofer/iem").list((dir, name) -> name.startsWith(".")).length);
+    }
+}
@@ -0,0 +1,64 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TestParallelGeneration {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private String classPath;
+
+    @Before
+    public void setUp() {
+        URL url = TestParallelGeneration.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classPath = url.getPath();
+    }
+
+    private Map<Path, byte[]> generate(int workers) throws IOException {
+        val outDir = temporaryFolder.newFolder();
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            jimpleProviderBuilder.appClassPath(classPath).workers(workers).build().generate(outDir.getPath(), true);
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+
+        val outputs = new TreeMap<Path, byte[]>();
+
+        for (val file : Files.walk(outDir.toPath()).filter(Files::isRegularFile).collect(Collectors.toList())) {
+            outputs.put(outDir.toPath().relativize(file), Files.readAllBytes(file));
+        }
+
+        return outputs;
+    }
+
+    @Test
+    public void test() throws IOException {
+        val sequentialOutputs = generate(1);
+        val parallelOutputs = generate(4);
+
+        assertEquals(8, sequentialOutputs.size());
+        assertEquals(sequentialOutputs.keySet(), parallelOutputs.keySet());
+
+        for (val output : sequentialOutputs.entrySet()) {
+            assertArrayEquals(output.getKey().toString(), output.getValue(), parallelOutputs.get(output.getKey()));
+        }
+    }
+}
@@ -74,9 +74,9 @@ public class TestRetrieveInvokeMethodSignature {
                 "<java.lang.String: int hashCode()>, " +
                 "<de.fraunhofer.iem.HelloPrinterWithMessage: void <init>()>, " +
                 "<java.lang.StringBuilder: java.lang.String toString()>, " +
-                "<java.io.PrintStream: void println(java.lang.String)>, " +
                 "<java.util.Scanner: java.lang.String nextLine()>, " +
                 "<java.lang.String: java.lang.String[] split(java.lang.String)>, " +
+                "<java.io.PrintStream: void println(java.lang.String)>, " +
                 "<de.fraunhofer.iem.HelloPrinterWithMessage: void printHelloWorld(java.lang.String)>, " +
                 "<de.fraunhofer.iem.HelloPrinterWithName: void <init>()>, " +
                 "<de.fraunhofer.iem.HelloPrinter: void printHelloWorld(java.lang.String)>, " +
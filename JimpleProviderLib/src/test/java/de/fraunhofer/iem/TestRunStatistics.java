@@ -0,0 +1,80 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class TestRunStatistics {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private String classPath;
+
+    @Before
+    public void setUp() {
+        URL url = TestRunStatistics.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classPath = url.getPath();
+    }
+
+    @Test
+    public void test() throws IOException {
+        val outDir = temporaryFolder.newFolder();
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = jimpleProviderBuilder.appClassPath(classPath).build();
+            jimpleProvider.generate(outDir.getPath(), true);
+
+            val runStatistics = jimpleProvider.getRunStatistics();
+
+            assertEquals(1, runStatistics.getPhaseCount(RunStatistics.INITIALIZE_SOOT));
+            assertEquals(4, runStatistics.getPhaseCount(RunStatistics.PRINT_JIMPLE));
+            assertEquals(4, runStatistics.getPhaseCount(RunStatistics.WRITE_METRICS));
+            assertTrue(runStatistics.getPhaseNanos(RunStatistics.GENERATE) > 0);
+            assertEquals(0, runStatistics.getPhaseNanos(RunStatistics.CG_PACK));
+
+            assertEquals(4, runStatistics.getCounter(RunStatistics.CLASSES_GENERATED));
+            assertEquals(8, runStatistics.getCounter(RunStatistics.FILES_WRITTEN));
+            assertTrue(runStatistics.getCounter(RunStatistics.BODIES_RETRIEVED) > 0);
+            assertTrue(runStatistics.getClassesPerSecond() > 0);
+
+            long bytes = 0;
+
+            for (val file : (Iterable<Path>) Files.walk(outDir.toPath()).filter(Files::isRegularFile)::iterator) {
+                bytes += Files.size(file);
+            }
+
+            assertEquals(bytes, runStatistics.getCounter(RunStatistics.BYTES_WRITTEN));
+
+            val slowestClasses = runStatistics.getSlowestClasses();
+            assertEquals(4, slowestClasses.size());
+
+            for (int i = 1; i < slowestClasses.size(); i++) {
+                assertTrue(slowestClasses.get(i - 1).getNanos() >= slowestClasses.get(i).getNanos());
+            }
+
+            // The run report is valid JSON
+            val writer = new StringWriter();
+            runStatistics.writeJson(writer);
+
+            val runReport = new JSONObject(writer.toString());
+            assertEquals(4, runReport.getJSONObject("counters").getLong(RunStatistics.CLASSES_GENERATED));
+            assertEquals(4, runReport.getJSONObject("phases").getJSONObject(RunStatistics.PRINT_JIMPLE).getLong("count"));
+            assertEquals(4, runReport.getJSONArray("slowestClasses").length());
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class TestSignatureTable {
+    private String classPath;
+
+    @Before
+    public void setUp() {
+        URL url = TestSignatureTable.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classPath = url.getPath();
+    }
+
+    @Test
+    public void test() throws IOException {
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = jimpleProviderBuilder.appClassPath(classPath).build();
+            val signatureTable = jimpleProvider.getSignatureTable();
+
+            val invokeSites = jimpleProvider.getInvokeSites("de.fraunhofer.iem.App", "void main(java.lang.String[])");
+            assertEquals(3, invokeSites.size());
+            assertEquals("<de.fraunhofer.iem.App: void main(java.lang.String[])>",
+                    signatureTable.getSignature(invokeSites.getMethodId()));
+
+            // The string API is a view of the int records
+            val invokedMethods = jimpleProvider.getAllInvokedMethodSignature(
+                    "de.fraunhofer.iem.App", "void main(java.lang.String[])");
+            assertEquals(invokeSites.asList(signatureTable), new ArrayList<>(invokedMethods));
+
+            for (int site = 0; site < invokeSites.size(); site++) {
+                assertEquals(invokedMethods.get(site).getInvokedMethodSignature(),
+                        signatureTable.getSignature(invokeSites.getInvokedMethodId(site)));
+                assertEquals(invokedMethods.get(site).getLineNumber(), invokeSites.getLineNumber(site));
+            }
+
+            // Every signature is interned once and the ids are dense
+            val allMethodSignatures = jimpleProvider.getAllMethodSignature();
+            assertEquals(21, allMethodSignatures.size());
+            assertEquals(21, signatureTable.size());
+
+            for (val methodSignature : allMethodSignatures) {
+                val id = signatureTable.getId(methodSignature);
+                assertTrue(id >= 0 && id < signatureTable.size());
+                assertEquals(id, signatureTable.intern(methodSignature));
+            }
+
+            assertEquals(-1, signatureTable.getId("<de.fraunhofer.iem.App: void unknown()>"));
+            assertNull(jimpleProvider.getInvokeSites("de.fraunhofer.iem.App", "void unknown()"));
+            assertEquals(4, jimpleProvider.getInvokeSites("de.fraunhofer.iem.App").size());
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import soot.Scene;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class TestStreamingUsages {
+    private String classPath;
+
+    @Before
+    public void setUp() {
+        URL url = TestStreamingUsages.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+        classPath = url.getPath();
+    }
+
+    @Test
+    public void test() throws IOException {
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = jimpleProviderBuilder.appClassPath(classPath).build();
+
+            val usages = jimpleProvider.streamInvokedMethodUsages("de.fraunhofer.iem", true)
+                    .collect(Collectors.groupingBy(InvokeExpressionToLineNumber::getInvokedMethodSignature));
+
+            // The bodies retrieved while streaming are released
+            for (val sootMethod : Scene.v().getSootClass("de.fraunhofer.iem.App").getMethods()) {
+                assertFalse(sootMethod.getSignature(), sootMethod.hasActiveBody());
+            }
+
+            // The released bodies are retrieved again
+            assertEquals(usages, jimpleProvider.getAllInvokedMethodUsages("de.fraunhofer.iem"));
+            assertEquals(3, jimpleProvider.getInvokeSites("de.fraunhofer.iem.App", "void main(java.lang.String[])").size());
+
+            val invokedMethodSignatures = jimpleProvider.streamInvokedMethodSignatures("de.fraunhofer.iem", true)
+                    .collect(Collectors.toList());
+            assertEquals(invokedMethodSignatures.size(), new HashSet<>(invokedMethodSignatures).size());
+            assertEquals(jimpleProvider.getAllInvokedMethodSignature("de.fraunhofer.iem"),
+                    new HashSet<>(invokedMethodSignatures));
+
+            val methodSignatures = jimpleProvider.streamMethodSignatures(true).collect(Collectors.toList());
+            assertEquals(21, methodSignatures.size());
+            assertEquals(jimpleProvider.getAllMethodSignature(), new HashSet<>(methodSignatures));
+
+            // The stream is evaluated lazily
+            assertEquals(1, jimpleProvider.streamInvokedMethodUsages("de.fraunhofer.iem", true).limit(1).count());
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+
+    @Test
+    public void testLazySoot() throws IOException {
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = jimpleProviderBuilder.appClassPath(classPath).build(SootMode.LAZY);
+
+            assertEquals(new HashSet<>(jimpleProvider.streamMethodSignatures(true).collect(Collectors.toList())),
+                    jimpleProvider.getAllMethodSignature());
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+}
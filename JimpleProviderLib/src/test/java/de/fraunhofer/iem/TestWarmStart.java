@@ -0,0 +1,324 @@
+package de.fraunhofer.iem;
+
+import lombok.val;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class TestWarmStart {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File classesDir;
+
+    @Before
+    public void setUp() throws IOException {
+        URL url = TestWarmStart.class.getClassLoader().getResource("dummy_project/classes");
+        assert url != null;
+
+        classesDir = temporaryFolder.newFolder("classes");
+        FileUtils.copyDirectory(new File(url.getPath()), classesDir);
+    }
+
+    private Set<String> getMethodSignatures(JimpleProvider jimpleProvider) {
+        val methodSignatures = new TreeSet<String>(jimpleProvider.getAllMethodSignature());
+        methodSignatures.addAll(jimpleProvider.getAllInvokedMethodSignature("de.fraunhofer.iem"));
+        return methodSignatures;
+    }
+
+    private Map<String, String> readFiles(File directory) throws IOException {
+        val files = new TreeMap<String, String>();
+
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            for (val path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                files.put(directory.toPath().relativize(path).toString(),
+                        new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+            }
+        }
+
+        return files;
+    }
+
+    private List<String> findMethods(JimpleProvider jimpleProvider) {
+        val sourceLineNumbers = new ArrayList<SourceLineNumber>();
+
+        for (int lineNumber = 1; lineNumber <= 40; lineNumber++) {
+            sourceLineNumbers.add(new SourceLineNumber("src/main/java/de/fraunhofer/iem/App.java", lineNumber));
+            sourceLineNumbers.add(new SourceLineNumber("src/main/java/de/fraunhofer/iem/HelloPrinterWithName.java", lineNumber));
+        }
+
+        return jimpleProvider.findMethodsContainingLineNumbers(sourceLineNumbers);
+    }
+
+    private static List<Integer> getLineNumbers(List<InvokeExpressionToLineNumber> invokeExpressions) {
+        return invokeExpressions.stream().map(InvokeExpressionToLineNumber::getLineNumber).collect(Collectors.toList());
+    }
+
+    private void recompileHelloPrinter() throws IOException {
+        val sourceFile = new File(temporaryFolder.newFolder("sources"), "HelloPrinter.java");
+        Files.write(sourceFile.toPath(), Arrays.asList(
+                "package de.fraunhofer.iem;",
+                "public interface HelloPrinter {",
+                "    void printHelloWorld(String name);",
+                "    default void changed() { System.out.println(\"changed\"); }",
+                "}"), StandardCharsets.UTF_8);
+
+        val result = ToolProvider.getSystemJavaCompiler().run(null, null, null,
+                "-source", "8", "-target", "8", "-nowarn", "-d", classesDir.getPath(), sourceFile.getPath());
+        assertEquals(0, result);
+    }
+
+    private void test(SootMode sootMode) throws IOException {
+        val previousOutDir = temporaryFolder.newFolder("previous" + sootMode);
+        val outDir = temporaryFolder.newFolder("out" + sootMode);
+        Set<String> coldMethodSignatures;
+        HashMap<String, List<InvokeExpressionToLineNumber>> coldUsages;
+        List<String> coldMethods;
+
+        val coldBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = coldBuilder.appClassPath(classesDir.getPath())
+                    .incremental(true)
+                    .warmStartData(true)
+                    .build(sootMode);
+            jimpleProvider.generate(previousOutDir.getPath(), true);
+            coldMethodSignatures = getMethodSignatures(jimpleProvider);
+            coldUsages = jimpleProvider.getAllInvokedMethodUsages("de.fraunhofer.iem");
+            coldMethods = findMethods(jimpleProvider);
+        } finally {
+            coldBuilder.close();
+        }
+
+        // Every class has its Jimple file, metrics file and line table
+        assertEquals(13, readFiles(previousOutDir).size());
+
+        // All the classes are unchanged and read from their Jimple code
+        val warmBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = warmBuilder.appClassPath(classesDir.getPath())
+                    .incremental(true)
+                    .warmStartData(true)
+                    .warmStart(previousOutDir.getPath())
+                    .build(sootMode);
+            jimpleProvider.generate(outDir.getPath(), true);
+
+            assertEquals(new HashSet<>(jimpleProvider.getAppClasses()), jimpleProvider.getWarmStartClasses());
+            assertEquals(4, jimpleProvider.getWarmStartClasses().size());
+            // The files of the unchanged classes are copied, the manifest has the same digests
+            assertEquals(readFiles(previousOutDir), readFiles(outDir));
+            assertEquals(4, jimpleProvider.getRunStatistics().getCounter(RunStatistics.CLASSES_COPIED));
+            assertEquals(0, jimpleProvider.getRunStatistics().getCounter(RunStatistics.CLASSES_GENERATED));
+
+            // The bodies read from the Jimple code have the line numbers of the bytecode
+            assertEquals(coldMethodSignatures, getMethodSignatures(jimpleProvider));
+            assertEquals(coldUsages, jimpleProvider.getAllInvokedMethodUsages("de.fraunhofer.iem"));
+            assertEquals(Arrays.asList(13, 16, 19), getLineNumbers(jimpleProvider.getAllInvokedMethodSignature(
+                    "de.fraunhofer.iem.App", "void main(java.lang.String[])")));
+            assertEquals(coldMethods, findMethods(jimpleProvider));
+            assertEquals("<de.fraunhofer.iem.App: void main(java.lang.String[])>",
+                    jimpleProvider.findMethodContainingLineNumber("src/main/java/de/fraunhofer/iem/App.java", 16));
+            assertEquals(1, jimpleProvider.getRunStatistics().getPhaseCount(RunStatistics.WARM_START));
+        } finally {
+            warmBuilder.close();
+        }
+
+        // A changed class is read from its bytecode
+        recompileHelloPrinter();
+        val changedBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = changedBuilder.appClassPath(classesDir.getPath())
+                    .warmStart(previousOutDir.getPath())
+                    .build(sootMode);
+            jimpleProvider.generate(outDir.getPath(), true);
+
+            assertEquals(3, jimpleProvider.getWarmStartClasses().size());
+            assertFalse(jimpleProvider.getWarmStartClasses().contains("de.fraunhofer.iem.HelloPrinter"));
+            assertTrue(FileUtils.readFileToString(new File(outDir, "de/fraunhofer/iem/HelloPrinter.jimple"),
+                    StandardCharsets.UTF_8).contains("changed()"));
+            assertEquals(3, jimpleProvider.getRunStatistics().getCounter(RunStatistics.CLASSES_COPIED));
+            assertEquals(1, jimpleProvider.getRunStatistics().getCounter(RunStatistics.CLASSES_GENERATED));
+        } finally {
+            changedBuilder.close();
+        }
+    }
+
+    @Test
+    public void test() throws IOException {
+        test(SootMode.FULL);
+    }
+
+    @Test
+    public void testLazySoot() throws IOException {
+        test(SootMode.LAZY);
+    }
+
+    @Test
+    public void testInvokeFactsCache() throws IOException {
+        val previousOutDir = temporaryFolder.newFolder("previous");
+        val cacheDir = temporaryFolder.newFolder("cache");
+        val coldBuilder = new JimpleProviderBuilder();
+
+        try {
+            coldBuilder.appClassPath(classesDir.getPath())
+                    .incremental(true)
+                    .warmStartData(true)
+                    .build()
+                    .generate(previousOutDir.getPath(), true);
+        } finally {
+            coldBuilder.close();
+        }
+
+        // The facts of the classes read from their Jimple code are not stored in the cache keyed by the bytecode
+        val warmBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = warmBuilder.appClassPath(classesDir.getPath())
+                    .warmStart(previousOutDir.getPath())
+                    .invokeFactsCache(cacheDir.getPath())
+                    .build();
+
+            assertEquals(Arrays.asList(13, 16, 19), getLineNumbers(jimpleProvider.getAllInvokedMethodSignature(
+                    "de.fraunhofer.iem.App", "void main(java.lang.String[])")));
+            assertArrayEquals(new String[0], cacheDir.list());
+        } finally {
+            warmBuilder.close();
+        }
+
+        val cachedBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = cachedBuilder.appClassPath(classesDir.getPath())
+                    .invokeFactsCache(cacheDir.getPath())
+                    .build();
+
+            assertEquals(Arrays.asList(13, 16, 19), getLineNumbers(jimpleProvider.getAllInvokedMethodSignature(
+                    "de.fraunhofer.iem.App", "void main(java.lang.String[])")));
+        } finally {
+            cachedBuilder.close();
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testReplaceWarmStartDirectory() throws IOException {
+        val outDir = temporaryFolder.newFolder("out");
+        val coldBuilder = new JimpleProviderBuilder();
+
+        try {
+            coldBuilder.appClassPath(classesDir.getPath())
+                    .incremental(true)
+                    .warmStartData(true)
+                    .build()
+                    .generate(outDir.getPath(), true);
+        } finally {
+            coldBuilder.close();
+        }
+
+        // The Jimple files of the warm start classes must not be deleted before they are copied
+        val warmBuilder = new JimpleProviderBuilder();
+
+        try {
+            warmBuilder.appClassPath(classesDir.getPath()).warmStart(outDir.getPath()).build().generate(outDir.getPath(), true);
+        } finally {
+            warmBuilder.close();
+        }
+    }
+
+    @Test
+    public void testWithoutWarmStartData() throws IOException {
+        val outDir = temporaryFolder.newFolder("out");
+        val coldBuilder = new JimpleProviderBuilder();
+
+        try {
+            coldBuilder.appClassPath(classesDir.getPath()).incremental(true).build().generate(outDir.getPath(), true);
+        } finally {
+            coldBuilder.close();
+        }
+
+        // Only the Jimple files, the metrics files and the manifest are written
+        assertEquals(9, readFiles(outDir).size());
+
+        val warmBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = warmBuilder.appClassPath(classesDir.getPath())
+                    .warmStart(outDir.getPath())
+                    .build();
+            jimpleProvider.generate(temporaryFolder.newFolder("warm").getPath(), true);
+
+            assertTrue(jimpleProvider.getWarmStartClasses().isEmpty());
+        } finally {
+            warmBuilder.close();
+        }
+
+        // The unchanged classes without line table are generated again for the warm start data
+        val dataBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = dataBuilder.appClassPath(classesDir.getPath())
+                    .incremental(true)
+                    .warmStartData(true)
+                    .build();
+            jimpleProvider.generate(outDir.getPath(), false);
+
+            assertEquals(4, jimpleProvider.getRunStatistics().getCounter(RunStatistics.CLASSES_GENERATED));
+            assertEquals(13, readFiles(outDir).size());
+        } finally {
+            dataBuilder.close();
+        }
+
+        // The line table of a changed class generated without the warm start data is deleted
+        recompileHelloPrinter();
+        val changedBuilder = new JimpleProviderBuilder();
+
+        try {
+            val jimpleProvider = changedBuilder.appClassPath(classesDir.getPath()).incremental(true).build();
+            jimpleProvider.generate(outDir.getPath(), false);
+
+            assertEquals(1, jimpleProvider.getRunStatistics().getCounter(RunStatistics.CLASSES_GENERATED));
+            assertFalse(new File(outDir, "de/fraunhofer/iem/HelloPrinter.lines").exists());
+            assertTrue(new File(outDir, "de/fraunhofer/iem/App.lines").exists());
+        } finally {
+            changedBuilder.close();
+        }
+    }
+
+    @Test
+    public void testWithoutManifest() throws IOException {
+        val jimpleProviderBuilder = new JimpleProviderBuilder();
+
+        try {
+            // A directory that was not generated incrementally has no digests
+            val jimpleProvider = jimpleProviderBuilder.appClassPath(classesDir.getPath())
+                    .warmStart(temporaryFolder.newFolder("empty").getPath())
+                    .build(SootMode.FULL);
+            jimpleProvider.generate(temporaryFolder.newFolder("out").getPath(), true);
+
+            assertTrue(jimpleProvider.getWarmStartClasses().isEmpty());
+        } finally {
+            jimpleProviderBuilder.close();
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testArchive() throws IOException {
+        new JimpleProviderBuilder().appClassPath(classesDir.getPath()).warmStart("jimple.zip").build(SootMode.FULL);
+    }
+}